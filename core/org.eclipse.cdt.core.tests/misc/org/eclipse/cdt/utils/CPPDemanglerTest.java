@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.utils;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Tests for {@link CPPDemangler}, the expected results are the output of c++filt.
+ */
+public class CPPDemanglerTest extends TestCase {
+
+	public static Test suite() {
+		return new TestSuite(CPPDemanglerTest.class);
+	}
+
+	private static void assertDemangled(String expected, String symbol) {
+		assertEquals(symbol, expected, CPPDemangler.demangle(symbol));
+	}
+
+	public void testFunctions() throws Exception {
+		assertDemangled("foo()", "_Z3foov");
+		assertDemangled("foo(int)", "_Z3fooi");
+		assertDemangled("ns::A::method(int, char const*)", "_ZN2ns1A6methodEiPKc");
+		assertDemangled("ns::A::method() const", "_ZNK2ns1A6methodEv");
+		assertDemangled("(anonymous namespace)::foo()", "_ZN12_GLOBAL__N_13fooEv");
+		assertDemangled("A::foo[abi:cxx11]()", "_ZN1A3fooB5cxx11Ev");
+		assertDemangled("foo() [clone .constprop.0]", "_Z3foov.constprop.0");
+	}
+
+	public void testConstructorsAndOperators() throws Exception {
+		assertDemangled("A::A()", "_ZN1AC1Ev");
+		assertDemangled("A::~A()", "_ZN1AD2Ev");
+		assertDemangled("__gnu_cxx::new_allocator<char>::~new_allocator()", "_ZN9__gnu_cxx13new_allocatorIcED2Ev");
+		assertDemangled("std::ios_base::Init::Init()", "_ZNSt8ios_base4InitC1Ev");
+		assertDemangled("A::operator+(A const&)", "_ZN1AplERKS_");
+		assertDemangled("A::operator int()", "_ZN1AcviEv");
+	}
+
+	public void testTemplates() throws Exception {
+		assertDemangled("std::vector<int, std::allocator<int> >::push_back(int const&)",
+				"_ZNSt6vectorIiSaIiEE9push_backERKi");
+		assertDemangled("std::basic_string<char, std::char_traits<char>, std::allocator<char> >::basic_string(char const*, std::allocator<char> const&)",
+				"_ZNSsC1EPKcRKSaIcE");
+		assertDemangled("int max<int>(int, int)", "_Z3maxIiET_S0_S0_");
+		assertDemangled("void f<int, char>(int, char)", "_Z1fIJicEEvDpT_");
+		assertDemangled("void f<true, 5>()", "_Z1fILb1ELi5EEvv");
+	}
+
+	public void testDeclarators() throws Exception {
+		assertDemangled("f(void (*)(int))", "_Z1fPFviE");
+		assertDemangled("f(int (&) [10])", "_Z1fRA10_i");
+		assertDemangled("f(int (A::*)())", "_Z1fM1AFivE");
+	}
+
+	public void testSpecialNames() throws Exception {
+		assertDemangled("vtable for A", "_ZTV1A");
+		assertDemangled("typeinfo for A", "_ZTI1A");
+		assertDemangled("typeinfo name for A", "_ZTS1A");
+		assertDemangled("non-virtual thunk to B::f()", "_ZThn8_N1B1fEv");
+		assertDemangled("guard variable for f()::x", "_ZGVZ1fvE1x");
+		assertDemangled("f()::x", "_ZZ1fvE1x");
+	}
+
+	public void testNotDemangled() throws Exception {
+		assertNull(CPPDemangler.demangle("main"));
+		assertNull(CPPDemangler.demangle("_start"));
+		assertNull(CPPDemangler.demangle("_Z"));
+		assertNull(CPPDemangler.demangle("_Z3fo"));
+		assertNull(CPPDemangler.demangle("_ZN1AC1"));
+		// Expressions are left to c++filt
+		assertNull(CPPDemangler.demangle("_Z1fIiEvDTcl1gfp_EE"));
+	}
+
+	public void testExponentialSubstitutions() throws Exception {
+		StringBuilder symbol = new StringBuilder("_Z1f1AIS_S_E");
+		for (int i = 1; i < 40; i++) {
+			String id = Integer.toString(2 * i - 2, 36).toUpperCase();
+			symbol.append("1AIS").append(id).append("_S").append(id).append("_E");
+		}
+		assertNull(CPPDemangler.demangle(symbol.toString()));
+	}
+
+	/**
+	 * Demangles the symbol table of a large binary twice, the results of the second pass are
+	 * served from the cache and have to match the first pass.
+	 */
+	public void testManySymbols() throws Exception {
+		String[] symbols = new String[50000];
+		for (int i = 0; i < symbols.length; i++) {
+			String ns = "ns" + (i % 100);
+			String clazz = "Class" + i;
+			String method = "method" + (i % 7);
+			symbols[i] = "_ZNK" + ns.length() + ns + clazz.length() + clazz + method.length() + method
+					+ "ERKSt6vectorIiSaIiEEPKc";
+		}
+
+		String[] demangled = new String[symbols.length];
+		for (int i = 0; i < symbols.length; i++) {
+			demangled[i] = CPPDemangler.demangle(symbols[i]);
+			assertNotNull(symbols[i], demangled[i]);
+		}
+		for (int i = 0; i < symbols.length; i++) {
+			assertEquals(demangled[i], CPPDemangler.demangle(symbols[i]));
+		}
+
+		assertEquals("ns7::Class7::method0(std::vector<int, std::allocator<int> > const&, char const*) const",
+				demangled[7]);
+	}
+}
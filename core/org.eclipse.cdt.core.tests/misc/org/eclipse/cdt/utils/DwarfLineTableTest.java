@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.utils;
+
+import java.io.File;
+
+import org.eclipse.cdt.core.testplugin.CTestPlugin;
+import org.eclipse.cdt.utils.debug.dwarf.DwarfLineTable;
+import org.eclipse.core.runtime.Path;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Tests for {@link DwarfLineTable}. The binaries are built from resources/dwarf/lines.c,
+ * see the Makefile next to it.
+ */
+public class DwarfLineTableTest extends TestCase {
+
+	public static Test suite() {
+		return new TestSuite(DwarfLineTableTest.class);
+	}
+
+	private static String getBinary(String name) {
+		File file = CTestPlugin.getDefault().getFileInPlugin(new Path("resources/dwarf/" + name));
+		assertNotNull(file);
+		return file.getAbsolutePath();
+	}
+
+	public void testLineNumbers() throws Exception {
+		DwarfLineTable table = DwarfLineTable.getLineTable(getBinary("lines"));
+		assertNotNull(table);
+		// 13 rows and the end of the sequence
+		assertEquals(14, table.size());
+
+		assertEquals(-1, table.getLineNumber(0x400fff));
+		assertEquals(2, table.getLineNumber(0x401000));
+		assertEquals(2, table.getLineNumber(0x401006));
+		assertEquals(3, table.getLineNumber(0x401007));
+		assertEquals(4, table.getLineNumber(0x40100e));
+		assertEquals(7, table.getLineNumber(0x40100f));
+		assertEquals(9, table.getLineNumber(0x401029));
+		assertEquals(10, table.getLineNumber(0x40102a));
+		assertEquals(9, table.getLineNumber(0x401037));
+		assertEquals(11, table.getLineNumber(0x401043));
+		assertEquals(12, table.getLineNumber(0x401047));
+		// End of the sequence
+		assertEquals(-1, table.getLineNumber(0x401048));
+		assertEquals(-1, table.getLineNumber(0xffffffffffffffffL));
+
+		int[] lines = table.getLineNumbers(new long[] { 0x401000, 0x401048, 0x401046 });
+		assertEquals(3, lines.length);
+		assertEquals(2, lines[0]);
+		assertEquals(-1, lines[1]);
+		assertEquals(12, lines[2]);
+	}
+
+	public void testFileNames() throws Exception {
+		DwarfLineTable table = DwarfLineTable.getLineTable(getBinary("lines"));
+		assertNotNull(table);
+		// The compilation directory is mapped to /work when building the binary
+		String fileName = new Path("/work/lines.c").toOSString();
+		assertEquals(fileName, table.getFileName(0x401000));
+		assertEquals(fileName, table.getFileName(0x401047));
+		assertNull(table.getFileName(0x401048));
+
+		String[] fileNames = table.getFileNames(new long[] { 0x400fff, 0x40101a });
+		assertNull(fileNames[0]);
+		assertEquals(fileName, fileNames[1]);
+	}
+
+	public void testCache() throws Exception {
+		String path = getBinary("lines");
+		DwarfLineTable table = DwarfLineTable.getLineTable(path);
+		assertNotNull(table);
+		assertSame(table, DwarfLineTable.getLineTable(path));
+	}
+
+	public void testNoLineInformation() throws Exception {
+		String path = getBinary("lines_stripped");
+		assertNull(DwarfLineTable.getLineTable(path));
+		// The second query is answered from the cache
+		assertNull(DwarfLineTable.getLineTable(path));
+	}
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.utils;
+
+import java.io.File;
+import java.util.List;
+
+import org.eclipse.cdt.core.IBinaryParser.IBinaryFile;
+import org.eclipse.cdt.core.IBinaryParser.ISymbol;
+import org.eclipse.cdt.core.testplugin.CTestPlugin;
+import org.eclipse.cdt.utils.elf.Elf;
+import org.eclipse.cdt.utils.elf.parser.ElfBinaryObject;
+import org.eclipse.cdt.utils.elf.parser.ElfParser;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Tests the symbol table of {@link ElfBinaryObject}.
+ */
+public class ElfBinaryObjectTest extends TestCase {
+
+	public static Test suite() {
+		return new TestSuite(ElfBinaryObjectTest.class);
+	}
+
+	/**
+	 * A subclass written against the list based method.
+	 */
+	private static class ListBinaryObject extends ElfBinaryObject {
+		ListBinaryObject(IPath path) {
+			super(new ElfParser(), path, IBinaryFile.EXECUTABLE);
+		}
+
+		@Override
+		@SuppressWarnings("deprecation")
+		protected void addSymbols(Elf.Symbol[] array, int type, List<Symbol> list) {
+			super.addSymbols(array, type, list);
+			if (type == ISymbol.FUNCTION) {
+				list.add(new Symbol(this, "extra", type, new Addr32(1), 4));
+			}
+		}
+	}
+
+	private static IPath getBinary(String path) {
+		File file = CTestPlugin.getDefault().getFileInPlugin(new Path("resources/" + path));
+		assertNotNull(file);
+		return new Path(file.getAbsolutePath());
+	}
+
+	public void testSymbols() throws Exception {
+		IPath path = getBinary("exe/x86/o.g/exe_g");
+		ISymbol[] symbols = new ElfBinaryObject(new ElfParser(), path, IBinaryFile.EXECUTABLE).getSymbols();
+		assertTrue(symbols.length > 0);
+		for (int i = 1; i < symbols.length; i++) {
+			assertTrue(symbols[i - 1].getAddress().compareTo(symbols[i].getAddress()) <= 0);
+		}
+	}
+
+	/**
+	 * The symbols that an override of the deprecated method adds to the list end up in the
+	 * table, together with the ones the default implementation forwards to the builder.
+	 */
+	public void testListBasedSubclass() throws Exception {
+		IPath path = getBinary("exe/x86/o.g/exe_g");
+		ISymbol[] expected = new ElfBinaryObject(new ElfParser(), path, IBinaryFile.EXECUTABLE).getSymbols();
+		ISymbol[] actual = new ListBinaryObject(path).getSymbols();
+		assertEquals(expected.length + 1, actual.length);
+		int j = 0;
+		for (ISymbol symbol : actual) {
+			if (symbol.getName().equals("extra")) {
+				assertEquals(1, symbol.getAddress().getValue().longValue());
+			} else {
+				assertEquals(expected[j].getName(), symbol.getName());
+				assertEquals(expected[j].getAddress(), symbol.getAddress());
+				j++;
+			}
+		}
+		assertEquals(expected.length, j);
+	}
+}
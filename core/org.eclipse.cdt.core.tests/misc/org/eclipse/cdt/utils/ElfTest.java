@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.utils;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.eclipse.cdt.core.testplugin.CTestPlugin;
+import org.eclipse.cdt.utils.elf.Elf;
+import org.eclipse.core.runtime.Path;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Compares the results of {@link Elf} with and without a mapping of the whole file.
+ */
+public class ElfTest extends TestCase {
+
+	public static Test suite() {
+		return new TestSuite(ElfTest.class);
+	}
+
+	private static String getBinary(String path) {
+		File file = CTestPlugin.getDefault().getFileInPlugin(new Path("resources/" + path));
+		assertNotNull(file);
+		return file.getAbsolutePath();
+	}
+
+	private static void assertSameContent(String path) throws Exception {
+		Elf unmapped = new Elf(path);
+		Elf mapped = new Elf(path, 0, true);
+		try {
+			Elf.Section[] expected = unmapped.getSections();
+			Elf.Section[] actual = mapped.getSections();
+			assertTrue(expected.length > 0);
+			assertEquals(expected.length, actual.length);
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i].toString(), actual[i].toString());
+				assertEquals(expected[i].sh_type, actual[i].sh_type);
+				assertEquals(expected[i].sh_flags, actual[i].sh_flags);
+				assertEquals(expected[i].sh_addr, actual[i].sh_addr);
+				assertEquals(expected[i].sh_offset, actual[i].sh_offset);
+				assertEquals(expected[i].sh_size, actual[i].sh_size);
+				assertEquals(expected[i].sh_link, actual[i].sh_link);
+				assertEquals(expected[i].sh_info, actual[i].sh_info);
+				assertEquals(expected[i].sh_entsize, actual[i].sh_entsize);
+				if (expected[i].sh_type != Elf.Section.SHT_NOBITS) {
+					byte[] data = expected[i].loadSectionData();
+					assertTrue(Arrays.equals(data, actual[i].loadSectionData()));
+					ByteBuffer buffer = actual[i].mapSectionData();
+					assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+					byte[] mappedData = new byte[buffer.remaining()];
+					buffer.get(mappedData);
+					assertTrue(Arrays.equals(data, mappedData));
+				}
+			}
+
+			unmapped.loadSymbols();
+			mapped.loadSymbols();
+			assertSameSymbols(unmapped.getSymtabSymbols(), mapped.getSymtabSymbols());
+			assertSameSymbols(unmapped.getDynamicSymbols(), mapped.getDynamicSymbols());
+		} finally {
+			unmapped.dispose();
+			mapped.dispose();
+		}
+	}
+
+	private static void assertSameSymbols(Elf.Symbol[] expected, Elf.Symbol[] actual) {
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i].toString(), actual[i].toString());
+			assertEquals(expected[i].st_name, actual[i].st_name);
+			assertEquals(expected[i].st_value, actual[i].st_value);
+			assertEquals(expected[i].st_size, actual[i].st_size);
+			assertEquals(expected[i].st_info, actual[i].st_info);
+			assertEquals(expected[i].st_other, actual[i].st_other);
+			assertEquals(expected[i].st_shndx, actual[i].st_shndx);
+		}
+	}
+
+	public void testMapped64BitLittleEndian() throws Exception {
+		assertSameContent(getBinary("dwarf/lines"));
+	}
+
+	public void testMapped32BitLittleEndian() throws Exception {
+		assertSameContent(getBinary("exe/x86/o.g/exe_g"));
+	}
+
+	public void testMapped32BitBigEndian() throws Exception {
+		assertSameContent(getBinary("exe/ppc/be.g/exe_g"));
+	}
+
+	public void testMappedSharedLibrary() throws Exception {
+		assertSameContent(getBinary("testlib/x86/so.g/libtestlib_g.so"));
+	}
+
+	/**
+	 * A section header offset near the maximum must not overflow when checked against the
+	 * size of the mapping.
+	 */
+	public void testMappedInvalidOffset() throws Exception {
+		byte[] bytes = Files.readAllBytes(new File(getBinary("dwarf/lines")).toPath());
+		// e_shoff of a 64-bit little-endian header
+		ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putLong(0x28, Long.MAX_VALUE - 16);
+		File file = File.createTempFile("elf", null);
+		try {
+			FileOutputStream out = new FileOutputStream(file);
+			try {
+				out.write(bytes);
+			} finally {
+				out.close();
+			}
+			Elf elf = new Elf(file.getAbsolutePath(), 0, true);
+			try {
+				elf.getSections();
+				fail();
+			} catch (EOFException e) {
+				// expected
+			} finally {
+				elf.dispose();
+			}
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.utils;
+
+import org.eclipse.cdt.core.IBinaryParser.ISymbol;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Tests for {@link SymbolTable}.
+ */
+public class SymbolTableTest extends TestCase {
+
+	public static Test suite() {
+		return new TestSuite(SymbolTableTest.class);
+	}
+
+	public void testSortedByAddress() throws Exception {
+		SymbolTable.Builder builder = new SymbolTable.Builder();
+		builder.add(0x300, 0x10, "c", ISymbol.FUNCTION);
+		builder.add(0x100, 0x10, "a", ISymbol.FUNCTION);
+		builder.add(0xffffffff00000000L, 0x10, "high", ISymbol.VARIABLE);
+		builder.add(0x200, 0x10, "b\u00e9", ISymbol.VARIABLE);
+		SymbolTable table = builder.build();
+
+		assertEquals(4, table.size());
+		assertEquals("a", table.getName(0));
+		assertEquals(0x100, table.getAddress(0));
+		assertEquals("b\u00e9", table.getName(1));
+		assertEquals(ISymbol.VARIABLE, table.getType(1));
+		assertEquals("c", table.getName(2));
+		assertEquals(ISymbol.FUNCTION, table.getType(2));
+		assertEquals("high", table.getName(3));
+		assertEquals(0xffffffff00000000L, table.getAddress(3));
+		assertEquals(0x10, table.getSize(3));
+	}
+
+	public void testIndexOf() throws Exception {
+		SymbolTable.Builder builder = new SymbolTable.Builder();
+		builder.add(0x100, 0x10, "a", ISymbol.FUNCTION);
+		builder.add(0x200, 0, "b", ISymbol.FUNCTION);
+		builder.add(0xfffffffffffffff0L, 0x10, "last", ISymbol.VARIABLE);
+		SymbolTable table = builder.build();
+
+		assertEquals(-1, table.indexOf(0));
+		assertEquals(0, table.indexOf(0x100));
+		assertEquals(0, table.indexOf(0x10f));
+		assertEquals(-1, table.indexOf(0x110));
+		assertEquals(1, table.indexOf(0x200));
+		assertEquals(-1, table.indexOf(0x201));
+		assertEquals(2, table.indexOf(0xffffffffffffffffL));
+		assertEquals(-1, SymbolTable.EMPTY.indexOf(0x100));
+	}
+
+	public void testDuplicateFunctions() throws Exception {
+		SymbolTable.Builder builder = new SymbolTable.Builder();
+		builder.add(0x100, 0x10, "f", ISymbol.FUNCTION);
+		builder.add(0x100, 0, "f_alias", ISymbol.FUNCTION);
+		builder.add(0x200, 0, "g", ISymbol.FUNCTION);
+		builder.add(0x200, 0x8, "g_sized", ISymbol.FUNCTION);
+		builder.add(0x300, 0, "v", ISymbol.VARIABLE);
+		builder.add(0x300, 0, "w", ISymbol.VARIABLE);
+		SymbolTable table = builder.build();
+
+		assertEquals(5, table.size());
+		assertEquals("f", table.getName(0));
+		assertEquals("g", table.getName(1));
+		assertEquals("g_sized", table.getName(2));
+		assertEquals("v", table.getName(3));
+		assertEquals("w", table.getName(4));
+		assertEquals(1, table.indexOf(0x200));
+	}
+
+	/**
+	 * Builds and searches a table of the size of a large binary.
+	 */
+	public void testLargeTable() throws Exception {
+		int count = 1000000;
+		SymbolTable.Builder builder = new SymbolTable.Builder();
+		for (int i = 0; i < count; i++) {
+			// Scrambled order, every symbol is 16 bytes with a gap of 16 bytes
+			long address = ((i * 7919L) % count) * 32;
+			builder.add(address, 16, "symbol" + i, ISymbol.FUNCTION);
+		}
+		SymbolTable table = builder.build();
+		assertEquals(count, table.size());
+		for (int i = 1; i < count; i++) {
+			assertTrue(table.getAddress(i - 1) < table.getAddress(i));
+		}
+		for (long address = 0; address < count * 32L; address += 8) {
+			int index = table.indexOf(address);
+			if (address % 32 < 16) {
+				assertEquals(address / 32, index);
+			} else {
+				assertEquals(-1, index);
+			}
+		}
+		assertEquals("symbol" + 7, table.getName(table.indexOf(7 * 7919L % count * 32)));
+	}
+}
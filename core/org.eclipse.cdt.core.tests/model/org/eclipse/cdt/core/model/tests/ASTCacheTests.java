@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2012 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2017 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,9 @@
  *******************************************************************************/
 package org.eclipse.cdt.core.model.tests;
 
+import java.io.File;
+import java.nio.file.Files;
+
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
@@ -22,6 +25,7 @@ import org.eclipse.cdt.core.model.CoreModel;
 import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.core.model.ILanguage;
 import org.eclipse.cdt.core.model.ITranslationUnit;
+import org.eclipse.cdt.core.model.IWorkingCopy;
 import org.eclipse.cdt.core.testplugin.CProjectHelper;
 import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
 import org.eclipse.cdt.core.testplugin.util.TestSourceReader;
@@ -144,6 +148,120 @@ public class ASTCacheTests extends BaseTestCase {
 		checkAccessWithConcurrentReconciler();
 	}
 	
+	public void testSnapshotOfInactiveElement() throws Exception {
+		ASTCache cache= new ASTCache();
+		cache.setActiveElement(fTU1);
+		IASTTranslationUnit ast1= getAST(cache, fTU1);
+		assertNotNull(ast1);
+		assertSame(ast1, getAST(cache, fTU1));
+
+		// The AST of the previously active element is kept as a snapshot.
+		cache.setActiveElement(fTU2);
+		IASTTranslationUnit ast2= getAST(cache, fTU2);
+		assertNotNull(ast2);
+		assertNotSame(ast1, ast2);
+		cache.setActiveElement(fTU1);
+		assertSame(ast1, getAST(cache, fTU1));
+
+		// The snapshot is discarded when the index is written to.
+		cache.setActiveElement(fTU2);
+		fIndex.releaseReadLock();
+		try {
+			CCorePlugin.getIndexManager().reindex(fProject);
+			waitForIndexer(fProject);
+		} finally {
+			fIndex.acquireReadLock();
+		}
+		cache.setActiveElement(fTU1);
+		IASTTranslationUnit ast3= getAST(cache, fTU1);
+		assertNotNull(ast3);
+		assertNotSame(ast1, ast3);
+	}
+
+	public void testSnapshotsOfSeveralElements() throws Exception {
+		ASTCache cache= new ASTCache();
+		cache.setActiveElement(fTU1);
+		IASTTranslationUnit ast1= getAST(cache, fTU1);
+		cache.setActiveElement(fTU2);
+		IASTTranslationUnit ast2= getAST(cache, fTU2);
+		assertEquals(0, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+
+		// Both ASTs are kept after the second element has become inactive, too.
+		cache.setActiveElement(null);
+		cache.setActiveElement(fTU1);
+		assertSame(ast1, getAST(cache, fTU1));
+		cache.setActiveElement(fTU2);
+		assertSame(ast2, getAST(cache, fTU2));
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	public void testSnapshotInvalidatedByParsedHeader() throws Exception {
+		// A header outside of the workspace is not indexed when it changes.
+		File header= File.createTempFile("ASTCacheTests", ".h");
+		try {
+			Files.write(header.toPath(), "int h1;".getBytes());
+			IFile file= createFile(fProject.getProject(), "source3.cpp",
+					"#include \"" + header.getAbsolutePath() + "\"\nint s;");
+			ITranslationUnit tu= (ITranslationUnit) CoreModel.getDefault().create(file);
+			ASTCache cache= new ASTCache();
+			cache.setActiveElement(tu);
+			// Parse the header along with the translation unit, as the reconciler does for
+			// headers that are not indexed.
+			IASTTranslationUnit ast= tu.getAST(fIndex, 0);
+			cache.reconciled(ast, tu);
+			assertSame(ast, getAST(cache, tu));
+
+			cache.setActiveElement(fTU1);
+			cache.setActiveElement(tu);
+			assertSame(ast, getAST(cache, tu));
+
+			cache.setActiveElement(fTU1);
+			Files.write(header.toPath(), "int h2;".getBytes());
+			cache.setActiveElement(tu);
+			assertNotSame(ast, getAST(cache, tu));
+		} finally {
+			header.delete();
+		}
+	}
+
+	public void testDiscardSnapshot() throws Exception {
+		ASTCache cache= new ASTCache();
+		cache.setActiveElement(fTU1);
+		IASTTranslationUnit ast1= getAST(cache, fTU1);
+		cache.setActiveElement(fTU2);
+		cache.discardSnapshot(fTU1);
+		cache.setActiveElement(fTU1);
+		assertNotSame(ast1, getAST(cache, fTU1));
+		assertEquals(0, cache.getHitCount());
+	}
+
+	public void testSnapshotOfDestroyedWorkingCopyIsDiscarded() throws Exception {
+		IWorkingCopy workingCopy= fTU1.getWorkingCopy();
+		ASTCache cache= new ASTCache();
+		cache.setActiveElement(workingCopy);
+		assertNotNull(getAST(cache, workingCopy));
+		cache.setActiveElement(fTU2);
+		workingCopy.destroy();
+		cache.setActiveElement(null);
+		cache.setActiveElement(workingCopy);
+		getAST(cache, workingCopy);
+		assertEquals(0, cache.getHitCount());
+	}
+
+	private IASTTranslationUnit getAST(ASTCache cache, ITranslationUnit tUnit) {
+		final IASTTranslationUnit[] result= { null };
+		cache.runOnAST(tUnit, true, null, new ASTRunnable() {
+			@Override
+			public IStatus runOnAST(ILanguage lang, IASTTranslationUnit ast) {
+				result[0]= ast;
+				return Status.OK_STATUS;
+			}
+		});
+		return result[0];
+	}
+
 	private void checkActiveElement() throws Exception {
 		ASTCache cache= new ASTCache();
 		assertFalse(cache.isActiveElement(fTU1));
@@ -48,6 +48,7 @@ public class AllCoreTests {
         suite.addTest(FlagTests.suite());
         suite.addTest(ArchiveTests.suite());
         suite.addTest(BinaryTests.suite());
+        suite.addTest(BinaryFileCacheTest.suite());
         suite.addTest(TranslationUnitTests.suite());
 		suite.addTest(DeclaratorsTests.suite());
 		suite.addTest(MacroTests.suite());
@@ -60,6 +61,7 @@ public class AllCoreTests {
 		suite.addTest(ASTCacheTests.suite());
 		suite.addTest(AsmModelBuilderTest.suite());
 		suite.addTest(CModelBuilderBugsTest.suite());
+		suite.addTest(IndexModelBuilderTest.suite());
 		suite.addTest(Bug311189.suite());
 
 		suite.addTest(AllLanguageSettingsProvidersCoreTests.suite());
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.core.model.tests;
+
+import java.io.File;
+
+import junit.framework.Test;
+
+import org.eclipse.cdt.core.model.ICProject;
+import org.eclipse.cdt.core.testplugin.CProjectHelper;
+import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
+import org.eclipse.cdt.core.testplugin.util.TestSourceReader;
+import org.eclipse.cdt.internal.core.model.BinaryFileCache;
+import org.eclipse.cdt.internal.core.model.BinaryParserConfig;
+import org.eclipse.cdt.internal.core.model.CModelManager;
+import org.eclipse.core.resources.IFile;
+
+/**
+ * Tests for the cache of the results of the binary parsers that the binary runner keeps.
+ */
+public class BinaryFileCacheTest extends BaseTestCase {
+
+	public static Test suite() {
+		return suite(BinaryFileCacheTest.class, "_");
+	}
+
+	private ICProject fCProject;
+	private IFile fFile;
+	private BinaryParserConfig[] fParsers;
+
+	public BinaryFileCacheTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fCProject= CProjectHelper.createCCProject(getName(), null);
+		assertNotNull(fCProject);
+		fFile= TestSourceReader.createFile(fCProject.getProject(), "data", "not a binary");
+		// The binary runner of the project would write the same cache.
+		CModelManager.getDefault().removeBinaryRunner(fCProject);
+		fParsers= CModelManager.getDefault().getBinaryParser(fCProject.getProject());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		CProjectHelper.delete(fCProject);
+		super.tearDown();
+	}
+
+	/**
+	 * Records the file as non-binary and stores the cache, as a run of the binary runner does.
+	 */
+	private void addAndSave() {
+		BinaryFileCache cache= new BinaryFileCache(fCProject.getProject(), fParsers);
+		cache.load();
+		cache.addNonBinary(fFile);
+		cache.save();
+	}
+
+	private boolean isKnownNonBinary(BinaryParserConfig[] parsers) {
+		BinaryFileCache cache= new BinaryFileCache(fCProject.getProject(), parsers);
+		cache.load();
+		return cache.isKnownNonBinary(fFile);
+	}
+
+	public void testRoundTrip() throws Exception {
+		addAndSave();
+		assertTrue(isKnownNonBinary(fParsers));
+	}
+
+	public void testEntriesAreCarriedOver() throws Exception {
+		addAndSave();
+		BinaryFileCache cache= new BinaryFileCache(fCProject.getProject(), fParsers);
+		cache.load();
+		assertTrue(cache.isKnownNonBinary(fFile));
+		cache.save();
+		assertTrue(isKnownNonBinary(fParsers));
+	}
+
+	public void testEntriesOfFilesNotSeenAreDropped() throws Exception {
+		addAndSave();
+		BinaryFileCache cache= new BinaryFileCache(fCProject.getProject(), fParsers);
+		cache.load();
+		cache.save();
+		assertFalse(isKnownNonBinary(fParsers));
+	}
+
+	public void testInvalidatedBySize() throws Exception {
+		addAndSave();
+		File file= fFile.getLocation().toFile();
+		long lastModified= file.lastModified();
+		fFile= TestSourceReader.createFile(fCProject.getProject(), "data", "not a binary either");
+		assertTrue(file.setLastModified(lastModified));
+		assertFalse(isKnownNonBinary(fParsers));
+	}
+
+	public void testInvalidatedByModificationTime() throws Exception {
+		addAndSave();
+		File file= fFile.getLocation().toFile();
+		assertTrue(file.setLastModified(file.lastModified() + 10000));
+		assertFalse(isKnownNonBinary(fParsers));
+	}
+
+	public void testBinaryRoundTrip() throws Exception {
+		BinaryFileCache cache= new BinaryFileCache(fCProject.getProject(), fParsers);
+		cache.load();
+		cache.addBinary(fFile, "org.eclipse.cdt.core.ELF");
+		cache.save();
+		cache= new BinaryFileCache(fCProject.getProject(), fParsers);
+		cache.load();
+		assertEquals("org.eclipse.cdt.core.ELF", cache.getKnownParser(fFile));
+		assertFalse(cache.isKnownNonBinary(fFile));
+		cache.save();
+		cache= new BinaryFileCache(fCProject.getProject(), fParsers);
+		cache.load();
+		assertEquals("org.eclipse.cdt.core.ELF", cache.getKnownParser(fFile));
+	}
+
+	public void testBinaryInvalidatedByModificationTime() throws Exception {
+		BinaryFileCache cache= new BinaryFileCache(fCProject.getProject(), fParsers);
+		cache.load();
+		cache.addBinary(fFile, "org.eclipse.cdt.core.ELF");
+		cache.save();
+		File file= fFile.getLocation().toFile();
+		assertTrue(file.setLastModified(file.lastModified() + 10000));
+		cache= new BinaryFileCache(fCProject.getProject(), fParsers);
+		cache.load();
+		assertNull(cache.getKnownParser(fFile));
+	}
+
+	public void testNonBinaryHasNoParser() throws Exception {
+		addAndSave();
+		BinaryFileCache cache= new BinaryFileCache(fCProject.getProject(), fParsers);
+		cache.load();
+		assertNull(cache.getKnownParser(fFile));
+		assertTrue(cache.isKnownNonBinary(fFile));
+	}
+
+	public void testInvalidatedByParsers() throws Exception {
+		addAndSave();
+		BinaryParserConfig[] parsers= new BinaryParserConfig[fParsers.length + 1];
+		System.arraycopy(fParsers, 0, parsers, 0, fParsers.length);
+		parsers[fParsers.length]= new BinaryParserConfig(null, "org.eclipse.cdt.core.tests.OtherParser");
+		assertFalse(isKnownNonBinary(parsers));
+		assertTrue(isKnownNonBinary(fParsers));
+	}
+}
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.core.model.tests;
+
+import junit.framework.Test;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.CCorePreferenceConstants;
+import org.eclipse.cdt.core.dom.IPDOMManager;
+import org.eclipse.cdt.core.model.CModelException;
+import org.eclipse.cdt.core.model.CoreModel;
+import org.eclipse.cdt.core.model.ICElement;
+import org.eclipse.cdt.core.model.ICModelStatusConstants;
+import org.eclipse.cdt.core.model.ICProject;
+import org.eclipse.cdt.core.model.IEnumeration;
+import org.eclipse.cdt.core.model.IFunctionDeclaration;
+import org.eclipse.cdt.core.model.IMethodDeclaration;
+import org.eclipse.cdt.core.model.INamespace;
+import org.eclipse.cdt.core.model.ISourceManipulation;
+import org.eclipse.cdt.core.model.ISourceRange;
+import org.eclipse.cdt.core.model.ISourceReference;
+import org.eclipse.cdt.core.model.IStructure;
+import org.eclipse.cdt.core.model.ITranslationUnit;
+import org.eclipse.cdt.core.model.IVariable;
+import org.eclipse.cdt.core.testplugin.CProjectHelper;
+import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
+import org.eclipse.cdt.core.testplugin.util.TestSourceReader;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+
+/**
+ * Tests for building the structure of translation units from the index.
+ */
+public class IndexModelBuilderTest extends BaseTestCase {
+
+	public static Test suite() {
+		return suite(IndexModelBuilderTest.class, "_");
+	}
+
+	private ICProject fCProject;
+	private IFile fFile;
+
+	public IndexModelBuilderTest(String name) {
+		super(name);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		getPreferences().putBoolean(CCorePreferenceConstants.MODEL_BUILD_FROM_INDEX, true);
+		fCProject= CProjectHelper.createCCProject(getName(), null, IPDOMManager.ID_FAST_INDEXER);
+		assertNotNull(fCProject);
+		fFile= TestSourceReader.createFile(fCProject.getProject(), "test.cpp",
+				"#include <stdio.h>\n" +
+				"#define MACRO(x) x\n" +
+				"namespace ns {\n" +
+				"   class A {\n" +
+				"   public:\n" +
+				"      int method(int a) const;\n" +
+				"   private:\n" +
+				"      int field;\n" +
+				"   };\n" +
+				"}\n" +
+				"int ns::A::method(int a) const { int local= a; return local; }\n" +
+				"enum E { e1, e2 };\n" +
+				"int var;\n");
+		waitForIndexer(fCProject);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		getPreferences().remove(CCorePreferenceConstants.MODEL_BUILD_FROM_INDEX);
+		CProjectHelper.delete(fCProject);
+		super.tearDown();
+	}
+
+	private static IEclipsePreferences getPreferences() {
+		return InstanceScope.INSTANCE.getNode(CCorePlugin.PLUGIN_ID);
+	}
+
+	public void testStructureFromIndex() throws Exception {
+		ITranslationUnit tu= (ITranslationUnit) CoreModel.getDefault().create(fFile);
+		tu.close();
+		ICElement[] children= tu.getChildren();
+		assertEquals(6, children.length);
+		assertEquals(ICElement.C_INCLUDE, children[0].getElementType());
+		assertEquals("stdio.h", children[0].getElementName());
+		assertEquals(ICElement.C_MACRO, children[1].getElementType());
+		assertEquals("MACRO", children[1].getElementName());
+		assertEquals(ICElement.C_NAMESPACE, children[2].getElementType());
+		assertEquals("ns", children[2].getElementName());
+		assertEquals(ICElement.C_METHOD, children[3].getElementType());
+		assertEquals("ns::A::method", children[3].getElementName());
+		assertEquals(ICElement.C_ENUMERATION, children[4].getElementType());
+		assertEquals(2, ((IEnumeration) children[4]).getChildren().length);
+		assertEquals(ICElement.C_VARIABLE, children[5].getElementType());
+		assertEquals("int", ((IVariable) children[5]).getTypeName());
+
+		ICElement[] nsChildren= ((INamespace) children[2]).getChildren();
+		assertEquals(1, nsChildren.length);
+		IStructure clazz= (IStructure) nsChildren[0];
+		assertEquals("A", clazz.getElementName());
+		ICElement[] members= clazz.getChildren();
+		assertEquals(2, members.length);
+		IMethodDeclaration method= (IMethodDeclaration) members[0];
+		assertEquals("method", method.getElementName());
+		assertEquals("int", method.getReturnType());
+		assertTrue(method.isConst());
+		assertEquals(ICElement.C_FIELD, members[1].getElementType());
+		assertEquals("int", ((IFunctionDeclaration) children[3]).getReturnType());
+	}
+
+	/**
+	 * The index stores only the names, the source range of an element must be the range of its
+	 * name rather than a made up extent.
+	 */
+	public void testRangesFromIndex() throws Exception {
+		ITranslationUnit tu= (ITranslationUnit) CoreModel.getDefault().create(fFile);
+		tu.close();
+		String contents= new String(tu.getContents());
+		ICElement[] children= tu.getChildren();
+		assertRange(contents, "var;", 3, 13, (ISourceReference) children[5]);
+		assertRange(contents, "E {", 1, 12, (ISourceReference) children[4]);
+		IStructure clazz= (IStructure) ((INamespace) children[2]).getChildren()[0];
+		assertRange(contents, "A {", 1, 4, clazz);
+		assertRange(contents, "field;", 5, 8, (ISourceReference) clazz.getChildren()[1]);
+	}
+
+	private static void assertRange(String contents, String name, int nameLength, int line,
+			ISourceReference element) throws CModelException {
+		ISourceRange range= element.getSourceRange();
+		int offset= contents.indexOf(name);
+		assertEquals(offset, range.getIdStartPos());
+		assertEquals(nameLength, range.getIdLength());
+		assertEquals(offset, range.getStartPos());
+		assertEquals(nameLength, range.getLength());
+		assertEquals(line, range.getStartLine());
+		assertEquals(line, range.getEndLine());
+	}
+
+	/**
+	 * Source manipulation would act on the name only, it must be refused.
+	 */
+	public void testElementsFromIndexAreReadOnly() throws Exception {
+		ITranslationUnit tu= (ITranslationUnit) CoreModel.getDefault().create(fFile);
+		tu.close();
+		ICElement[] children= tu.getChildren();
+		assertFalse(tu.isReadOnly());
+		assertTrue(children[5].isReadOnly());
+		try {
+			((ISourceManipulation) children[5]).delete(false, null);
+			fail("Expected the deletion to be refused");
+		} catch (CModelException e) {
+			assertEquals(ICModelStatusConstants.READ_ONLY, e.getStatus().getCode());
+		}
+		assertEquals(6, tu.getChildren().length);
+		assertTrue(new String(tu.getContents()).contains("int var;"));
+	}
+
+	/**
+	 * A header is built from the variant that was indexed in context of a source file, the ranges
+	 * refer to the header itself.
+	 */
+	public void testHeaderFromIndex() throws Exception {
+		String header= "// header\nint headerVar;\n";
+		IFile headerFile= TestSourceReader.createFile(fCProject.getProject(), "header.h", header);
+		TestSourceReader.createFile(fCProject.getProject(), "source.cpp", "#include \"header.h\"\n");
+		waitForIndexer(fCProject);
+		ITranslationUnit tu= (ITranslationUnit) CoreModel.getDefault().create(headerFile);
+		tu.close();
+		ICElement[] children= tu.getChildren();
+		assertEquals(1, children.length);
+		assertEquals("headerVar", children[0].getElementName());
+		assertTrue(children[0].isReadOnly());
+		assertRange(header, "headerVar", 9, 2, (ISourceReference) children[0]);
+	}
+}
@@ -144,10 +144,12 @@ import org.eclipse.cdt.core.parser.ParserLanguage;
 import org.eclipse.cdt.core.parser.util.CharArrayUtils;
 import org.eclipse.cdt.internal.core.dom.parser.SizeofCalculator;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTNameBase;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPBasicType;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPClassType;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPFunctionType;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPMethod;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPOverloadResolutionCache;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPPointerType;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ClassTypeHelper;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPInternalBinding;
@@ -12225,4 +12227,35 @@ public class AST2CPPTests extends AST2TestBase {
 		ICPPFunctionType logicalNotType = logicalNotOverload.getType();
 		isTypeEqual(logicalNotType, "bool (bool)");
 	}
+
+	//	struct A {};
+	//	void f(int);
+	//	void f(long);
+	//	void f(A);
+	//	void test(A a, const A& ca) {
+	//		f(1);    // int-1
+	//		f(1);    // int-2
+	//		f(1L);   // long
+	//		f(a);    // class-1
+	//		f(ca);   // class-2
+	//		f(1.0);  // ambiguous-1
+	//		f(1.0);  // ambiguous-2
+	//	}
+	public void testOverloadResolutionCache() throws Exception {
+		BindingAssertionHelper bh = getAssertionHelper();
+		ICPPFunction fint = bh.assertNonProblem("f(int)", 1);
+		ICPPFunction flong = bh.assertNonProblem("f(long)", 1);
+		ICPPFunction fa = bh.assertNonProblem("f(A)", 1);
+		assertSame(fint, bh.assertNonProblem("f(1);    // int-1", "f"));
+		assertSame(fint, bh.assertNonProblem("f(1);    // int-2", "f"));
+		assertSame(flong, bh.assertNonProblem("f(1L);   // long", "f"));
+		assertSame(fa, bh.assertNonProblem("f(a);    // class-1", "f"));
+		assertSame(fa, bh.assertNonProblem("f(ca);   // class-2", "f"));
+		bh.assertProblem("f(1.0);  // ambiguous-1", "f", IProblemBinding.SEMANTIC_AMBIGUOUS_LOOKUP);
+		bh.assertProblem("f(1.0);  // ambiguous-2", "f", IProblemBinding.SEMANTIC_AMBIGUOUS_LOOKUP);
+
+		CPPOverloadResolutionCache cache =
+				((CPPASTTranslationUnit) bh.getTranslationUnit()).getOverloadResolutionCache();
+		assertTrue(cache.getHitCount() >= 2);
+	}
 }
@@ -63,6 +63,7 @@ import org.eclipse.cdt.core.dom.ast.IASTMacroExpansionLocation;
 import org.eclipse.cdt.core.dom.ast.IASTName;
 import org.eclipse.cdt.core.dom.ast.IASTNamedTypeSpecifier;
 import org.eclipse.cdt.core.dom.ast.IASTNode;
+import org.eclipse.cdt.core.dom.ast.IASTNode.CopyStyle;
 import org.eclipse.cdt.core.dom.ast.IASTNodeLocation;
 import org.eclipse.cdt.core.dom.ast.IASTNullStatement;
 import org.eclipse.cdt.core.dom.ast.IASTParameterDeclaration;
@@ -121,7 +122,12 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunction;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPMethod;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPNamespace;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateInstance;
+import org.eclipse.cdt.core.dom.ast.gnu.c.GCCLanguage;
+import org.eclipse.cdt.core.dom.ast.gnu.cpp.GPPLanguage;
+import org.eclipse.cdt.core.model.ILanguage;
+import org.eclipse.cdt.core.parser.FileContent;
 import org.eclipse.cdt.core.parser.IToken;
+import org.eclipse.cdt.core.parser.IncludeFileContentProvider;
 import org.eclipse.cdt.core.parser.ParserLanguage;
 import org.eclipse.cdt.internal.core.dom.parser.ASTNode;
 import org.eclipse.cdt.internal.core.dom.parser.c.CFunction;
@@ -3643,6 +3649,119 @@ public class AST2Tests extends AST2TestBase {
 			parseAndCheckBindings(getAboveComment(), lang, true);
 	}
 
+	// void test() {
+	//   __builtin_abs(1);
+	// }
+	public void testBuiltinTypesSharedBetweenTranslationUnits() throws Exception {
+		final String code = getAboveComment();
+		for (ParserLanguage lang : ParserLanguage.values()) {
+			BindingAssertionHelper bh1= new BindingAssertionHelper(code, lang);
+			BindingAssertionHelper bh2= new BindingAssertionHelper(code, lang);
+			IFunction f1= bh1.assertNonProblem("__builtin_abs", IFunction.class);
+			IFunction f2= bh2.assertNonProblem("__builtin_abs", IFunction.class);
+			assertNotSame(f1, f2);
+			assertSame(f1.getType(), f2.getType());
+			assertSame(bh1.getTranslationUnit().getScope(), f1.getScope());
+			assertSame(bh2.getTranslationUnit().getScope(), f2.getScope());
+		}
+	}
+
+	// int g(int);
+	// int f(int a) {
+	//   int b = a;
+	//   return g(b);
+	// }
+	public void testLazyFunctionBodies() throws Exception {
+		final String code = getAboveComment();
+		for (ParserLanguage lang : ParserLanguage.values()) {
+			ILanguage language = lang == CPP ? GPPLanguage.getDefault() : GCCLanguage.getDefault();
+			IASTTranslationUnit tu = language.getASTTranslationUnit(FileContent.create(TEST_CODE, code.toCharArray()),
+					createScannerInfo(false), IncludeFileContentProvider.getEmptyFilesProvider(), null,
+					ILanguage.OPTION_LAZY_FUNCTION_BODIES, NULL_LOG);
+			assertTrue(tu.isFrozen());
+			IASTFunctionDefinition fdef = (IASTFunctionDefinition) tu.getDeclarations()[1];
+			IASTCompoundStatement body = (IASTCompoundStatement) fdef.getBody();
+			assertEquals(code.indexOf('{'), ((ASTNode) body).getOffset());
+			assertEquals(code.lastIndexOf('}') + 1, ((ASTNode) fdef).getOffset() + ((ASTNode) fdef).getLength());
+
+			IASTStatement[] statements = body.getStatements();
+			assertEquals(2, statements.length);
+			assertSame(body, statements[0].getParent());
+			assertTrue(statements[0].isFrozen());
+			assertTrue(statements[1].isFrozen());
+
+			IASTSimpleDeclaration decl = (IASTSimpleDeclaration) ((IASTDeclarationStatement) statements[0]).getDeclaration();
+			IASTFunctionCallExpression call = (IASTFunctionCallExpression) ((IASTReturnStatement) statements[1]).getReturnValue();
+			IASTIdExpression arg = (IASTIdExpression) call.getArguments()[0];
+			assertSame(decl.getDeclarators()[0].getName().resolveBinding(), arg.getName().resolveBinding());
+			IASTIdExpression callee = (IASTIdExpression) call.getFunctionNameExpression();
+			assertTrue(callee.getName().resolveBinding() instanceof IFunction);
+		}
+	}
+
+	// typedef int a;
+	// int b;
+	// int f() {
+	//   a * b;
+	//   return b == 0;
+	// }
+	public void testDeferredAmbiguityResolution() throws Exception {
+		final String code = getAboveComment();
+		for (ParserLanguage lang : ParserLanguage.values()) {
+			ILanguage language = lang == CPP ? GPPLanguage.getDefault() : GCCLanguage.getDefault();
+			IASTTranslationUnit tu = language.getASTTranslationUnit(FileContent.create(TEST_CODE, code.toCharArray()),
+					createScannerInfo(false), IncludeFileContentProvider.getEmptyFilesProvider(), null,
+					ILanguage.OPTION_DEFERRED_AMBIGUITY_RESOLUTION, NULL_LOG);
+			assertTrue(tu.isFrozen());
+			IASTFunctionDefinition fdef = (IASTFunctionDefinition) tu.getDeclarations()[2];
+			IASTCompoundStatement body = (IASTCompoundStatement) fdef.getBody();
+
+			IASTStatement[] statements = body.getStatements();
+			assertEquals(2, statements.length);
+			assertSame(body, statements[0].getParent());
+			assertTrue(statements[0].isFrozen());
+			assertTrue(statements[1].isFrozen());
+
+			// The ambiguity between the multiplication and the declaration has been resolved.
+			IASTSimpleDeclaration decl = (IASTSimpleDeclaration) ((IASTDeclarationStatement) statements[0]).getDeclaration();
+			IASTBinaryExpression expr = (IASTBinaryExpression) ((IASTReturnStatement) statements[1]).getReturnValue();
+			IASTIdExpression id = (IASTIdExpression) expr.getOperand1();
+			assertSame(decl.getDeclarators()[0].getName().resolveBinding(), id.getName().resolveBinding());
+		}
+	}
+
+	// int a[] = { 1, 2, 3 };
+	// void f() {
+	//   a[0] = 1;
+	// }
+	public void testNodeLengthAndFlags() throws Exception {
+		final String code = getAboveComment();
+		for (ParserLanguage lang : ParserLanguage.values()) {
+			IASTTranslationUnit tu = parse(code, lang);
+			IASTFunctionDefinition fdef = (IASTFunctionDefinition) tu.getDeclarations()[1];
+			ASTNode body = (ASTNode) fdef.getBody();
+			assertEquals(code.indexOf('{', code.indexOf("f()")), body.getOffset());
+			assertEquals(code.lastIndexOf('}') + 1, body.getOffset() + body.getLength());
+			assertTrue(body.isActive());
+
+			// The length and the flags are stored in the same field.
+			ASTNode node = (ASTNode) fdef.copy();
+			node.setInactive();
+			assertFalse(node.isActive());
+			assertEquals(((ASTNode) fdef).getLength(), node.getLength());
+			node.setLength(5);
+			assertEquals(5, node.getLength());
+			assertFalse(node.isActive());
+			assertFalse(node.isFrozen());
+
+			// The location of a copy survives the computation of its file location.
+			IASTFunctionDefinition copy = fdef.copy(CopyStyle.withLocations);
+			assertNotNull(copy.getFileLocation());
+			assertSame(fdef, copy.getOriginalNode());
+			assertEquals(fdef.getFileLocation().getNodeOffset(), copy.getFileLocation().getNodeOffset());
+		}
+	}
+
 	public void testBug186018() throws Exception {
 		String code =
 			"int main() { \n" +
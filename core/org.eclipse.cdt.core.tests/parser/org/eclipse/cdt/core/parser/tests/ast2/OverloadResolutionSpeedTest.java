@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.core.parser.tests.ast2;
+
+import org.eclipse.cdt.core.dom.ast.ASTVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTName;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.dom.parser.cpp.GPPParserExtensionConfiguration;
+import org.eclipse.cdt.core.parser.FileContent;
+import org.eclipse.cdt.core.parser.IScanner;
+import org.eclipse.cdt.core.parser.NullLogService;
+import org.eclipse.cdt.core.parser.ParserLanguage;
+import org.eclipse.cdt.core.parser.ParserMode;
+import org.eclipse.cdt.core.parser.ScannerInfo;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.GNUCPPSourceParser;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPSemantics;
+
+/**
+ * Measures the resolution of calls to overloaded stream operators with and without the overload
+ * resolution cache. Run it as a Java application, it is not part of the test suites.
+ */
+public class OverloadResolutionSpeedTest {
+
+	public static void main(String[] args) {
+		try {
+			OverloadResolutionSpeedTest test = new OverloadResolutionSpeedTest();
+			String code = test.createStreamCode(2000);
+			test.runTest(code, false, 5);
+			test.runTest(code, true, 5);
+		} catch (Exception e) {
+			System.out.println(e);
+		}
+	}
+
+	private String createStreamCode(int functions) {
+		StringBuilder code = new StringBuilder();
+		code.append("struct string { string(const char*); };\n");
+		code.append("struct ostream {\n");
+		code.append("  ostream& operator<<(bool);\n");
+		code.append("  ostream& operator<<(short);\n");
+		code.append("  ostream& operator<<(int);\n");
+		code.append("  ostream& operator<<(long);\n");
+		code.append("  ostream& operator<<(unsigned int);\n");
+		code.append("  ostream& operator<<(unsigned long);\n");
+		code.append("  ostream& operator<<(float);\n");
+		code.append("  ostream& operator<<(double);\n");
+		code.append("  ostream& operator<<(const void*);\n");
+		code.append("};\n");
+		code.append("ostream& operator<<(ostream&, char);\n");
+		code.append("ostream& operator<<(ostream&, const char*);\n");
+		code.append("ostream& operator<<(ostream&, const string&);\n");
+		code.append("extern ostream cout;\n");
+		for (int i = 0; i < functions; i++) {
+			code.append("void f").append(i).append("(int i, long l, double d, const string& s) {\n");
+			code.append("  cout << \"value: \" << i << ' ' << l << ' ' << d << '\\n';\n");
+			code.append("  cout << s << \": \" << i + 1 << \", \" << d * 2 << '\\n';\n");
+			code.append("}\n");
+		}
+		return code.toString();
+	}
+
+	private void runTest(String code, boolean useCache, int n) throws Exception {
+		CPPSemantics.cacheOverloadResolution = useCache;
+		try {
+			long totalTime = 0;
+			CPPASTTranslationUnit tu = null;
+			for (int i = 0; i < n; ++i) {
+				long startTime = System.nanoTime();
+				tu = parseAndResolve(code);
+				long time = System.nanoTime() - startTime;
+				// Skip the first run, it warms up the JIT.
+				if (i > 0)
+					totalTime += time;
+			}
+			System.out.println((useCache ? "With cache: " : "Without cache: ") +
+					(totalTime / (n - 1) / 1000000) + " millisecs");
+			if (useCache)
+				System.out.println(tu.getOverloadResolutionCache());
+		} finally {
+			CPPSemantics.cacheOverloadResolution = true;
+		}
+	}
+
+	private CPPASTTranslationUnit parseAndResolve(String code) throws Exception {
+		IScanner scanner = AST2TestBase.createScanner(FileContent.create("<test-code>", code.toCharArray()),
+				ParserLanguage.CPP, ParserMode.COMPLETE_PARSE, new ScannerInfo());
+		GNUCPPSourceParser parser = new GNUCPPSourceParser(scanner, ParserMode.COMPLETE_PARSE,
+				new NullLogService(), new GPPParserExtensionConfiguration(), null);
+		IASTTranslationUnit tu = parser.parse();
+		tu.accept(new ASTVisitor() {
+			{
+				shouldVisitNames = true;
+				shouldVisitImplicitNames = true;
+			}
+
+			@Override
+			public int visit(IASTName name) {
+				name.resolveBinding();
+				return PROCESS_CONTINUE;
+			}
+		});
+		return (CPPASTTranslationUnit) tu;
+	}
+}
@@ -12,6 +12,8 @@ import org.eclipse.cdt.core.dom.ast.IASTFunctionCallExpression;
 import org.eclipse.cdt.core.dom.ast.IASTIdExpression;
 import org.eclipse.cdt.core.dom.ast.IASTInitializerClause;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunction;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPConstexprCache;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPFunction;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPExecution;
 
@@ -27,6 +29,10 @@ public class FunctionTests extends TestBase {
 		public SingleProject() {setStrategy(new SinglePDOMTestStrategy(true, false));}
 		public static TestSuite suite() {return suite(SingleProject.class);}
 	}
+
+	private CPPConstexprCache getConstexprCache() throws Exception {
+		return ((CPPASTTranslationUnit) getLastDeclarationInitializer().getTranslationUnit()).getConstexprCache();
+	}
 	
 	//	struct S {
 	//		int x;
@@ -50,6 +56,63 @@ public class FunctionTests extends TestBase {
 	public void testRecursion() throws Exception {
 		assertEvaluationEquals(55);
 	}
+
+	// constexpr int fib(int n) { return n < 2 ? n : fib(n - 1) + fib(n - 2); }
+	
+	// constexpr int x = fib(24);
+	public void testRepeatedCallsWithSameArguments() throws Exception {
+		assertEvaluationEquals(46368);
+	}
+
+	// constexpr int fib(int n) { return n < 2 ? n : fib(n - 1) + fib(n - 2); }
+
+	// constexpr int x = fib(24);
+	public void testResultsOfCallsAreCached() throws Exception {
+		assertEvaluationEquals(46368);
+		ICPPFunction fib = getBindingFromFirstIdentifier("fib(24)");
+		CPPConstexprCache cache = getConstexprCache();
+		assertEquals(25, cache.getCachedCallCount(fib));
+		assertTrue(cache.getHitCount() > 0);
+	}
+
+	// constexpr int triple(int n) {
+	//   return 3 * n;
+	// }
+
+	// constexpr int x = triple(1) + triple(2) + triple(3);
+	public void testBodyExecutionIsComputedOncePerTranslationUnit() throws Exception {
+		assertEvaluationEquals(18);
+		CPPConstexprCache cache = getConstexprCache();
+		assertEquals(1, cache.getBodyExecutionCount());
+		ICPPFunction first = getBindingFromFirstIdentifier("triple(1)");
+		ICPPFunction last = getBindingFromFirstIdentifier("triple(3)");
+		ICPPExecution exec = cache.getBodyExecution(first);
+		assertNotNull(exec);
+		// The bindings of all calls map to the same execution, also when they come from the index.
+		assertSame(exec, cache.getBodyExecution(last));
+	}
+
+	// constexpr int a[3] { 1, 2, 3 };
+	// constexpr const int* at(int i) { return a + i; }
+	// constexpr int f() { return *at(1) + *at(1); }
+
+	// constexpr int x = f();
+	public void testCallsReturningPointersAreNotCached() throws Exception {
+		assertEvaluationEquals(4);
+		ICPPFunction at = getBindingFromFirstIdentifier("at(int i)");
+		assertEquals(0, getConstexprCache().getCachedCallCount(at));
+	}
+
+	// constexpr int a[2] { 1, 2 };
+	// constexpr int b[2] { 3, 4 };
+	// constexpr int first(const int* p) { return 1; }
+
+	// constexpr int x = first(a) + first(b);
+	public void testCallsWithPointerParametersAreNotCached() throws Exception {
+		assertEvaluationEquals(2);
+		ICPPFunction first = getBindingFromFirstIdentifier("first(const");
+		assertEquals(0, getConstexprCache().getCachedCallCount(first));
+	}
 	
 	// constexpr int helper(int n) { 
 	//   int m = 5;
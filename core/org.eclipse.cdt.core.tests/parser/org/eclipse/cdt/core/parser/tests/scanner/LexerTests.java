@@ -836,4 +836,36 @@ public class LexerTests extends BaseTestCase {
 		token(IToken.tPOUND);
 		eof();
 	}
+
+	public void testTokensAfterSkipping() throws Exception {
+		// The tokens that are skipped are not retained, check that the current and the
+		// last token are still valid afterwards.
+		String input= "#if \n int a = 1; /* c */ \n \"#\" '#' x \n#ok y\n#";
+		init(input);
+		token(IToken.tPOUND);
+		id("if");
+		int end= fLexer.consumeLine(0);
+		assertEquals(input.indexOf(" \n"), end);
+		Token nl= fLexer.currentToken();
+		assertEquals(Lexer.tNEWLINE, nl.getType());
+		assertEquals(input.indexOf('\n'), nl.getOffset());
+
+		Token pound= fLexer.nextDirective();
+		assertEquals(IToken.tPOUND, pound.getType());
+		assertEquals(input.indexOf("#ok"), pound.getOffset());
+		assertSame(pound, fLexer.currentToken());
+		assertEquals(input.indexOf("#ok"), fLexer.getLastEndOffset());
+		assertTrue(fLexer.currentTokenIsFirstOnLine());
+		fLexer.nextToken();
+		assertEquals("ok", fLexer.currentToken().getImage());
+		fLexer.consumeLine(0);
+		assertNotSame(pound, fLexer.currentToken());
+		assertEquals(IToken.tPOUND, pound.getType());
+		assertEquals(input.indexOf("#ok"), pound.getOffset());
+
+		Token last= fLexer.nextDirective();
+		assertEquals(IToken.tPOUND, last.getType());
+		assertEquals(input.length() - 1, last.getOffset());
+		assertEquals(IToken.tEND_OF_INPUT, fLexer.nextToken().getType());
+	}
 }
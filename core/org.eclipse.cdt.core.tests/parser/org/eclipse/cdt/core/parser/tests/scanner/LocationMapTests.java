@@ -525,6 +525,33 @@ public class LocationMapTests extends BaseTestCase {
 		checkName(refs[0], macro2, "n2", refs[0].getParent(), IASTPreprocessorMacroExpansion.NESTED_EXPANSION_NAME, ROLE_REFERENCE, FN, 110, 15, 2, 2, new String(LONGDIGITS, 110, 15));
 	}
 	
+	public void testManyMacroExpansions() {
+		IMacroBinding macro= new TestMacro("n", "exp", null);
+		init(LONGDIGITS);
+		final int count= 100;
+		// Each expansion replaces 5 characters with 3 sequence numbers.
+		for (int i = 0; i < count; i++) {
+			ILocationCtx me= fLocationMap.pushMacroExpansion(10 * i, 10 * i + 2, 10 * i + 5, 3, macro,
+					IASTName.EMPTY_NAME_ARRAY, ImageLocationInfo.NO_LOCATION_INFOS);
+			fLocationMap.popContext(me);
+		}
+		assertEquals(count, fLocationMap.getReferences(macro).length);
+		for (int i = 0; i < count; i++) {
+			final int expansionNumber= 13 * i + 5;
+			IASTFileLocation loc= fLocationMap.getMappedFileLocation(expansionNumber, 3);
+			assertEquals(FN, loc.getFileName());
+			assertEquals(10 * i, loc.getNodeOffset());
+			assertEquals(5, loc.getNodeLength());
+
+			loc= fLocationMap.getMappedFileLocation(expansionNumber + 4, 1);
+			assertEquals(FN, loc.getFileName());
+			assertEquals(10 * i + 6, loc.getNodeOffset());
+			assertEquals(1, loc.getNodeLength());
+
+			assertEquals(expansionNumber + 4, fLocationMap.getSequenceNumberForFileOffset(FN, 10 * i + 6));
+		}
+	}
+
 	public void testContexts() {
 		init(DIGITS);
 		assertEquals(FN, fLocationMap.getTranslationUnitPath());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2011 IBM Corporation and others.
+ * Copyright (c) 2005, 2017 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -29,6 +29,7 @@ import org.eclipse.cdt.core.parser.ParserMode;
 import org.eclipse.cdt.core.parser.ScannerInfo;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
 import org.eclipse.cdt.internal.core.parser.scanner.CPreprocessor;
+import org.eclipse.cdt.internal.core.parser.scanner.PreprocessorOutputWriter;
 
 public class PreprocessorSpeedTest  {
 	
@@ -40,7 +41,9 @@ public class PreprocessorSpeedTest  {
 			if (args.length > 0)
 				stream = new PrintStream(new FileOutputStream(args[0]));
 
-			new PreprocessorSpeedTest().runTest(stream, 200);
+			PreprocessorSpeedTest test = new PreprocessorSpeedTest();
+			test.runTest(stream, 200);
+			test.testOutputThroughput();
 		} catch (Exception e) {
 			System.out.println(e);
 		}
@@ -75,6 +78,32 @@ public class PreprocessorSpeedTest  {
 		}
 	}
 
+	public void testOutputThroughput() throws Exception {
+		StringBuilder code= new StringBuilder();
+		code.append("#define MAX(a, b) ((a) > (b) ? (a) : (b))\n");
+		for (int i = 0; i < 20000; i++) {
+			code.append("int v").append(i).append(" = MAX(").append(i).append(", 17); // comment\n");
+		}
+		FileContent reader = FileContent.create("<test-code>", code.toString().toCharArray());
+		IScannerInfo info = new ScannerInfo();
+		long totalTime = 0;
+		long totalChars = 0;
+		for (int i = 0; i < 5; ++i) {
+			CPreprocessor cpp= new CPreprocessor(reader, info, ParserLanguage.CPP, new NullLogService(),
+					GPPScannerExtensionConfiguration.getInstance(info), FileCodeReaderFactory.getInstance());
+			PreprocessorOutputWriter writer= new PreprocessorOutputWriter(cpp, new StringBuilder());
+			long startTime = System.nanoTime();
+			writer.write();
+			long time = System.nanoTime() - startTime;
+			if (i > 0) {
+				totalTime += time;
+				totalChars += code.length();
+			}
+		}
+		double seconds = totalTime / 1e9;
+		System.out.println("Preprocessor output: " + (long) (totalChars / seconds / (1024 * 1024)) + " MB/s");
+	}
+
 	protected long testScan(FileContent reader, boolean quick, IScannerInfo info, ParserLanguage lang) throws Exception {
 		FileCodeReaderFactory readerFactory= FileCodeReaderFactory.getInstance();
 		IScannerExtensionConfiguration scannerConfig;
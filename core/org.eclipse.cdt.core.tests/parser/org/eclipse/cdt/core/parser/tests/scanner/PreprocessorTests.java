@@ -18,6 +18,8 @@ import java.util.List;
 import org.eclipse.cdt.core.parser.IProblem;
 import org.eclipse.cdt.core.parser.IToken;
 import org.eclipse.cdt.core.parser.ParserLanguage;
+import org.eclipse.cdt.internal.core.parser.scanner.IncludeGuardCache;
+import org.eclipse.cdt.internal.core.parser.scanner.PreprocessorOutputWriter;
 
 import junit.framework.TestSuite;
 
@@ -1381,4 +1383,91 @@ public class PreprocessorTests extends PreprocessorTestsBase {
 		validateProblem(0, IProblem.SCANNER_CONSTANT_WITH_BAD_SUFFIX, "ASDF");
 		validateProblem(1, IProblem.SCANNER_CONSTANT_WITH_BAD_SUFFIX, "xU");
 	}
+
+	// #define A 1 + 2
+	// int x = A;
+	//
+	// int y;
+	public void testOutputWriter() throws Exception {
+		initializeScanner();
+		StringBuilder buf= new StringBuilder();
+		PreprocessorOutputWriter writer= new PreprocessorOutputWriter(fScanner, buf);
+		writer.setEmitLineMarkers(false);
+		writer.write();
+		assertEquals("int x = 1 + 2 ;\n\nint y ;\n", buf.toString());
+		assertEquals(10, writer.getTokenCount());
+	}
+
+	// int a;
+	//
+	//
+	//
+	//
+	//
+	//
+	//
+	//
+	//
+	// int b;
+	public void testOutputWriterLineMarkers() throws Exception {
+		initializeScanner();
+		StringBuilder buf= new StringBuilder();
+		new PreprocessorOutputWriter(fScanner, buf).write();
+		String file= fLocationResolver.getTranslationUnitPath();
+		assertEquals("# 1 \"" + file + "\"\nint a ;\n# 11 \"" + file + "\"\nint b ;\n", buf.toString());
+	}
+
+	// #ifndef GUARD_H
+	// #define GUARD_H
+	// int x;
+	// #endif
+	public void testIncludeGuardCache() throws Exception {
+		IncludeGuardCache cache= IncludeGuardCache.getInstance();
+		cache.clear();
+		String code= getAboveComment();
+		initializeScanner(code);
+		fullyTokenize();
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		// Same content, the guard is taken from the cache.
+		initializeScanner(code);
+		fullyTokenize();
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		// Modified content needs to be scanned again.
+		initializeScanner(code + "int y;\n");
+		fullyTokenize();
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	// #ifndef GUARD_H
+	// #define GUARD_H
+	// int x;
+	// #endif
+	public void testIncludeGuardCacheConfiguration() throws Exception {
+		IncludeGuardCache cache= IncludeGuardCache.getInstance();
+		cache.clear();
+		String code= getAboveComment();
+		initializeScanner(code, ParserLanguage.CPP);
+		fullyTokenize();
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		// The lexer options for C differ, the file needs to be scanned again.
+		initializeScanner(code, ParserLanguage.C);
+		fullyTokenize();
+		assertEquals(0, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+
+		// The entries for both configurations are kept.
+		initializeScanner(code, ParserLanguage.CPP);
+		fullyTokenize();
+		initializeScanner(code, ParserLanguage.C);
+		fullyTokenize();
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
 }
@@ -22,6 +22,7 @@ import org.eclipse.cdt.core.dom.ast.ASTTypeUtil;
 import org.eclipse.cdt.core.dom.ast.DOMException;
 import org.eclipse.cdt.core.dom.ast.EScopeKind;
 import org.eclipse.cdt.core.dom.ast.IASTProblem;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
 import org.eclipse.cdt.core.dom.ast.IBinding;
 import org.eclipse.cdt.core.dom.ast.ICompositeType;
 import org.eclipse.cdt.core.dom.ast.IEnumeration;
@@ -49,6 +50,8 @@ import org.eclipse.cdt.core.dom.ast.cpp.SemanticQueries;
 import org.eclipse.cdt.core.index.IIndex;
 import org.eclipse.cdt.core.index.IIndexBinding;
 import org.eclipse.cdt.core.parser.IProblem;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPScopeLookupCache;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ClassTypeHelper;
 import org.eclipse.core.runtime.CoreException;
 
@@ -2460,4 +2463,23 @@ public class IndexCPPBindingResolutionTest extends IndexBindingResolutionTestBas
 	public void testSelfReferencingVariable_510484() throws Exception {
 		checkBindings();
 	}
+
+	//	int globalFunc(int);
+	//	namespace ns { int nsFunc(int); }
+
+	//	void test() {
+	//		globalFunc(1); ns::nsFunc(1);
+	//		globalFunc(2); ns::nsFunc(2);
+	//	}
+	public void testScopeLookupCache() throws Exception {
+		IBinding f1= getBindingFromASTName("globalFunc(1)", 10, ICPPFunction.class);
+		IBinding f2= getBindingFromASTName("globalFunc(2)", 10, ICPPFunction.class);
+		assertTrue(f1.equals(f2));
+		IBinding g1= getBindingFromASTName("nsFunc(1)", 6, ICPPFunction.class);
+		IBinding g2= getBindingFromASTName("nsFunc(2)", 6, ICPPFunction.class);
+		assertTrue(g1.equals(g2));
+		IASTTranslationUnit ast= findName("globalFunc(2)", 10).getTranslationUnit();
+		CPPScopeLookupCache cache= ((CPPASTTranslationUnit) ast).getScopeLookupCache();
+		assertTrue(cache.getHitCount() > 0);
+	}
 }
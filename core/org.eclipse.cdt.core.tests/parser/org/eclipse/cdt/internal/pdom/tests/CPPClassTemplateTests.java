@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2013 Symbian Software Systems and others.
+ * Copyright (c) 2007, 2017 Symbian Software Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,7 +12,9 @@
 package org.eclipse.cdt.internal.pdom.tests;
 
 import java.util.Arrays;
+import java.util.Map;
 
+import org.eclipse.cdt.core.dom.ILinkage;
 import org.eclipse.cdt.core.dom.ast.IBasicType;
 import org.eclipse.cdt.core.dom.ast.IBinding;
 import org.eclipse.cdt.core.dom.ast.IField;
@@ -33,10 +35,17 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateTemplateParameter;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateTypeParameter;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPVariable;
 import org.eclipse.cdt.core.index.IndexFilter;
+import org.eclipse.cdt.core.testplugin.CTestPlugin;
+import org.eclipse.cdt.core.testplugin.util.TestSourceReader;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPBasicType;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ClassTypeHelper;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPDeferredClassInstance;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPInstanceCache;
 import org.eclipse.cdt.internal.core.index.IIndexFragmentBinding;
+import org.eclipse.cdt.internal.core.pdom.dom.PDOMBinding;
+import org.eclipse.cdt.internal.core.pdom.dom.cpp.PDOMInstanceCache;
+import org.eclipse.cdt.internal.core.pdom.dom.cpp.PDOMInstanceRecords;
+import org.eclipse.core.runtime.Path;
 
 import junit.framework.Test;
 
@@ -521,9 +530,72 @@ public class CPPClassTemplateTests extends PDOMInlineCodeTestBase {
 		assertNull(templateParameterTofCT.getDefault());
 		assertEquals(0, templateParameterTofCT.getTemplateNestingLevel());
 	}
-	
-	
-	
+
+
+	private ICPPClassTemplate getClassTemplate(String name) throws Exception {
+		IIndexFragmentBinding[] bindings= pdom.findBindings(new char[][] {name.toCharArray()}, IndexFilter.ALL_DECLARED, npm());
+		assertEquals(1, bindings.length);
+		assertInstance(bindings[0], ICPPClassTemplate.class);
+		return (ICPPClassTemplate) bindings[0];
+	}
+
+	private PDOMInstanceRecords getInstanceRecords() throws Exception {
+		PDOMInstanceRecords records= PDOMInstanceCache.getInstanceRecords(pdom.getLinkage(ILinkage.CPP_LINKAGE_ID));
+		assertNotNull(records);
+		return records;
+	}
+
+	//	template<typename T> class Foo {};
+	//	class A {}; class B {};
+	//	Foo<A> a;
+	//	Foo<B> b;
+	public void testInstanceRecordsSurviveReadLock() throws Exception {
+		PDOMInstanceRecords records= getInstanceRecords();
+		ICPPClassTemplate foo= getClassTemplate("Foo");
+		assertEquals(2, ((ICPPInstanceCache) foo).getAllInstances().length);
+		int misses= records.getMissCount();
+		int hits= records.getHitCount();
+
+		// Releasing the lock clears the result cache of the index, the instances
+		// have to be taken from the records.
+		pdom.releaseReadLock();
+		pdom.acquireReadLock();
+		foo= getClassTemplate("Foo");
+		assertEquals(2, ((ICPPInstanceCache) foo).getAllInstances().length);
+		assertEquals(misses, records.getMissCount());
+		assertTrue(records.getHitCount() > hits);
+	}
+
+	//	template<typename T> class Foo {};
+	//	class C {};
+	//	Foo<C> c;
+
+	//	template<typename T> class Foo {};
+	//	class A {}; class B {};
+	//	Foo<A> a;
+	//	Foo<B> b;
+	public void testNewInstancesAreRecorded() throws Exception {
+		PDOMInstanceRecords records= getInstanceRecords();
+		ICPPClassTemplate foo= getClassTemplate("Foo");
+		assertEquals(2, ((ICPPInstanceCache) foo).getAllInstances().length);
+		long record= ((PDOMBinding) foo).getRecord();
+		assertEquals(2, records.get(record).size());
+
+		pdom.releaseReadLock();
+		CharSequence[] contents= TestSourceReader.getContentsForTest(
+				CTestPlugin.getDefault().getBundle(), "parser", getClass(), getName(), 2);
+		TestSourceReader.createFile(cproject.getProject(), new Path("other.cpp"), contents[0].toString());
+		waitForIndexer(cproject);
+		pdom.acquireReadLock();
+
+		// The instance stored by the indexer is added to the existing records.
+		Map<String, Long> instances= records.get(record);
+		assertNotNull(instances);
+		assertEquals(3, instances.size());
+		foo= getClassTemplate("Foo");
+		assertEquals(3, ((ICPPInstanceCache) foo).getAllInstances().length);
+	}
+
 	@Override
 	protected void assertInstance(Object o, Class c) {
 		assertNotNull(o);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2017 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -31,10 +31,15 @@ import org.eclipse.cdt.core.resources.tests.RefreshScopeTests;
 import org.eclipse.cdt.internal.index.tests.IndexTests;
 import org.eclipse.cdt.internal.pdom.tests.PDOMTests;
 import org.eclipse.cdt.utils.ByteUtilsTest;
+import org.eclipse.cdt.utils.CPPDemanglerTest;
 import org.eclipse.cdt.utils.CdtVariableResolverTest;
 import org.eclipse.cdt.utils.CommandLineUtilTest;
+import org.eclipse.cdt.utils.DwarfLineTableTest;
+import org.eclipse.cdt.utils.ElfBinaryObjectTest;
+import org.eclipse.cdt.utils.ElfTest;
 import org.eclipse.cdt.utils.FindProgramLocationTest;
 import org.eclipse.cdt.utils.StorableCdtVariablesTest;
+import org.eclipse.cdt.utils.SymbolTableTest;
 import org.eclipse.cdt.utils.UNCPathConverterTest;
 import org.eclipse.cdt.utils.WeakHashSetTest;
 
@@ -90,6 +95,11 @@ public class AutomatedIntegrationSuite extends TestSuite {
 		suite.addTest(EFSExtensionTests.suite());
 		suite.addTest(ByteUtilsTest.suite());
 		suite.addTest(UNCPathConverterTest.suite());
+		suite.addTest(CPPDemanglerTest.suite());
+		suite.addTest(SymbolTableTest.suite());
+		suite.addTest(DwarfLineTableTest.suite());
+		suite.addTest(ElfTest.suite());
+		suite.addTest(ElfBinaryObjectTest.suite());
 
 		// Add in PDOM tests
 		suite.addTest(PDOMTests.suite());
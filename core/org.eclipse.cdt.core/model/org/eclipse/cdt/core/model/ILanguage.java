@@ -81,6 +81,26 @@ public interface ILanguage extends IAdaptable {
 	 */
 	public final static int OPTION_PARSE_INACTIVE_CODE= 0x20;
 
+	/**
+	 * Option for {@link #getASTTranslationUnit(FileContent, IScannerInfo, IncludeFileContentProvider, IIndex, int, IParserLogService)}
+	 * Instructs the parser to skip function and method bodies and to parse them on demand, when
+	 * they are accessed for the first time. Unlike with {@link #OPTION_SKIP_FUNCTION_BODIES} the
+	 * bodies are available, however inactive code within them is not represented in the AST.
+	 * The option has no effect in combination with {@link #OPTION_SKIP_FUNCTION_BODIES}.
+	 * @since 6.4
+	 */
+	public final static int OPTION_LAZY_FUNCTION_BODIES= 0x40;
+
+	/**
+	 * Option for {@link #getASTTranslationUnit(FileContent, IScannerInfo, IncludeFileContentProvider, IIndex, int, IParserLogService)}
+	 * Instructs the parser to resolve the ambiguities within function and method bodies when the
+	 * bodies are accessed for the first time, rather than right after parsing. The resulting AST
+	 * is the same, however ambiguities in bodies that are never accessed are not resolved.
+	 * The option has no effect on bodies that are skipped or parsed lazily.
+	 * @since 6.4
+	 */
+	public final static int OPTION_DEFERRED_AMBIGUITY_RESOLUTION= 0x80;
+
 	/**
 	 * Return the language id for this language.
 	 * This is to differentiate languages from each other.
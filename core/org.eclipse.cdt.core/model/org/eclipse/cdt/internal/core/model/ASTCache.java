@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2016 Wind River Systems, Inc. and others. All rights reserved.
+ * Copyright (c) 2007, 2017 Wind River Systems, Inc. and others. All rights reserved.
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v1.0 which accompanies this distribution,
  * and is available at http://www.eclipse.org/legal/epl-v10.html
@@ -11,13 +11,32 @@
  ******************************************************************************/
 package org.eclipse.cdt.internal.core.model;
 
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
 import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.CCorePreferenceConstants;
+import org.eclipse.cdt.core.dom.ast.ASTGenericVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTNode;
+import org.eclipse.cdt.core.dom.ast.IASTPreprocessorIncludeStatement;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
 import org.eclipse.cdt.core.index.IIndex;
 import org.eclipse.cdt.core.index.IIndexManager;
+import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.core.model.ILanguage;
 import org.eclipse.cdt.core.model.ITranslationUnit;
+import org.eclipse.cdt.core.parser.FileContent;
+import org.eclipse.cdt.core.parser.IExtendedScannerInfo;
+import org.eclipse.cdt.core.parser.IScannerInfo;
 import org.eclipse.cdt.internal.core.dom.parser.ASTTranslationUnit;
+import org.eclipse.cdt.internal.core.parser.SavedFilesProvider;
+import org.eclipse.cdt.internal.core.parser.scanner.ILocationResolver;
+import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
@@ -29,6 +48,15 @@ import org.eclipse.core.runtime.Status;
 
 /**
  * Provides a shared AST of a single translation unit at a time.
+ * <p>
+ * When another translation unit becomes active, the AST of the previously active one is kept
+ * as a snapshot that is softly referenced. The snapshot is returned instead of parsing the
+ * translation unit again when it becomes active once more, provided that the index has not been
+ * written to and the inputs of the AST are unchanged, see {@link ASTInputs}. The snapshots of
+ * the most recently active translation units are kept, their number and their estimated size
+ * are limited by {@link CCorePreferenceConstants#AST_CACHE_MAXIMUM_ENTRIES} and
+ * {@link CCorePreferenceConstants#AST_CACHE_MAXIMUM_SIZE_MB}. The snapshot of a working copy is
+ * discarded when the working copy is destroyed, see {@link #discardSnapshot(ITranslationUnit)}.
  *
  * @since 4.0
  */
@@ -45,6 +73,77 @@ public class ASTCache {
 			| ITranslationUnit.AST_SKIP_TRIVIAL_EXPRESSIONS_IN_AGGREGATE_INITIALIZERS
 			| ITranslationUnit.AST_PARSE_INACTIVE_CODE;
 
+	/**
+	 * Rough estimate of the memory occupied by a node of an AST. It includes the node itself,
+	 * its share of the arrays holding the children and, for names, the characters and the binding.
+	 */
+	private static final int ESTIMATED_BYTES_PER_NODE= 100;
+
+	/**
+	 * The inputs an AST has been created from: the language and the scanner configuration of the
+	 * translation unit, the contents of the translation unit and the contents of the headers that
+	 * have been parsed along with it, rather than taken from the index. The contents are identified
+	 * by the hashes the preprocessor computed while parsing, such that an AST cannot be associated
+	 * with contents it has not seen. The index is not part of the inputs, it is checked by means
+	 * of its last write access.
+	 */
+	private static class ASTInputs {
+		final String fConfiguration;
+		final long fContentsHash;
+		/** The locations of the headers parsed along with the translation unit and their hashes */
+		final Map<String, Long> fHeaders;
+		/** The estimated size of the AST in bytes */
+		final long fSize;
+
+		ASTInputs(String configuration, long contentsHash, Map<String, Long> headers, long size) {
+			fConfiguration= configuration;
+			fContentsHash= contentsHash;
+			fHeaders= headers;
+			fSize= size;
+		}
+
+		/**
+		 * Checks whether parsing the translation unit would see the same inputs again. The
+		 * translation unit is read from its working copy, if any. The headers are read the way
+		 * the parser reads them, i.e. as saved on disk.
+		 */
+		boolean isUpToDate(ITranslationUnit tUnit) {
+			if (!fConfiguration.equals(computeConfiguration(tUnit)))
+				return false;
+			FileContent content= FileContent.create(tUnit);
+			if (content == null || content.getContentsHash() != fContentsHash)
+				return false;
+			SavedFilesProvider provider= new SavedFilesProvider();
+			for (Map.Entry<String, Long> header : fHeaders.entrySet()) {
+				InternalFileContent headerContent= provider.getContentForInclusion(header.getKey(), null);
+				if (headerContent == null || headerContent.getContentsHash() != header.getValue())
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * An AST of a translation unit that is no longer active.
+	 */
+	private static class Snapshot {
+		final SoftReference<IASTTranslationUnit> fAST;
+		/** The inputs the AST was created from */
+		final ASTInputs fInputs;
+		/** The timestamp of the last index write access at the time the AST got cached */
+		final long fLastWriteOnIndex;
+
+		Snapshot(IASTTranslationUnit ast, ASTInputs inputs, long lastWriteOnIndex) {
+			fAST= new SoftReference<>(ast);
+			fInputs= inputs;
+			fLastWriteOnIndex= lastWriteOnIndex;
+		}
+
+		long getSize() {
+			return fInputs.fSize;
+		}
+	}
+
 	/**
 	 * Do something with an AST.
 	 *
@@ -76,6 +175,17 @@ public class ASTCache {
 	private long fLastWriteOnIndex;
 	/** Indicates whether the AST is currently being computed */
 	private boolean fIsReconciling;
+	/** The inputs the cached AST was created from, see {@link #computeInputs(ITranslationUnit, IASTTranslationUnit)} */
+	private ASTInputs fASTInputs;
+
+	/** The ASTs of the translation units that were active before, least recently active first */
+	private final LinkedHashMap<ITranslationUnit, Snapshot> fSnapshots= new LinkedHashMap<>();
+	/** The estimated size of the snapshots in bytes */
+	private long fSnapshotsSize;
+	/** The number of times a snapshot was reused */
+	private int fHits;
+	/** The number of times an AST had to be created for a translation unit that became active */
+	private int fMisses;
 
 	/**
 	 * Create a new AST cache.
@@ -154,8 +264,12 @@ public class ASTCache {
 				}
 			}
 
-			if (isActiveElement)
+			if (isActiveElement) {
+				IASTTranslationUnit ast= restoreSnapshot(tUnit, index);
+				if (ast != null)
+					return ast;
 				aboutToBeReconciled(tUnit);
+			}
 
 			if (DEBUG)
 				System.err.println(DEBUG_PREFIX + getThreadName() + "creating AST for " + tUnit.getElementName()); //$NON-NLS-1$
@@ -285,6 +399,17 @@ public class ASTCache {
 	 * @param tUnit  the translation unit
 	 */
 	private void cache(IASTTranslationUnit ast, ITranslationUnit tUnit) {
+		cache(ast, tUnit, null);
+	}
+
+	/**
+	 * Caches the given AST for the given translation unit.
+	 *
+	 * @param ast    the AST
+	 * @param tUnit  the translation unit
+	 * @param inputs the inputs the AST was created from or <code>null</code>
+	 */
+	private void cache(IASTTranslationUnit ast, ITranslationUnit tUnit, ASTInputs inputs) {
 		assert Thread.holdsLock(fCacheMutex);
 		if (fActiveTU != null && !fActiveTU.equals(tUnit)) {
 			if (DEBUG && tUnit != null) // don't report call from disposeAST()
@@ -299,6 +424,7 @@ public class ASTCache {
 			disposeAST();
 
 		fAST= ast;
+		fASTInputs= fAST == null ? null : inputs;
 		fLastWriteOnIndex= fAST == null ? 0 : fAST.getIndex().getLastWriteAccess();
 
 		// Signal AST change
@@ -368,6 +494,12 @@ public class ASTCache {
 			return;
 		}
 		synchronized (fCacheMutex) {
+			if (fAST != null && fASTInputs != null) {
+				addSnapshot(fActiveTU, new Snapshot(fAST, fASTInputs, fLastWriteOnIndex));
+				if (DEBUG)
+					System.out.println(DEBUG_PREFIX + getThreadName() + "keeping snapshot of AST: " + toString(fAST) + " for: " + toString(fActiveTU)); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			discardSnapshotsOfDestroyedWorkingCopies();
 			fIsReconciling= false;
 			fActiveTU= tUnit;
 			cache(null, tUnit);
@@ -418,6 +550,8 @@ public class ASTCache {
 	 * @param tUnit  the translation unit
 	 */
 	public void reconciled(IASTTranslationUnit ast, ITranslationUnit tUnit) {
+		// The inputs are computed before the cache is locked, they may require file access.
+		ASTInputs inputs= ast != null && tUnit != null && isActiveElement(tUnit) ? computeInputs(tUnit, ast) : null;
 		synchronized (fCacheMutex) {
 			if (tUnit == null || !tUnit.equals(fActiveTU)) {
 				if (DEBUG)
@@ -428,10 +562,207 @@ public class ASTCache {
 				System.out.println(DEBUG_PREFIX + getThreadName() + "reconciled: " + toString(tUnit) + ", AST: " + toString(ast)); //$NON-NLS-1$ //$NON-NLS-2$
 
 			fIsReconciling= false;
-			cache(ast, tUnit);
+			cache(ast, tUnit, inputs);
+		}
+	}
+
+	/**
+	 * Makes the snapshot of the given translation unit the cached AST, provided that the
+	 * translation unit is still the active element and the inputs of the snapshot are unchanged.
+	 *
+	 * @param tUnit  the active translation unit
+	 * @param index  the index used to create the AST, needs to be read-locked
+	 * @return the restored AST or <code>null</code>
+	 */
+	private IASTTranslationUnit restoreSnapshot(ITranslationUnit tUnit, IIndex index) {
+		final Snapshot snapshot;
+		final IASTTranslationUnit ast;
+		synchronized (fCacheMutex) {
+			snapshot= removeSnapshot(tUnit);
+			ast= snapshot == null ? null : snapshot.fAST.get();
+			if (ast == null || snapshot.fLastWriteOnIndex < index.getLastWriteAccess()) {
+				// No snapshot, or it has been reclaimed or invalidated by index write access.
+				fMisses++;
+				return null;
+			}
+		}
+
+		boolean unchanged= snapshot.fInputs.isUpToDate(tUnit);
+		synchronized (fCacheMutex) {
+			if (!unchanged || fAST != null || fIsReconciling || !tUnit.equals(fActiveTU)) {
+				fMisses++;
+				return null;
+			}
+			fHits++;
+
+			if (DEBUG)
+				System.out.println(DEBUG_PREFIX + getThreadName() + "restoring snapshot of AST: " + toString(ast) + " for: " + toString(tUnit)); //$NON-NLS-1$ //$NON-NLS-2$
+
+			((ASTTranslationUnit) ast).setOriginatingTranslationUnit(tUnit);
+			fAST= ast;
+			fASTInputs= snapshot.fInputs;
+			fLastWriteOnIndex= snapshot.fLastWriteOnIndex;
+			fCacheMutex.notifyAll();
+			return ast;
+		}
+	}
+
+	/**
+	 * Adds a snapshot for the given translation unit and discards the snapshots of the least
+	 * recently active translation units that exceed the limits.
+	 */
+	private void addSnapshot(ITranslationUnit tUnit, Snapshot snapshot) {
+		assert Thread.holdsLock(fCacheMutex);
+		removeSnapshot(tUnit);
+		fSnapshots.put(tUnit, snapshot);
+		fSnapshotsSize += snapshot.getSize();
+
+		ICProject project= tUnit.getCProject();
+		int maxEntries= CCorePreferenceConstants.getPreference(CCorePreferenceConstants.AST_CACHE_MAXIMUM_ENTRIES,
+				project, CCorePreferenceConstants.DEFAULT_AST_CACHE_MAXIMUM_ENTRIES);
+		long maxSize= CCorePreferenceConstants.getPreference(CCorePreferenceConstants.AST_CACHE_MAXIMUM_SIZE_MB,
+				project, CCorePreferenceConstants.DEFAULT_AST_CACHE_MAXIMUM_SIZE_MB) * 1024L * 1024L;
+		for (Iterator<Map.Entry<ITranslationUnit, Snapshot>> iter= fSnapshots.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<ITranslationUnit, Snapshot> entry= iter.next();
+			if (fSnapshots.size() <= maxEntries && fSnapshotsSize <= maxSize && entry.getValue().fAST.get() != null)
+				break;
+			if (DEBUG)
+				System.out.println(DEBUG_PREFIX + getThreadName() + "discarding snapshot for: " + toString(entry.getKey())); //$NON-NLS-1$
+			fSnapshotsSize -= entry.getValue().getSize();
+			iter.remove();
+		}
+	}
+
+	/**
+	 * Discards the snapshot of the given translation unit, e.g. because its working copy has been
+	 * destroyed. Working copies are equal only to themselves, so the snapshot of a destroyed one
+	 * cannot be used anymore.
+	 *
+	 * @param tUnit  the translation unit
+	 */
+	public void discardSnapshot(ITranslationUnit tUnit) {
+		synchronized (fCacheMutex) {
+			if (removeSnapshot(tUnit) != null && DEBUG)
+				System.out.println(DEBUG_PREFIX + getThreadName() + "discarding snapshot for: " + toString(tUnit)); //$NON-NLS-1$
+		}
+	}
+
+	private void discardSnapshotsOfDestroyedWorkingCopies() {
+		assert Thread.holdsLock(fCacheMutex);
+		for (Iterator<Map.Entry<ITranslationUnit, Snapshot>> iter= fSnapshots.entrySet().iterator(); iter.hasNext();) {
+			Map.Entry<ITranslationUnit, Snapshot> entry= iter.next();
+			if (entry.getKey().isWorkingCopy() && !entry.getKey().exists()) {
+				fSnapshotsSize -= entry.getValue().getSize();
+				iter.remove();
+			}
+		}
+	}
+
+	private Snapshot removeSnapshot(ITranslationUnit tUnit) {
+		assert Thread.holdsLock(fCacheMutex);
+		Snapshot snapshot= fSnapshots.remove(tUnit);
+		if (snapshot != null)
+			fSnapshotsSize -= snapshot.getSize();
+		return snapshot;
+	}
+
+	/**
+	 * Returns the number of times the AST of a translation unit that became active was
+	 * taken from the snapshots.
+	 */
+	public int getHitCount() {
+		synchronized (fCacheMutex) {
+			return fHits;
+		}
+	}
+
+	/**
+	 * Returns the number of times an AST had to be created for a translation unit that
+	 * became active, because there was no valid snapshot.
+	 */
+	public int getMissCount() {
+		synchronized (fCacheMutex) {
+			return fMisses;
+		}
+	}
+
+	/**
+	 * Computes the inputs the given AST of the given translation unit has been created from.
+	 *
+	 * @param tUnit  the translation unit
+	 * @param ast  the AST of the translation unit
+	 * @return the inputs or <code>null</code> if they cannot be determined
+	 */
+	private static ASTInputs computeInputs(ITranslationUnit tUnit, IASTTranslationUnit ast) {
+		String configuration= computeConfiguration(tUnit);
+		ILocationResolver resolver= ast.getAdapter(ILocationResolver.class);
+		if (configuration == null || resolver == null)
+			return null;
+
+		Map<String, Long> headers= new HashMap<>();
+		for (IASTPreprocessorIncludeStatement include : ast.getIncludeDirectives()) {
+			if (include.createsAST()) {
+				Long hash= include.getIncludedFileContentsHash();
+				Long previous= headers.put(include.getPath(), hash);
+				if (previous != null && !previous.equals(hash)) {
+					// The header changed while it was parsed.
+					return null;
+				}
+			}
+		}
+		return new ASTInputs(configuration, resolver.getTranslationUnitContentsHash(), headers,
+				estimateSize(ast));
+	}
+
+	/**
+	 * Computes a string that identifies the language and the scanner configuration of the given
+	 * translation unit.
+	 *
+	 * @param tUnit  the translation unit
+	 * @return the configuration or <code>null</code> if it cannot be determined
+	 */
+	private static String computeConfiguration(ITranslationUnit tUnit) {
+		try {
+			ILanguage language= tUnit.getLanguage();
+			if (language == null)
+				return null;
+
+			StringBuilder buf= new StringBuilder();
+			buf.append(language.getId()).append(';');
+			IScannerInfo scannerInfo= tUnit.getScannerInfo(true);
+			if (scannerInfo != null) {
+				if (scannerInfo.getDefinedSymbols() != null)
+					buf.append(new TreeMap<>(scannerInfo.getDefinedSymbols()));
+				buf.append(Arrays.toString(scannerInfo.getIncludePaths()));
+				if (scannerInfo instanceof IExtendedScannerInfo) {
+					IExtendedScannerInfo extendedInfo= (IExtendedScannerInfo) scannerInfo;
+					buf.append(Arrays.toString(extendedInfo.getLocalIncludePath()));
+					buf.append(Arrays.toString(extendedInfo.getMacroFiles()));
+					buf.append(Arrays.toString(extendedInfo.getIncludeFiles()));
+				}
+			}
+			return buf.toString();
+		} catch (CoreException e) {
+			return null;
 		}
 	}
 
+	/**
+	 * Estimates the size of the AST from the number of its nodes. Implicit names are not
+	 * counted, they are created on demand.
+	 */
+	private static long estimateSize(IASTTranslationUnit ast) {
+		final long[] count= { 0 };
+		ast.accept(new ASTGenericVisitor(true) {
+			@Override
+			protected int genericVisit(IASTNode node) {
+				count[0]++;
+				return PROCESS_CONTINUE;
+			}
+		});
+		return count[0] * ESTIMATED_BYTES_PER_NODE;
+	}
+
 	/**
 	 * Tells whether the given C element is the one
 	 * reported as currently being reconciled.
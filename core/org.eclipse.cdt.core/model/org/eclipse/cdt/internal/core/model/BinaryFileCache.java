@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Remembers the outcome of the binary parsers for the files of a project, such that
+ * {@link BinaryRunner} does not need to read files that none of the parsers accepted again
+ * as long as they are unchanged. For binaries, the id of the parser that accepted the file is
+ * stored, the runner asks that parser first. A binary still has to be handed to its parser
+ * since the model element needs the {@link org.eclipse.cdt.core.IBinaryParser.IBinaryFile}.
+ * <p>
+ * A file is identified by its path, its size and its modification time. The cache is stored
+ * in the state location of the plug-in and survives restarts. It is discarded when the set of
+ * binary parsers of the project changes.
+ */
+public final class BinaryFileCache {
+	private static final String CACHE_FOLDER = "binaryCache"; //$NON-NLS-1$
+	/** The key of the parser ids, it cannot clash with the full path of a file */
+	private static final String PARSERS_KEY = "parsers"; //$NON-NLS-1$
+	/** Separates the signature of a binary from the id of its parser */
+	private static final char PARSER_SEPARATOR = ';';
+
+	private final File fCacheFile;
+	private final String fParserIds;
+	private final Properties fOldEntries = new Properties();
+	private final Properties fNewEntries = new Properties();
+
+	public BinaryFileCache(IProject project, BinaryParserConfig[] parsers) {
+		fCacheFile = getCacheFile(project);
+		StringBuilder buf = new StringBuilder();
+		for (BinaryParserConfig parser : parsers) {
+			if (buf.length() > 0)
+				buf.append(',');
+			buf.append(parser.getId());
+		}
+		fParserIds = buf.toString();
+		fNewEntries.setProperty(PARSERS_KEY, fParserIds);
+	}
+
+	/**
+	 * Reads the entries stored by a previous run.
+	 */
+	public void load() {
+		if (!fCacheFile.isFile())
+			return;
+		try (InputStream in = new BufferedInputStream(new FileInputStream(fCacheFile))) {
+			fOldEntries.load(in);
+		} catch (IOException | IllegalArgumentException e) {
+			// Corrupt cache, start over.
+			fOldEntries.clear();
+		}
+		if (!fParserIds.equals(fOldEntries.getProperty(PARSERS_KEY))) {
+			fOldEntries.clear();
+		}
+	}
+
+	/**
+	 * Checks whether the file has been found not to be a binary and has not changed since.
+	 * The result is carried over to the next run.
+	 */
+	public synchronized boolean isKnownNonBinary(IFile file) {
+		String key = getKey(file);
+		String value = key == null ? null : fOldEntries.getProperty(key);
+		if (value != null && value.equals(getSignature(file))) {
+			fNewEntries.setProperty(key, value);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the id of the parser that accepted the file in a previous run, or
+	 * <code>null</code> if the file was not found to be a binary or has changed since.
+	 * The result is carried over to the next run.
+	 */
+	public synchronized String getKnownParser(IFile file) {
+		String key = getKey(file);
+		String value = key == null ? null : fOldEntries.getProperty(key);
+		String signature = value == null ? null : getSignature(file);
+		if (signature != null && value.length() > signature.length() + 1
+				&& value.startsWith(signature) && value.charAt(signature.length()) == PARSER_SEPARATOR) {
+			fNewEntries.setProperty(key, value);
+			return value.substring(signature.length() + 1);
+		}
+		return null;
+	}
+
+	/**
+	 * Records that the parser with the given id accepted the file.
+	 */
+	public synchronized void addBinary(IFile file, String parserId) {
+		String key = getKey(file);
+		String signature = getSignature(file);
+		if (key != null && signature != null) {
+			fNewEntries.setProperty(key, signature + PARSER_SEPARATOR + parserId);
+		}
+	}
+
+	/**
+	 * Records that none of the binary parsers accepted the file.
+	 */
+	public synchronized void addNonBinary(IFile file) {
+		String key = getKey(file);
+		String signature = getSignature(file);
+		if (key != null && signature != null) {
+			fNewEntries.setProperty(key, signature);
+		}
+	}
+
+	/**
+	 * Stores the entries of this run, replacing the ones of the previous run.
+	 */
+	public synchronized void save() {
+		File folder = fCacheFile.getParentFile();
+		if (!folder.isDirectory() && !folder.mkdirs())
+			return;
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fCacheFile))) {
+			fNewEntries.store(out, null);
+		} catch (IOException e) {
+			CCorePlugin.log(e);
+		}
+	}
+
+	/**
+	 * Removes the stored entries of the given project.
+	 */
+	static void delete(IProject project) {
+		getCacheFile(project).delete();
+	}
+
+	private static File getCacheFile(IProject project) {
+		return CCorePlugin.getDefault().getStateLocation().append(CACHE_FOLDER)
+				.append(project.getName() + ".properties").toFile(); //$NON-NLS-1$
+	}
+
+	private static String getKey(IFile file) {
+		return file.getFullPath().toString();
+	}
+
+	private static String getSignature(IFile file) {
+		IPath location = file.getLocation();
+		if (location == null)
+			return null;
+		File f = location.toFile();
+		long lastModified = f.lastModified();
+		if (lastModified == 0)
+			return null;
+		return f.length() + "," + lastModified; //$NON-NLS-1$
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 QNX Software Systems and others.
+ * Copyright (c) 2000, 2017 QNX Software Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -40,7 +40,11 @@ public class BinaryParserConfig {
 		return id;
 	}
 
-	public IBinaryParser getBinaryParser() throws CoreException {
+	/**
+	 * Returns the parser, creating it on first access. The parser is shared by all threads that
+	 * look at the binaries of the project, see {@link BinaryRunner}.
+	 */
+	public synchronized IBinaryParser getBinaryParser() throws CoreException {
 		if (parser == null) {
 			AbstractCExtension cExtension = null;
 			IConfigurationElement el = CExtensionUtil.getFirstConfigurationElement(ref, "cextension", false); //$NON-NLS-1$
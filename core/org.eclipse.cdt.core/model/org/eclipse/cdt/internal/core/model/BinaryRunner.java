@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 QNX Software Systems and others.
+ * Copyright (c) 2000, 2017 QNX Software Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,8 +13,19 @@
  *******************************************************************************/
 package org.eclipse.cdt.internal.core.model;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.IBinaryParser;
 import org.eclipse.cdt.core.IBinaryParser.IBinaryFile;
 import org.eclipse.cdt.core.model.CModelException;
 import org.eclipse.cdt.core.model.CoreModelUtil;
@@ -82,6 +93,9 @@ public class BinaryRunner {
 
 	}
 
+	/** The maximum number of threads that run the binary parsers concurrently */
+	private static final int MAX_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
 	private final ICProject cproject;
 	private final Job runnerJob;		// final fields don't need synchronization
 	private IOutputEntry[] entries = new IOutputEntry[0];
@@ -118,7 +132,14 @@ public class BinaryRunner {
 						// traverse project, but only if at least one binary parser is configured
 						BinaryParserConfig[] parsers = CModelManager.getDefault().getBinaryParser(cproject.getProject());
 						if (parsers.length > 0) {
-							cproject.getProject().accept(new Visitor(monitor), IContainer.INCLUDE_PHANTOMS);
+							Visitor visitor = new Visitor(monitor);
+							cproject.getProject().accept(visitor, IContainer.INCLUDE_PHANTOMS);
+							BinaryFileCache cache = new BinaryFileCache(cproject.getProject(), parsers);
+							cache.load();
+							createBinaries(visitor.candidates, parsers, cache, monitor);
+							if (!monitor.isCanceled()) {
+								cache.save();
+							}
 						}
 
 						if (!monitor.isCanceled()) {
@@ -140,6 +161,92 @@ public class BinaryRunner {
 		return job;
 	}
 
+	/**
+	 * Runs the binary parsers on the candidates using a bounded number of threads and adds the
+	 * binaries to the containers of the project in the order of the candidates. Files that are
+	 * known not to be binaries from a previous run are skipped, files that were binaries are
+	 * handed to the parser that accepted them before.
+	 * <p>
+	 * The parsers are created on the calling thread, the worker threads only call
+	 * {@link IBinaryParser#isBinary(byte[], IPath)} and {@link IBinaryParser#getBinary(byte[], IPath)}
+	 * on them, concurrently for different files.
+	 */
+	private void createBinaries(List<IFile> candidates, BinaryParserConfig[] configs,
+			final BinaryFileCache cache, final IProgressMonitor monitor) {
+		final CModelManager factory = CModelManager.getDefault();
+		final List<BinaryParserConfig> resolved = new ArrayList<>(configs.length);
+		final Map<IBinaryParser, String> parserIds = new IdentityHashMap<>();
+		final Map<String, BinaryParserConfig[]> singleParsers = new HashMap<>();
+		for (BinaryParserConfig config : configs) {
+			try {
+				parserIds.put(config.getBinaryParser(), config.getId());
+				singleParsers.put(config.getId(), new BinaryParserConfig[] { config });
+				resolved.add(config);
+			} catch (CoreException e) {
+				// The parser is skipped by CModelManager.createBinaryFile, as well.
+			}
+		}
+		final BinaryParserConfig[] parsers = resolved.toArray(new BinaryParserConfig[resolved.size()]);
+		List<Future<IBinaryFile>> results = new ArrayList<>(candidates.size());
+		ExecutorService executor = Executors.newFixedThreadPool(MAX_THREADS);
+		try {
+			for (final IFile file : candidates) {
+				String knownParserId = cache.getKnownParser(file);
+				if (knownParserId == null && cache.isKnownNonBinary(file)) {
+					results.add(null);
+					continue;
+				}
+				final BinaryParserConfig[] knownParser = knownParserId == null ? null
+						: singleParsers.get(knownParserId);
+				results.add(executor.submit(new Callable<IBinaryFile>() {
+					@Override
+					public IBinaryFile call() {
+						if (monitor.isCanceled())
+							return null;
+						IBinaryFile bin = null;
+						if (knownParser != null) {
+							bin = factory.createBinaryFile(file, knownParser);
+						}
+						if (bin == null) {
+							bin = factory.createBinaryFile(file, parsers);
+						}
+						if (bin == null) {
+							cache.addNonBinary(file);
+						} else {
+							String parserId = parserIds.get(bin.getBinaryParser());
+							if (parserId != null) {
+								cache.addBinary(file, parserId);
+							}
+						}
+						return bin;
+					}
+				}));
+			}
+			for (int i = 0; i < candidates.size() && !monitor.isCanceled(); i++) {
+				Future<IBinaryFile> result = results.get(i);
+				if (result == null)
+					continue;
+				IFile file = candidates.get(i);
+				monitor.subTask(file.getName());
+				try {
+					IBinaryFile bin = result.get();
+					if (bin != null) {
+						// Create the file will add it to the {Archive,Binary}Container.
+						factory.create(file, bin, cproject);
+					}
+				} catch (ExecutionException e) {
+					CCorePlugin.log(e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				monitor.worked(1);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	public void start() {
 		synchronized (runnerJob) {
 			if (!isStopped) {
@@ -177,6 +284,8 @@ public class BinaryRunner {
 		private final IProgressMonitor vMonitor;
 		private final IProject project;
 		private final IContentType textContentType;
+		/** The files on output entries that are checked by the binary parsers */
+		final List<IFile> candidates = new ArrayList<>();
 
 		public Visitor(IProgressMonitor monitor) {
 			vMonitor = monitor;
@@ -214,21 +323,12 @@ public class BinaryRunner {
 				}
 			}
 
-			// give a hint to the user of what we are doing
-			vMonitor.subTask(name);
-
 			// we have a candidate
 			IPath path = proxy.requestFullPath();
 			if (path != null) {
 				for (IOutputEntry entrie : entries) {
 					if (isOnOutputEntry(entrie, path)) {
-						IFile file = (IFile) proxy.requestResource();
-						CModelManager factory = CModelManager.getDefault();
-						IBinaryFile bin = factory.createBinaryFile(file);
-						if (bin != null) {
-							// Create the file will add it to the {Archive,Binary}Container.
-							factory.create(file, bin, cproject);
-						}
+						candidates.add((IFile) proxy.requestResource());
 						return true;
 					}
 				}
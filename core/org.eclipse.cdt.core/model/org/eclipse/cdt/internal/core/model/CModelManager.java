@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 QNX Software Systems and others.
+ * Copyright (c) 2000, 2017 QNX Software Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -669,7 +669,14 @@ public class CModelManager implements IResourceChangeListener, IContentTypeChang
 	}
 
 	public IBinaryFile createBinaryFile(IFile file) {
-		BinaryParserConfig[] parsers = getBinaryParser(file.getProject());
+		return createBinaryFile(file, getBinaryParser(file.getProject()));
+	}
+
+	/**
+	 * Asks the given parsers, in order, to create a binary for the file. Used by
+	 * {@link BinaryRunner} with a subset of the parsers of the project.
+	 */
+	IBinaryFile createBinaryFile(IFile file, BinaryParserConfig[] parsers) {
 		if (parsers.length == 0) {
 			return null;
 		}
@@ -1406,6 +1413,7 @@ public class CModelManager implements IResourceChangeListener, IContentTypeChang
 		binaryParsersMap.remove(project);
 		// Stop the binary runner for this project
 		removeBinaryRunner(project);
+		BinaryFileCache.delete(project);
 	}
 
 	private void preCloseProject(IProject project) {
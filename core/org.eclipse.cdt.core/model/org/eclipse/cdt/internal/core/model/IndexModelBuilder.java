@@ -0,0 +1,502 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.dom.ast.ASTTypeUtil;
+import org.eclipse.cdt.core.dom.ast.IASTFileLocation;
+import org.eclipse.cdt.core.dom.ast.IBinding;
+import org.eclipse.cdt.core.dom.ast.ICompositeType;
+import org.eclipse.cdt.core.dom.ast.IEnumeration;
+import org.eclipse.cdt.core.dom.ast.IEnumerator;
+import org.eclipse.cdt.core.dom.ast.IField;
+import org.eclipse.cdt.core.dom.ast.IFunction;
+import org.eclipse.cdt.core.dom.ast.IFunctionType;
+import org.eclipse.cdt.core.dom.ast.IParameter;
+import org.eclipse.cdt.core.dom.ast.IType;
+import org.eclipse.cdt.core.dom.ast.ITypedef;
+import org.eclipse.cdt.core.dom.ast.IVariable;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPClassTemplate;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPClassType;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPConstructor;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunctionTemplate;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunctionType;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPMember;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPMethod;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPNamespace;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPNamespaceAlias;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPVariable;
+import org.eclipse.cdt.core.index.IIndex;
+import org.eclipse.cdt.core.index.IIndexFile;
+import org.eclipse.cdt.core.index.IIndexFileLocation;
+import org.eclipse.cdt.core.index.IIndexInclude;
+import org.eclipse.cdt.core.index.IIndexMacro;
+import org.eclipse.cdt.core.index.IIndexManager;
+import org.eclipse.cdt.core.index.IIndexName;
+import org.eclipse.cdt.core.index.IndexLocationFactory;
+import org.eclipse.cdt.core.model.CModelException;
+import org.eclipse.cdt.core.model.ICElement;
+import org.eclipse.cdt.core.model.ISourceReference;
+import org.eclipse.cdt.core.parser.Keywords;
+import org.eclipse.cdt.core.parser.ast.ASTAccessVisibility;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Builds the structure of a translation unit from the names, includes and macros that the index
+ * stores for the file, instead of parsing it. This is possible only when the file has been indexed
+ * and has not been modified since.
+ * <p>
+ * The file variant is chosen the same way as the source context of an AST for the file. The index
+ * does not store the extent of declarations, therefore the source range of an element is the range
+ * of its name, and the elements are read-only so that they cannot be deleted, copied, moved or
+ * renamed by source manipulation. A declaration is considered to belong to the most recent
+ * definition of its owner in the file, unless its name is qualified.
+ *
+ * @see CModelBuilder2
+ */
+public class IndexModelBuilder {
+	private final static boolean DEBUG= Util.isActive(DebugLogConstants.MODEL);
+
+	private final TranslationUnit fTranslationUnit;
+	private final Map<ICElement, CElementInfo> fNewElements;
+	private final IProgressMonitor fProgressMonitor;
+
+	private IIndex fIndex;
+	private char[] fContents;
+	private int[] fLineOffsets;
+	private final HashMap<ISourceReference, int[]> fEqualElements= new HashMap<>();
+	/** The elements created for the definitions of namespaces, classes and enumerations */
+	private final Map<IBinding, Parent> fScopeElements= new HashMap<>();
+
+	/**
+	 * Create a model builder for the given translation unit.
+	 *
+	 * @param tu  the translation unit
+	 * @param newElements  element cache
+	 * @param monitor the progress monitor
+	 */
+	public IndexModelBuilder(TranslationUnit tu, Map<ICElement, CElementInfo> newElements, IProgressMonitor monitor) {
+		fTranslationUnit= tu;
+		fNewElements= newElements;
+		fProgressMonitor= monitor;
+	}
+
+	/**
+	 * Builds the structure of the translation unit from the index.
+	 *
+	 * @return <code>true</code> if the structure has been built, <code>false</code> if the file
+	 *     is not indexed or has been modified since it was indexed
+	 */
+	public boolean build() throws CoreException {
+		final IIndexFileLocation location= IndexLocationFactory.getIFL(fTranslationUnit);
+		if (location == null)
+			return false;
+
+		fIndex= CCorePlugin.getIndexManager().getIndex(fTranslationUnit.getCProject(),
+				IIndexManager.ADD_EXTENSION_FRAGMENTS_EDITOR);
+		try {
+			fIndex.acquireReadLock();
+		} catch (InterruptedException e) {
+			return false;
+		}
+		try {
+			long startTime= System.currentTimeMillis();
+			IIndexFile file= fTranslationUnit.getBestIndexFile(fIndex);
+			if (file == null || file.getTimestamp() != getLastModified(location))
+				return false;
+			fContents= fTranslationUnit.getContents();
+			if (fContents == null)
+				return false;
+
+			buildModel(file);
+			getElementInfo(fTranslationUnit).setIsStructureKnown(true);
+			if (DEBUG) {
+				Util.debugLog("IndexModelBuilder: building " //$NON-NLS-1$
+						+ fTranslationUnit.getElementName()
+						+ " time=" + (System.currentTimeMillis() - startTime) + "ms", //$NON-NLS-1$ //$NON-NLS-2$
+						DebugLogConstants.MODEL, false);
+			}
+			return true;
+		} finally {
+			fIndex.releaseReadLock();
+		}
+	}
+
+	private long getLastModified(IIndexFileLocation location) {
+		IResource resource= fTranslationUnit.getResource();
+		if (resource != null)
+			return resource.getLocalTimeStamp();
+		IPath path= IndexLocationFactory.getAbsolutePath(location);
+		return path == null ? 0 : path.toFile().lastModified();
+	}
+
+	private void buildModel(IIndexFile file) throws CoreException {
+		for (IIndexInclude include : file.getIncludes()) {
+			createInclusion(include);
+		}
+		for (IIndexMacro macro : file.getMacros()) {
+			createMacro(macro);
+		}
+
+		IIndexName[] names= file.findNames(0, Integer.MAX_VALUE);
+		Arrays.sort(names, new Comparator<IIndexName>() {
+			@Override
+			public int compare(IIndexName n1, IIndexName n2) {
+				return n1.getNodeOffset() - n2.getNodeOffset();
+			}
+		});
+		for (IIndexName name : names) {
+			checkCanceled();
+			if (name.isDeclaration() && !name.isBaseSpecifier() && !isInFunctionBody(name)) {
+				IBinding binding= fIndex.findBinding(name);
+				if (binding != null) {
+					createDeclaration(name, binding);
+				}
+			}
+		}
+
+		// Sort by offset
+		final List<ICElement> children= getElementInfo(fTranslationUnit).internalGetChildren();
+		Collections.sort(children, new Comparator<ICElement>() {
+			@Override
+			public int compare(ICElement o1, ICElement o2) {
+				final SourceManipulationInfo info1= getSourceManipulationInfo((SourceManipulation) o1);
+				final SourceManipulationInfo info2= getSourceManipulationInfo((SourceManipulation) o2);
+				return info1.getIdStartPos() - info2.getIdStartPos();
+			}});
+	}
+
+	/**
+	 * Checks whether the name is declared within the body of a function. Such names are local and
+	 * not part of the outline. Class and struct specifiers are enclosing definitions as well, their
+	 * members must be kept.
+	 */
+	private boolean isInFunctionBody(IIndexName name) throws CoreException {
+		for (IIndexName enclosing= name.getEnclosingDefinition(); enclosing != null;
+				enclosing= enclosing.getEnclosingDefinition()) {
+			if (fIndex.findBinding(enclosing) instanceof IFunction)
+				return true;
+		}
+		return false;
+	}
+
+	private void createInclusion(IIndexInclude include) throws CoreException {
+		Include element= new Include(fTranslationUnit, include.getFullName(), include.isSystemInclude());
+		IIndexFileLocation location= include.getIncludesLocation();
+		IPath path= location == null ? null : IndexLocationFactory.getAbsolutePath(location);
+		element.setFullPathName(path == null ? "" : path.toOSString()); //$NON-NLS-1$
+		setIndex(element);
+		element.setActive(include.isActive());
+		element.setResolved(include.isResolved());
+		fTranslationUnit.addChild(element);
+		setPositions(getSourceManipulationInfo(element), include.getNameOffset(), include.getNameLength());
+	}
+
+	private void createMacro(IIndexMacro macro) throws CoreException {
+		IASTFileLocation location= macro.getFileLocation();
+		if (location == null)
+			return;
+		Macro element= new Macro(fTranslationUnit, macro.getName());
+		setIndex(element);
+		element.setFunctionStyle(macro.isFunctionStyle());
+		fTranslationUnit.addChild(element);
+		setPositions(getSourceManipulationInfo(element), location.getNodeOffset(), location.getNodeLength());
+	}
+
+	private void createDeclaration(IIndexName name, IBinding binding) throws CoreException {
+		final boolean isDefinition= name.isDefinition();
+		final int offset= name.getNodeOffset();
+		final int length= name.getNodeLength();
+		final int qualifiedNameOffset= getQualifiedNameOffset(offset);
+		final boolean isQualified= qualifiedNameOffset < offset;
+		final IBinding owner= binding.getOwner();
+		Parent parent= isQualified ? null : fScopeElements.get(owner);
+		if (parent == null) {
+			parent= fTranslationUnit;
+		}
+		final String elementName= isQualified || parent == fTranslationUnit ?
+				getText(qualifiedNameOffset, offset + length) : binding.getName();
+
+		final SourceManipulation element;
+		if (binding instanceof ICPPNamespace) {
+			if (!isDefinition || binding instanceof ICPPNamespaceAlias)
+				return;
+			Namespace namespace= new Namespace(parent, elementName);
+			namespace.setTypeName(Keywords.NAMESPACE);
+			fScopeElements.put(binding, namespace);
+			element= namespace;
+		} else if (binding instanceof ICompositeType) {
+			element= createCompositeType(parent, elementName, (ICompositeType) binding, isDefinition);
+		} else if (binding instanceof IEnumeration) {
+			if (!isDefinition)
+				return;
+			Enumeration enumeration= new Enumeration(parent, elementName);
+			((EnumerationInfo) getElementInfo(enumeration)).setTypeName(Keywords.ENUM);
+			fScopeElements.put(binding, enumeration);
+			element= enumeration;
+		} else if (binding instanceof IEnumerator) {
+			element= new Enumerator(parent, binding.getName());
+		} else if (binding instanceof ITypedef) {
+			TypeDef typedef= new TypeDef(parent, elementName);
+			typedef.setTypeName(getTypeString(((ITypedef) binding).getType()));
+			element= typedef;
+		} else if (binding instanceof IFunction) {
+			element= createFunction(parent, elementName, (IFunction) binding, isDefinition);
+		} else if (binding instanceof IVariable && !(binding instanceof IParameter)) {
+			if (!(binding instanceof IField) && owner instanceof IFunction)
+				return;
+			element= createVariable(parent, elementName, (IVariable) binding);
+		} else {
+			return;
+		}
+
+		parent.addChild(element);
+		setPositions(getSourceManipulationInfo(element), offset, length);
+	}
+
+	private SourceManipulation createCompositeType(Parent parent, String name, ICompositeType binding,
+			boolean isDefinition) throws CModelException {
+		final boolean isTemplate= binding instanceof ICPPClassTemplate;
+		final String type;
+		final int kind;
+		switch (binding.getKey()) {
+		case ICompositeType.k_union:
+			kind= isTemplate ? ICElement.C_TEMPLATE_UNION : ICElement.C_UNION;
+			type= Keywords.UNION;
+			break;
+		case ICPPClassType.k_class:
+			kind= isTemplate ? ICElement.C_TEMPLATE_CLASS : ICElement.C_CLASS;
+			type= Keywords.CLASS;
+			break;
+		default:
+			kind= isTemplate ? ICElement.C_TEMPLATE_STRUCT : ICElement.C_STRUCT;
+			type= Keywords.STRUCT;
+			break;
+		}
+		if (!isDefinition) {
+			return isTemplate ? new StructureTemplateDeclaration(parent, kind, name) :
+				new StructureDeclaration(parent, name, kind);
+		}
+		final Structure element= isTemplate ? new StructureTemplate(parent, kind, name) :
+			new Structure(parent, kind, name);
+		((StructureInfo) getElementInfo(element)).setTypeName(type);
+		fScopeElements.put(binding, element);
+		return element;
+	}
+
+	private SourceManipulation createFunction(Parent parent, String name, IFunction binding,
+			boolean isDefinition) throws CModelException {
+		final boolean isTemplate= binding instanceof ICPPFunctionTemplate;
+		final FunctionDeclaration element;
+		if (binding instanceof ICPPMethod) {
+			final ICPPMethod method= (ICPPMethod) binding;
+			final MethodDeclaration methodElement;
+			if (isDefinition) {
+				methodElement= isTemplate ? new MethodTemplate(parent, name) : new Method(parent, name);
+			} else {
+				methodElement= isTemplate ? new MethodTemplateDeclaration(parent, name) :
+					new MethodDeclaration(parent, name);
+			}
+			methodElement.setConstructor(method instanceof ICPPConstructor);
+			methodElement.setDestructor(method.isDestructor());
+			IFunctionType type= method.getType();
+			methodElement.setConst(type instanceof ICPPFunctionType && ((ICPPFunctionType) type).isConst());
+			element= methodElement;
+		} else if (isDefinition) {
+			element= isTemplate ? new FunctionTemplate(parent, name) : new Function(parent, name);
+		} else {
+			element= isTemplate ? new FunctionTemplateDeclaration(parent, name) :
+				new FunctionDeclaration(parent, name);
+		}
+		IFunctionType type= binding.getType();
+		if (type != null) {
+			IType[] parameterTypes= type.getParameterTypes();
+			String[] parameterTypeStrings= new String[parameterTypes.length];
+			for (int i = 0; i < parameterTypes.length; i++) {
+				parameterTypeStrings[i]= getTypeString(parameterTypes[i]);
+			}
+			element.setParameterTypes(parameterTypeStrings);
+			if (!(binding instanceof ICPPConstructor)
+					&& !(binding instanceof ICPPMethod && ((ICPPMethod) binding).isDestructor())) {
+				element.setReturnType(getTypeString(type.getReturnType()));
+			}
+		}
+		setIndex(element);
+
+		final FunctionInfo info= (FunctionInfo) getElementInfo(element);
+		info.setStatic(binding.isStatic());
+		if (info instanceof MethodInfo) {
+			final ICPPMethod method= (ICPPMethod) binding;
+			final MethodInfo methodInfo= (MethodInfo) info;
+			methodInfo.setVirtual(method.isVirtual());
+			methodInfo.setPureVirtual(method.isPureVirtual());
+			methodInfo.setInline(method.isInline());
+			methodInfo.setVisibility(getVisibility(method));
+		}
+		return element;
+	}
+
+	private SourceManipulation createVariable(Parent parent, String name, IVariable binding)
+			throws CModelException {
+		final String typeName= getTypeString(binding.getType());
+		if (binding instanceof IField) {
+			Field element= new Field(parent, name);
+			setIndex(element);
+			FieldInfo info= (FieldInfo) getElementInfo(element);
+			info.setTypeName(typeName);
+			info.setStatic(binding.isStatic());
+			info.setVisibility(getVisibility(binding));
+			if (binding instanceof ICPPVariable) {
+				info.setMutable(((ICPPVariable) binding).isMutable());
+			}
+			return element;
+		}
+		VariableDeclaration element= binding.isExtern() ? new VariableDeclaration(parent, name) :
+			new Variable(parent, name);
+		setIndex(element);
+		VariableInfo info= (VariableInfo) getElementInfo(element);
+		info.setTypeName(typeName);
+		info.setStatic(binding.isStatic());
+		return element;
+	}
+
+	private static ASTAccessVisibility getVisibility(IBinding binding) {
+		if (binding instanceof ICPPMember) {
+			switch (((ICPPMember) binding).getVisibility()) {
+			case ICPPMember.v_private:
+				return ASTAccessVisibility.PRIVATE;
+			case ICPPMember.v_protected:
+				return ASTAccessVisibility.PROTECTED;
+			}
+		}
+		return ASTAccessVisibility.PUBLIC;
+	}
+
+	private static String getTypeString(IType type) {
+		return type == null ? "" : ASTTypeUtil.getType(type, false); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the offset of the qualified name that ends with the name at the given offset,
+	 * or the given offset if the name is not qualified.
+	 */
+	private int getQualifiedNameOffset(int offset) {
+		int result= offset;
+		int i= skipWhitespaceBackwards(offset);
+		while (i >= 2 && fContents[i - 1] == ':' && fContents[i - 2] == ':') {
+			i= skipWhitespaceBackwards(i - 2);
+			if (i > 0 && fContents[i - 1] == '>') {
+				// Skip template arguments.
+				int depth= 0;
+				while (i > 0) {
+					char c= fContents[--i];
+					if (c == '>') {
+						depth++;
+					} else if (c == '<' && --depth == 0) {
+						break;
+					}
+				}
+				i= skipWhitespaceBackwards(i);
+			}
+			int start= i;
+			while (start > 0 && Character.isJavaIdentifierPart(fContents[start - 1])) {
+				start--;
+			}
+			if (start == i)
+				break;
+			result= start;
+			i= skipWhitespaceBackwards(start);
+		}
+		return result;
+	}
+
+	private int skipWhitespaceBackwards(int offset) {
+		int i= Math.min(offset, fContents.length);
+		while (i > 0 && Character.isWhitespace(fContents[i - 1])) {
+			i--;
+		}
+		return i;
+	}
+
+	private String getText(int start, int end) {
+		StringBuilder buf= new StringBuilder(end - start);
+		for (int i= start; i < end && i < fContents.length; i++) {
+			if (!Character.isWhitespace(fContents[i])) {
+				buf.append(fContents[i]);
+			}
+		}
+		return buf.toString();
+	}
+
+	private void setPositions(SourceManipulationInfo info, int offset, int length) {
+		info.setIdPos(offset, length);
+		info.setPos(offset, length);
+		info.setReadOnly(true);
+		int line= getLineNumber(offset);
+		info.setLines(line, line);
+	}
+
+	private int getLineNumber(int offset) {
+		if (fLineOffsets == null) {
+			List<Integer> offsets= new ArrayList<>();
+			offsets.add(0);
+			for (int i = 0; i < fContents.length; i++) {
+				if (fContents[i] == '\n') {
+					offsets.add(i + 1);
+				}
+			}
+			fLineOffsets= new int[offsets.size()];
+			for (int i = 0; i < fLineOffsets.length; i++) {
+				fLineOffsets[i]= offsets.get(i);
+			}
+		}
+		int idx= Arrays.binarySearch(fLineOffsets, offset);
+		return (idx >= 0 ? idx : -idx - 2) + 1;
+	}
+
+	private void setIndex(SourceManipulation element) {
+		int[] idx= fEqualElements.get(element);
+		if (idx == null) {
+			idx= new int[] {0};
+			fEqualElements.put(element, idx);
+		} else {
+			element.setIndex(++idx[0]);
+		}
+	}
+
+	private void checkCanceled() {
+		if (fProgressMonitor != null && fProgressMonitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+	}
+
+	private CElementInfo getElementInfo(CElement cElement) {
+		CElementInfo info = fNewElements.get(cElement);
+		if (info == null) {
+			info = cElement.createElementInfo();
+			fNewElements.put(cElement, info);
+		}
+		return info;
+	}
+
+	private SourceManipulationInfo getSourceManipulationInfo(SourceManipulation cElement) {
+		return (SourceManipulationInfo) getElementInfo(cElement);
+	}
+}
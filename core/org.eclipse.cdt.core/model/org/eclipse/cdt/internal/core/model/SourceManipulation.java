@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 QNX Software Systems and others.
+ * Copyright (c) 2000, 2017 QNX Software Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -169,6 +169,23 @@ public class SourceManipulation extends Parent implements ISourceManipulation, I
 		return getSourceManipulationInfo().getSourceRange();
 	}
 
+	/**
+	 * Elements of a translation unit whose structure has been built from the index are read-only,
+	 * their source range is just the range of the name.
+	 *
+	 * @see ICElement
+	 */
+	@Override
+	public boolean isReadOnly() {
+		try {
+			if (getSourceManipulationInfo().isReadOnly())
+				return true;
+		} catch (CModelException e) {
+			// Fall back to the resource.
+		}
+		return super.isReadOnly();
+	}
+
 	/**
 	 * @see ICElement
 	 */
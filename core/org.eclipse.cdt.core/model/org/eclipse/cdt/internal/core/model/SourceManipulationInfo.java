@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 QNX Software Systems and others.
+ * Copyright (c) 2000, 2017 QNX Software Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -31,6 +31,7 @@ class SourceManipulationInfo extends CElementInfo {
 	protected int fIdLength;
 	protected int fStartLine;
 	protected int fEndLine;
+	private boolean fIsReadOnly;
 
 	protected SourceManipulationInfo(CElement element) {
 		super(element);
@@ -76,6 +77,17 @@ class SourceManipulationInfo extends CElementInfo {
 		fEndLine = endLine;
 	}
 
+	/**
+	 * Marks the element as read-only, because its source range does not cover its declaration.
+	 */
+	public void setReadOnly(boolean readOnly) {
+		fIsReadOnly= readOnly;
+	}
+
+	public boolean isReadOnly() {
+		return fIsReadOnly;
+	}
+
 	protected ISourceRange getSourceRange() {
 		return new SourceRange(fStartPos, fLength, fIdStartPos, fIdLength, fStartLine, fEndLine);
 	}
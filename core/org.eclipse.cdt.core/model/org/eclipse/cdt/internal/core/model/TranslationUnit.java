@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 QNX Software Systems and others.
+ * Copyright (c) 2000, 2017 QNX Software Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.CCorePreferenceConstants;
 import org.eclipse.cdt.core.dom.ILinkage;
 import org.eclipse.cdt.core.dom.ast.IASTCompletionNode;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
@@ -675,6 +676,10 @@ public class TranslationUnit extends Openable implements ITranslationUnit {
 	 */
 	private void parseUsingCModelBuilder(Map<ICElement, CElementInfo> newElements, boolean quickParseMode, IProgressMonitor monitor) {
 		try {
+			if (canBuildFromIndex(newElements)
+					&& new IndexModelBuilder(this, newElements, monitor).build()) {
+				return;
+			}
 			new CModelBuilder2(this, newElements, monitor).parse(quickParseMode);
 		} catch (OperationCanceledException oce) {
 			if (isWorkingCopy()) {
@@ -686,6 +691,18 @@ public class TranslationUnit extends Openable implements ITranslationUnit {
 		}
 	}
 
+	/**
+	 * Checks whether the structure may be built from the index. This is not the case when an AST
+	 * is requested or the contents may differ from what has been indexed.
+	 */
+	private boolean canBuildFromIndex(Map<ICElement, CElementInfo> newElements) throws CModelException {
+		if (!CCorePreferenceConstants.getPreference(CCorePreferenceConstants.MODEL_BUILD_FROM_INDEX,
+				getCProject(), CCorePreferenceConstants.DEFAULT_MODEL_BUILD_FROM_INDEX)) {
+			return false;
+		}
+		return !(newElements.get(this) instanceof ASTHolderTUInfo) && !hasUnsavedChanges();
+	}
+
 	private void parseUsingContributedModelBuilder(IContributedModelBuilder mb, boolean quickParseMode,
 			IProgressMonitor monitor) {
 		// We did reuse the shared info cache in the internal model builder.
@@ -917,34 +934,11 @@ public class TranslationUnit extends Openable implements ITranslationUnit {
 		if (index != null && (style & AST_CONFIGURE_USING_SOURCE_CONTEXT) != 0) {
 			try {
 				fLanguageOfContext= null;
-				final IIndexFileLocation ifl = IndexLocationFactory.getIFL(this);
-				if (ifl != null) {
-					IIndexFile best = null;
-					IIndexFile contextOfBest = null;
-					int bestScore= -1;
-					// Find file variant that has the most content and preferably was parsed in
-					// context of a source file.
-					for (int linkageID : CTX_LINKAGES) {
-						for (IIndexFile indexFile : index.getFiles(linkageID, ifl)) {
-							int score= indexFile.getMacros().length * 2;
-							IIndexFile context= getParsedInContext(indexFile);
-							if (isSourceFile(context, getCProject().getProject())) {
-								if (indexFile.equals(context)) {
-									// The file is an independently indexed source - return it.
-									return new IIndexFile[] { indexFile, indexFile };
-								}
-								score++;
-							}
-							if (score > bestScore) {
-								bestScore= score;
-								best= indexFile;
-								contextOfBest = context;
-							}
-						}
-					}
-
-					if (best != null && contextOfBest != best) {
-						return new IIndexFile[] { contextOfBest, best };
+				IIndexFile best= getBestIndexFile(index);
+				if (best != null) {
+					IIndexFile context= getParsedInContext(best);
+					if (context != best || isSourceFile(context, getCProject().getProject())) {
+						return new IIndexFile[] { context, best };
 					}
 				}
 			} catch (CoreException e) {
@@ -954,6 +948,39 @@ public class TranslationUnit extends Openable implements ITranslationUnit {
 		return null;
 	}
 
+	/**
+	 * Returns the variant of this file in the index that is used as source context, or
+	 * <code>null</code> if the file has not been indexed. This is the file itself if it has been
+	 * indexed as a source file, otherwise the variant that has the most content and preferably
+	 * was parsed in context of a source file.
+	 */
+	IIndexFile getBestIndexFile(IIndex index) throws CoreException {
+		final IIndexFileLocation ifl = IndexLocationFactory.getIFL(this);
+		if (ifl == null)
+			return null;
+
+		IIndexFile best = null;
+		int bestScore= -1;
+		for (int linkageID : CTX_LINKAGES) {
+			for (IIndexFile indexFile : index.getFiles(linkageID, ifl)) {
+				int score= indexFile.getMacros().length * 2;
+				IIndexFile context= getParsedInContext(indexFile);
+				if (isSourceFile(context, getCProject().getProject())) {
+					if (indexFile.equals(context)) {
+						// The file is an independently indexed source - return it.
+						return indexFile;
+					}
+					score++;
+				}
+				if (score > bestScore) {
+					bestScore= score;
+					best= indexFile;
+				}
+			}
+		}
+		return best;
+	}
+
 	public static IIndexFile getParsedInContext(IIndexFile indexFile) throws CoreException {
 		HashSet<IIndexFile> visited= new HashSet<>();
 		// Bug 199412, may recurse.
@@ -121,6 +121,12 @@ public class GPPLanguage extends AbstractCLikeLanguage {
 					parser.setMaximumTrivialExpressionsInAggregateInitializers(maximumTrivialExpressions);
 			}
 		}
+		if ((options & OPTION_LAZY_FUNCTION_BODIES) != 0) {
+			parser.setLazyFunctionBodies(true);
+		}
+		if ((options & OPTION_DEFERRED_AMBIGUITY_RESOLUTION) != 0) {
+			parser.setDeferredAmbiguityResolution(true);
+		}
 		return parser;
 	}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2017 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -33,6 +33,11 @@ import org.eclipse.cdt.internal.core.parser.scanner.Token;
  * Base class for all non-preprocessor nodes in the AST.
  */
 public abstract class ASTNode implements IASTNode {
+	// The flags are stored in the upper bits of the length, this keeps the nodes small.
+	private static final int FROZEN = 0x80000000;
+	private static final int INACTIVE = 0x40000000;
+	private static final int LENGTH_MASK = INACTIVE - 1;
+
     private IASTNode parent;
     private ASTNodeProperty property;
 
@@ -41,12 +46,23 @@ public abstract class ASTNode implements IASTNode {
      * Do not access directly, because getOffset() may be overloaded for lazy calculations.
      */
     private int offset;
-    private int length;
-    private IASTNodeLocation[] locations;
-    private IASTFileLocation fileLocation;
+    private int lengthAndFlags;
+    /**
+     * The node locations of the node, its file location or both of them stored in
+     * {@link Locations}. Most nodes are asked for only one of them, so a single field
+     * is used for both.
+     */
+    private Object locations;
 
-    private boolean frozen = false;
-    private boolean active = true;
+    private static final class Locations {
+    	final IASTNodeLocation[] fNodeLocations;
+    	final IASTFileLocation fFileLocation;
+
+    	Locations(IASTNodeLocation[] nodeLocations, IASTFileLocation fileLocation) {
+    		fNodeLocations= nodeLocations;
+    		fFileLocation= fileLocation;
+    	}
+    }
 
     @Override
 	public IASTNode getParent() {
@@ -61,25 +77,33 @@ public abstract class ASTNode implements IASTNode {
 
 	@Override
 	public final boolean isFrozen() {
-		return frozen;
+		return (lengthAndFlags & FROZEN) != 0;
 	}
 
 	@Override
 	public boolean isActive() {
-		return active;
+		return (lengthAndFlags & INACTIVE) == 0;
 	}
 
 	void setIsFrozen() {
-		frozen = true;
+		lengthAndFlags |= FROZEN;
+		trimToSize();
+	}
+
+	/**
+	 * Called when the node is frozen. Nodes that store their children in arrays with spare
+	 * capacity can trim them, because no further children will be added.
+	 */
+	protected void trimToSize() {
 	}
 
 	public void setInactive() {
     	assertNotFrozen();
-		active= false;
+		lengthAndFlags |= INACTIVE;
 	}
 
 	protected final void assertNotFrozen() throws IllegalStateException {
-		if (frozen)
+		if (isFrozen())
 			throw new IllegalStateException("Attempt to modify a frozen AST node"); //$NON-NLS-1$
 	}
 
@@ -105,26 +129,32 @@ public abstract class ASTNode implements IASTNode {
     }
 
     public final int getLength() {
-        return length;
+        return lengthAndFlags & LENGTH_MASK;
     }
 
     public void setOffset(int offset) {
         this.offset = offset;
         this.locations = null;
-        this.fileLocation = null;
     }
 
     public void setLength(int length) {
-        this.length = length;
+        setLengthKeepFlags(length);
         this.locations = null;
-        this.fileLocation = null;
     }
 
     public void setOffsetAndLength(int offset, int length) {
         this.offset = offset;
-        this.length = length;
+        setLengthKeepFlags(length);
         this.locations = null;
-        this.fileLocation = null;
+    }
+
+    private void setLengthKeepFlags(int length) {
+    	if (length < 0) {
+    		length= 0;
+    	} else if (length > LENGTH_MASK) {
+    		length= LENGTH_MASK;
+    	}
+    	lengthAndFlags= (lengthAndFlags & ~LENGTH_MASK) | length;
     }
 
     public void setOffsetAndLength(ASTNode node) {
@@ -133,20 +163,29 @@ public abstract class ASTNode implements IASTNode {
 
     @Override
 	public IASTNodeLocation[] getNodeLocations() {
-        if (locations == null) {
-	        if (length != 0) {
-	        	final IASTTranslationUnit tu= getTranslationUnit();
-	        	if (tu != null) {
-	        		ILocationResolver l= tu.getAdapter(ILocationResolver.class);
-	        		if (l != null) {
-	        			locations= l.getLocations(getOffset(), length);
-	        		}
-	        	}
-	        }
-	        if (locations == null)
-	        	locations= IASTNodeLocation.EMPTY_ARRAY;
-        }
-        return locations;
+    	// Read the field once, it may be replaced by another thread.
+    	final Object cached= locations;
+    	if (cached instanceof IASTNodeLocation[])
+    		return (IASTNodeLocation[]) cached;
+    	if (cached instanceof Locations)
+    		return ((Locations) cached).fNodeLocations;
+
+    	IASTNodeLocation[] result= null;
+    	final int length= getLength();
+    	if (length != 0) {
+    		final IASTTranslationUnit tu= getTranslationUnit();
+    		if (tu != null) {
+    			ILocationResolver l= tu.getAdapter(ILocationResolver.class);
+    			if (l != null) {
+    				result= l.getLocations(getOffset(), length);
+    			}
+    		}
+    	}
+    	if (result == null)
+    		result= IASTNodeLocation.EMPTY_ARRAY;
+    	locations= cached instanceof IASTFileLocation ?
+    			new Locations(result, (IASTFileLocation) cached) : result;
+    	return result;
     }
 
     public IASTImageLocation getImageLocation() {
@@ -154,7 +193,7 @@ public abstract class ASTNode implements IASTNode {
     	if (tu != null) {
     		ILocationResolver l= tu.getAdapter(ILocationResolver.class);
     		if (l != null) {
-    			return l.getImageLocation(getOffset(), length);
+    			return l.getImageLocation(getOffset(), getLength());
     		}
     	}
         return null;
@@ -181,7 +220,7 @@ public abstract class ASTNode implements IASTNode {
     @Override
 	public String getContainingFilename() {
     	final int offset = getOffset();
-		if (offset <= 0 && (length == 0 || offset < 0)) {
+		if (offset <= 0 && (getLength() == 0 || offset < 0)) {
     		final IASTNode parent = getParent();
     		if (parent == null) {
     			if (this instanceof IASTTranslationUnit) {
@@ -196,14 +235,20 @@ public abstract class ASTNode implements IASTNode {
 
     @Override
 	public IASTFileLocation getFileLocation() {
-        if (fileLocation != null)
-            return fileLocation;
+    	// Read the field once, it may be replaced by another thread.
+    	final Object cached= locations;
+        if (cached instanceof IASTFileLocation)
+            return (IASTFileLocation) cached;
+        if (cached instanceof Locations)
+        	return ((Locations) cached).fFileLocation;
         final int offset = getOffset();
+        final int length = getLength();
         // Only an empty translation unit should have offset = 0 and length = 0.
         // Otherwise these values mean the parser failed to set the offset and length.
 		if (offset < 0 || (offset == 0 && length == 0 && !(this instanceof IASTTranslationUnit))) {
         	return null;
         }
+        IASTFileLocation fileLocation= null;
         IASTTranslationUnit ast = getTranslationUnit();
         if (ast != null) {
         	ILocationResolver lr= ast.getAdapter(ILocationResolver.class);
@@ -214,6 +259,11 @@ public abstract class ASTNode implements IASTNode {
         		fileLocation= ast.flattenLocationsToFile(getNodeLocations());
         	}
         }
+        if (fileLocation != null) {
+        	// Keep the node locations, for copies they refer to the original node.
+        	locations= cached instanceof IASTNodeLocation[] ?
+        			new Locations((IASTNodeLocation[]) cached, fileLocation) : fileLocation;
+        }
         return fileLocation;
     }
 
@@ -260,7 +310,7 @@ public abstract class ASTNode implements IASTNode {
     		ASTNode astNode= (ASTNode) node;
     		final int offset = getOffset();
     		final int nodeOffset= astNode.getOffset();
-			return offset <= nodeOffset && nodeOffset + astNode.length <= offset + length;
+			return offset <= nodeOffset && nodeOffset + astNode.getLength() <= offset + getLength();
     	}
     	return false;
     }
@@ -268,7 +318,7 @@ public abstract class ASTNode implements IASTNode {
 	@Override
 	public IToken getSyntax() throws ExpansionOverlapsBoundaryException {
 		final int offset = getOffset();
-		return getSyntax(offset, offset + length, 0);
+		return getSyntax(offset, offset + getLength(), 0);
 	}
 
 	@Override
@@ -280,7 +330,7 @@ public abstract class ASTNode implements IASTNode {
 	@Override
 	public IToken getTrailingSyntax() throws ExpansionOverlapsBoundaryException {
     	int right= getBoundary(1);
-		return getSyntax(getOffset() + length, right, 1);
+		return getSyntax(getOffset() + getLength(), right, 1);
 	}
 
 	/**
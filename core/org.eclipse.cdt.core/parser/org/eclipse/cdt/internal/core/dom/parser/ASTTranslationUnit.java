@@ -420,6 +420,12 @@ public abstract class ASTTranslationUnit extends ASTNode implements IASTTranslat
 	 */
 	public abstract void resolveAmbiguities();
 
+	/**
+	 * Resolves the ambiguities of a part of the ast that has been created after the
+	 * translation unit was parsed, e.g. a lazily parsed function body.
+	 */
+	public abstract void resolveAmbiguities(IASTNode node);
+
 	/**
 	 * Can be called to create a type for a type-id.
 	 */
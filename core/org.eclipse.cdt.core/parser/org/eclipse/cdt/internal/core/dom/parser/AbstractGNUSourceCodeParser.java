@@ -180,7 +180,8 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
 	protected static final int DEFAULT_DESIGNATOR_LIST_SIZE = 4;
 
 	protected final AbstractParserLogService log;
-    protected final IScanner scanner;
+    /** Released after parsing if function bodies are parsed lazily, see {@link #parse()} */
+    protected IScanner scanner;
     protected final ParserMode mode;
 
     protected final boolean supportStatementsInExpressions;
@@ -216,6 +217,13 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
     private final INodeFactory nodeFactory;
 	private boolean fActiveCode= true;
 
+	private boolean fLazyFunctionBodies;
+	private boolean fDeferredAmbiguityResolution;
+	private List<LazyFunctionBody> fLazyBodies= new ArrayList<>();
+	private final LazyFunctionBody.Context fLazyBodyContext= new LazyFunctionBody.Context(this);
+	private boolean fParsingLazyBody;
+	private int fLazyBodyEndOffset;
+
     protected AbstractGNUSourceCodeParser(IScanner scanner,
             IParserLogService logService, ParserMode parserMode,
             INodeFactory nodeFactory,
@@ -245,6 +253,23 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
 		maximumTrivialExpressionsInAggregateInitializers= limit;
 	}
 
+	/**
+	 * Instructs the parser to skip over function bodies and to parse them when they are accessed
+	 * for the first time. Only applies to a complete parse.
+	 */
+	public void setLazyFunctionBodies(boolean value) {
+		fLazyFunctionBodies= value;
+	}
+
+	/**
+	 * Instructs the parser to defer the resolution of ambiguities within function bodies until
+	 * the bodies are accessed for the first time. Applies to a complete parse and to the function
+	 * bodies of the top context in a selection parse.
+	 */
+	public void setDeferredAmbiguityResolution(boolean value) {
+		fDeferredAmbiguityResolution= value;
+	}
+
     private AbstractParserLogService wrapLogService(IParserLogService logService) {
 		if (logService instanceof AbstractParserLogService) {
 			return (AbstractParserLogService) logService;
@@ -280,6 +305,10 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
      * Fetches the next token from the scanner.
      */
     private final IToken fetchToken(boolean skipInactive) throws EndOfFileException {
+    	if (fParsingLazyBody) {
+    		// The tokens of a lazy function body are not followed by any other tokens.
+    		throw new EndOfFileException(fLazyBodyEndOffset);
+    	}
         try {
         	IToken t= scanner.nextToken();
         	if (skipInactive) {
@@ -424,7 +453,8 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
         		nextToken= t.getNext();
         	} else {
         		nextToken= null;
-        		scanner.skipInactiveCode();
+        		if (scanner != null)
+        			scanner.skipInactiveCode();
         	}
 		} catch (OffsetLimitReachedException olre) {
 			if (mode == ParserMode.COMPLETION_PARSE) {
@@ -439,7 +469,8 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
     }
 
     protected final int getCodeBranchNesting() {
-    	return scanner.getCodeBranchNesting();
+    	// Lazy function bodies are parsed after the preprocessor has reached the end of the file.
+    	return scanner == null ? 0 : scanner.getCodeBranchNesting();
     }
 
     /**
@@ -639,7 +670,7 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
 
     @Override
 	public String toString() {
-        return scanner.toString();
+        return String.valueOf(scanner);
     }
 
     /**
@@ -679,6 +710,7 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
 	public IASTTranslationUnit parse() {
         long t0 = log.isTracing() ? System.currentTimeMillis() : 0;
         translationUnit();
+        enableLazyFunctionBodies();
         long t1 = log.isTracing() ? System.currentTimeMillis() : 0;
         resolveAmbiguities();
         IASTTranslationUnit ast = getTranslationUnit();
@@ -689,11 +721,62 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
 	        		name, t1 - t0, parsePassed ? "" : " - parse failure", System.currentTimeMillis() - t1); //$NON-NLS-1$//$NON-NLS-2$
 			log.traceLog(message);
         }
-        nullifyTranslationUnit();
+        if (!fLazyBodyContext.isEnabled() || fLazyBodyContext.releaseParser()) {
+        	nullifyTranslationUnit();
+        } else {
+        	// Skipped bodies are parsed from their tokens, the preprocessor is no longer needed.
+        	scanner= null;
+        }
         ast.freeze(); // Make the AST immutable.
+        fLazyBodyContext.enableForVisitors();
         return ast;
     }
 
+    /**
+     * Allows lazy function bodies to be parsed. While the ambiguities of the translation unit are
+     * resolved and while it is frozen, the bodies are parsed only when they are needed for name
+     * resolution.
+     */
+    private void enableLazyFunctionBodies() {
+    	for (LazyFunctionBody body : fLazyBodies) {
+    		body.detachFollowingTokens();
+    	}
+    	if (!fLazyBodies.isEmpty()) {
+    		fLazyBodyContext.enable();
+    	}
+    	fLazyBodies= null;
+    }
+
+    /**
+     * Parses a function body that has been skipped by {@link #handleFunctionBody()}.
+     * @param first the opening brace of the body.
+     * @param last the closing brace of the body.
+     * @return the statements of the body.
+     */
+    final IASTStatement[] parseLazyFunctionBody(IToken first, IToken last) {
+    	final IToken savedNextToken= nextToken;
+    	final IToken savedDeclarationMark= declarationMark;
+    	fParsingLazyBody= true;
+    	fLazyBodyEndOffset= last.getEndOffset();
+    	nextToken= first;
+    	try {
+    		return functionBody().getStatements();
+    	} catch (BacktrackException bt) {
+    		final IASTNode n= bt.getNodeBeforeProblem();
+    		if (n instanceof IASTCompoundStatement)
+    			return ((IASTCompoundStatement) n).getStatements();
+    		failParse();
+    		return new IASTStatement[] { buildProblemStatement(createProblem(bt)) };
+    	} catch (EndOfFileException e) {
+    		failParse();
+    		return IASTStatement.EMPTY_STATEMENT_ARRAY;
+    	} finally {
+    		nextToken= savedNextToken;
+    		declarationMark= savedDeclarationMark;
+    		fParsingLazyBody= false;
+    	}
+    }
+
     protected void resolveAmbiguities() {
         final IASTTranslationUnit translationUnit = getTranslationUnit();
         if (translationUnit instanceof ASTTranslationUnit) {
@@ -1471,8 +1554,10 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
             setRange(cs, offset, last.getEndOffset());
             return cs;
         } else if (mode == ParserMode.COMPLETION_PARSE || mode == ParserMode.SELECTION_PARSE) {
-            if (scanner.isOnTopContext())
-                return functionBody();
+            if (scanner.isOnTopContext()) {
+            	return mode == ParserMode.SELECTION_PARSE ?
+            			functionBodyWithDeferredAmbiguities() : functionBody();
+            }
             int offset = LA(1).getOffset();
             IToken last = skipOverCompoundStatement(true);
             IASTCompoundStatement cs = nodeFactory.newCompoundStatement();
@@ -1481,7 +1566,39 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
         }
 
         // full parse
-        return functionBody();
+        if (fLazyFunctionBodies && fLazyBodies != null && LT(1) == IToken.tLBRACE) {
+        	IASTCompoundStatement cs= nodeFactory.newCompoundStatement();
+        	if (cs instanceof LazyFunctionBody.IOwner) {
+        		final IToken first= LA(1);
+        		final IToken last= skipOverCompoundStatement(false);
+        		setRange(cs, first.getOffset(), last.getEndOffset());
+        		LazyFunctionBody body= new LazyFunctionBody(fLazyBodyContext, first, last);
+        		((LazyFunctionBody.IOwner) cs).setLazyBody(body);
+        		fLazyBodies.add(body);
+        		return cs;
+        	}
+        }
+        return functionBodyWithDeferredAmbiguities();
+    }
+
+    /**
+     * Parses a function body. If ambiguity resolution is deferred, the statements are stored in
+     * a lazy body, such that their ambiguities are resolved when they are accessed.
+     */
+    private IASTCompoundStatement functionBodyWithDeferredAmbiguities()
+    		throws BacktrackException, EndOfFileException {
+    	IASTCompoundStatement cs= functionBody();
+    	if (fDeferredAmbiguityResolution && fLazyBodies != null && cs instanceof LazyFunctionBody.IOwner) {
+    		IASTStatement[] statements= cs.getStatements();
+    		if (statements.length > 0) {
+    			LazyFunctionBody.IOwner owner= (LazyFunctionBody.IOwner) cs;
+    			owner.setLazyBodyStatements(IASTStatement.EMPTY_STATEMENT_ARRAY);
+    			LazyFunctionBody body= new LazyFunctionBody(fLazyBodyContext, statements);
+    			owner.setLazyBody(body);
+    			fLazyBodies.add(body);
+    		}
+    	}
+    	return cs;
     }
 
     /**
@@ -60,15 +60,57 @@ public class GCCBuiltinSymbolProvider implements IBuiltinBindingsProvider {
 	public static final ASTNodeProperty BUILTIN_GCC_SYMBOL = new ASTNodeProperty(
 		"GCCBuiltinSymbolProvider.BUILTIN_GCC_SYMBOL - built-in GCC symbol"); //$NON-NLS-1$
 
-	private static final Map<String, char[]> CHAR_ARRAYS = new HashMap<String, char[]>();
+	/**
+	 * Symbol descriptions shared by all translation units, indexed by {@link #getSetIndex}.
+	 */
+	private static final BuiltinSymbol[][] SHARED_SYMBOLS= new BuiltinSymbol[4][];
 
-	private IBinding[] fBindings;
-	private IScope fScope;
 	private final boolean fCpp;
 	private final boolean fGnu;
 
 	private Map<String, IType> fTypeMap;
-	private List<IBinding> fBindingList;
+	private List<BuiltinSymbol> fSymbolList;
+
+	/**
+	 * Description of a built-in symbol. The description does not depend on a translation unit and
+	 * is shared between all of them. Its types and parameters are never modified after creation,
+	 * such that they can be used by multiple parsers concurrently.
+	 */
+	private static final class BuiltinSymbol {
+		static final int VARIABLE= 0;
+		static final int TYPEDEF= 1;
+		static final int FUNCTION= 2;
+
+		final int fKind;
+		final char[] fName;
+		final IType fType;
+		final IParameter[] fParameters;
+		final boolean fTakesVarArgs;
+
+		BuiltinSymbol(int kind, char[] name, IType type, IParameter[] parameters, boolean takesVarArgs) {
+			fKind= kind;
+			fName= name;
+			fType= type;
+			fParameters= parameters;
+			fTakesVarArgs= takesVarArgs;
+		}
+
+		IBinding createBinding(IScope scope, boolean cpp) {
+			switch (fKind) {
+			case VARIABLE:
+				return cpp ? new CPPBuiltinVariable(fType, fName, scope)
+						: new CBuiltinVariable(fType, fName, scope);
+			case TYPEDEF:
+				return cpp ? new CPPImplicitTypedef(fType, fName, scope)
+						: new CImplicitTypedef(fType, fName, scope);
+			default:
+				return cpp ?
+						new CPPImplicitFunction(fName, scope, (ICPPFunctionType) fType,
+								(ICPPParameter[]) fParameters, false, fTakesVarArgs) :
+						new CImplicitFunction(fName, scope, (IFunctionType) fType, fParameters, fTakesVarArgs);
+			}
+		}
+	}
 
 	public GCCBuiltinSymbolProvider(ParserLanguage lang, boolean supportGnuSymbols) {
 		fCpp= lang == ParserLanguage.CPP;
@@ -77,23 +119,44 @@ public class GCCBuiltinSymbolProvider implements IBuiltinBindingsProvider {
 
 	@Override
 	public IBinding[] getBuiltinBindings(IScope scope) {
-		fScope= scope;
-		initialize();
-		return fBindings;
+		// Only the bindings refer to the scope of the translation unit, everything else is shared.
+		final BuiltinSymbol[] symbols= getSharedSymbols();
+		IBinding[] bindings= new IBinding[symbols.length];
+		for (int i = 0; i < symbols.length; i++) {
+			bindings[i]= symbols[i].createBinding(scope, fCpp);
+		}
+		return bindings;
+	}
+
+	private int getSetIndex() {
+		return (fCpp ? 2 : 0) + (fGnu ? 1 : 0);
 	}
 
-	private void initialize() {
+	private BuiltinSymbol[] getSharedSymbols() {
+		final int idx= getSetIndex();
+		synchronized (SHARED_SYMBOLS) {
+			BuiltinSymbol[] symbols= SHARED_SYMBOLS[idx];
+			if (symbols == null) {
+				symbols= createSymbols();
+				SHARED_SYMBOLS[idx]= symbols;
+			}
+			return symbols;
+		}
+	}
+
+	private BuiltinSymbol[] createSymbols() {
 		// Symbols for all parsers
 		fTypeMap= new HashMap<String, IType>();
-		fBindingList= new ArrayList<IBinding>();
+		fSymbolList= new ArrayList<BuiltinSymbol>();
 		addStdBuiltins();
 		if (fGnu) {
 			addGnuBuiltins();
 		}
 
-		fBindings= fBindingList.toArray(new IBinding[fBindingList.size()]);
+		BuiltinSymbol[] symbols= fSymbolList.toArray(new BuiltinSymbol[fSymbolList.size()]);
 		fTypeMap= null;
-		fBindingList= null;
+		fSymbolList= null;
+		return symbols;
 	}
 
 	private void addStdBuiltins() {
@@ -438,15 +501,11 @@ public class GCCBuiltinSymbolProvider implements IBuiltinBindingsProvider {
     }
 
 	private void variable(String type, String name) {
-		IBinding b = fCpp ? new CPPBuiltinVariable(toType(type), toCharArray(name), fScope)
-				: new CBuiltinVariable(toType(type), toCharArray(name), fScope);
-		fBindingList.add(b);
+		fSymbolList.add(new BuiltinSymbol(BuiltinSymbol.VARIABLE, name.toCharArray(), toType(type), null, false));
 	}
 
 	private void typedef(String type, String name) {
-		IBinding b = fCpp ? new CPPImplicitTypedef(toType(type), toCharArray(name), fScope)
-				: new CImplicitTypedef(toType(type), toCharArray(name), fScope);
-		fBindingList.add(b);
+		fSymbolList.add(new BuiltinSymbol(BuiltinSymbol.TYPEDEF, name.toCharArray(), toType(type), null, false));
 	}
 
 	private void cfunction(String returnType, String name, String... parameterTypes) {
@@ -471,22 +530,7 @@ public class GCCBuiltinSymbolProvider implements IBuiltinBindingsProvider {
 		IType rt = toType(returnType);
 		IFunctionType ft = fCpp ? new CPPFunctionType(rt, pTypes) : new CFunctionType(rt, pTypes);
 
-		IBinding b = fCpp ?
-				new CPPImplicitFunction(toCharArray(name), fScope, (ICPPFunctionType) ft,
-						(ICPPParameter[]) theParms, false, varargs) :
-				new CImplicitFunction(toCharArray(name), fScope, ft, theParms, varargs);
-		fBindingList.add(b);
-	}
-
-	private char[] toCharArray(String name) {
-		synchronized(CHAR_ARRAYS) {
-			char[] result= CHAR_ARRAYS.get(name);
-			if (result == null) {
-				result= name.toCharArray();
-				CHAR_ARRAYS.put(name, result);
-			}
-			return result;
-		}
+		fSymbolList.add(new BuiltinSymbol(BuiltinSymbol.FUNCTION, name.toCharArray(), ft, theParms, varargs));
 	}
 
 	private IType toType(String type) {
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser;
+
+import org.eclipse.cdt.core.dom.ast.ASTGenericVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
+import org.eclipse.cdt.core.dom.ast.IASTNode;
+import org.eclipse.cdt.core.dom.ast.IASTStatement;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.parser.IToken;
+
+/**
+ * The tokens of a function body that has been skipped by the parser. The body is parsed when
+ * its compound statement is accessed for the first time, see
+ * {@link AbstractGNUSourceCodeParser#setLazyFunctionBodies(boolean)}.
+ * <p>
+ * Alternatively the body holds statements that have been parsed but whose ambiguities have not
+ * been resolved, yet, see {@link AbstractGNUSourceCodeParser#setDeferredAmbiguityResolution(boolean)}.
+ * These are handed over to the compound statement in the same way as the statements of a skipped
+ * body.
+ */
+public final class LazyFunctionBody {
+	/**
+	 * Implemented by compound statements that can be used for lazily parsed function bodies.
+	 */
+	public interface IOwner extends IASTCompoundStatement {
+		/**
+		 * Associates the compound statement with a body that is parsed on demand.
+		 */
+		void setLazyBody(LazyFunctionBody body);
+
+		/**
+		 * Stores the statements parsed for the lazy body, called once.
+		 */
+		void setLazyBodyStatements(IASTStatement[] statements);
+	}
+
+	/**
+	 * The state shared by the lazy bodies of a translation unit. It is also the lock for parsing
+	 * the bodies.
+	 */
+	static final class Context {
+		/** The parser that skipped the bodies, released as soon as no skipped body is left. */
+		private AbstractGNUSourceCodeParser fParser;
+		/** The number of skipped bodies that have not been parsed, yet. */
+		private int fSkippedBodies;
+		private boolean fEnabled;
+		private boolean fEnabledForVisitors;
+		private boolean fParsingTokens;
+
+		Context(AbstractGNUSourceCodeParser parser) {
+			fParser= parser;
+		}
+
+		/**
+		 * Allows bodies to be parsed when they are needed for name resolution.
+		 */
+		synchronized void enable() {
+			fEnabled= true;
+		}
+
+		/**
+		 * Allows bodies to be parsed when they are visited.
+		 */
+		synchronized void enableForVisitors() {
+			fEnabledForVisitors= true;
+		}
+
+		synchronized boolean isEnabled() {
+			return fEnabled;
+		}
+
+		/**
+		 * Releases the parser unless there are skipped bodies that still need to be parsed.
+		 * Bodies with deferred ambiguity resolution do not need the parser.
+		 * @return whether the parser has been released.
+		 */
+		synchronized boolean releaseParser() {
+			if (fSkippedBodies > 0)
+				return false;
+			fParser= null;
+			return true;
+		}
+
+		private boolean canParse(boolean forVisitor) {
+			return fEnabled && !fParsingTokens && (!forVisitor || fEnabledForVisitors);
+		}
+	}
+
+	private final Context fContext;
+	private IToken fFirstToken;
+	private IToken fLastToken;
+	private IASTStatement[] fStatements;
+	private boolean fParsing;
+	private boolean fParsed;
+
+	LazyFunctionBody(Context context, IToken first, IToken last) {
+		fContext= context;
+		fFirstToken= first;
+		fLastToken= last;
+		context.fSkippedBodies++;
+	}
+
+	LazyFunctionBody(Context context, IASTStatement[] statements) {
+		fContext= context;
+		fStatements= statements;
+	}
+
+	/**
+	 * Cuts the link to the tokens following the body, such that they can be garbage collected.
+	 */
+	void detachFollowingTokens() {
+		if (fLastToken != null) {
+			fLastToken.setNext(null);
+		}
+	}
+
+	/**
+	 * Parses the body and stores the statements in the owner, unless this has already happened.
+	 * @param owner the compound statement representing the body.
+	 * @param forVisitor whether the body is needed for visiting the AST, rather than for its semantics.
+	 * @return <code>true</code> if the statements have been stored in the owner, <code>false</code>
+	 *     if the body cannot be parsed at this point or is being parsed by the current thread.
+	 */
+	public boolean parse(IOwner owner, boolean forVisitor) {
+		synchronized (fContext) {
+			if (fParsed)
+				return true;
+			if (fParsing || !fContext.canParse(forVisitor))
+				return false;
+
+			fParsing= true;
+			try {
+				IASTStatement[] statements= fStatements != null ? fStatements : parseTokens();
+				fFirstToken= fLastToken= null;
+				fStatements= null;
+				owner.setLazyBodyStatements(statements);
+
+				IASTTranslationUnit tu= owner.getTranslationUnit();
+				if (tu instanceof ASTTranslationUnit) {
+					((ASTTranslationUnit) tu).resolveAmbiguities(owner);
+				}
+				if (owner.isFrozen()) {
+					// Ambiguity resolution may have replaced some of the statements.
+					freeze(owner.getStatements());
+				}
+			} finally {
+				fParsing= false;
+				fParsed= true;
+			}
+			return true;
+		}
+	}
+
+	private IASTStatement[] parseTokens() {
+		fContext.fParsingTokens= true;
+		try {
+			return fContext.fParser.parseLazyFunctionBody(fFirstToken, fLastToken);
+		} finally {
+			fContext.fParsingTokens= false;
+			if (--fContext.fSkippedBodies == 0) {
+				// The last skipped body has been parsed, the parser is no longer needed.
+				fContext.fParser= null;
+			}
+		}
+	}
+
+	private static void freeze(IASTStatement[] statements) {
+		ASTGenericVisitor freezer= new ASTGenericVisitor(true) {
+			@Override
+			protected int genericVisit(IASTNode node) {
+				((ASTNode) node).setIsFrozen();
+				return PROCESS_CONTINUE;
+			}
+		};
+		for (IASTStatement statement : statements) {
+			statement.accept(freezer);
+		}
+	}
+}
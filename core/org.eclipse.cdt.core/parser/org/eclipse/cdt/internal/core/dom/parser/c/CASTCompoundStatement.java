@@ -21,13 +21,16 @@ import org.eclipse.cdt.core.dom.ast.IScope;
 import org.eclipse.cdt.core.parser.util.ArrayUtil;
 import org.eclipse.cdt.internal.core.dom.parser.ASTAttributeOwner;
 import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguityParent;
+import org.eclipse.cdt.internal.core.dom.parser.LazyFunctionBody;
 
 /**
  * @author jcamelon
  */
-public class CASTCompoundStatement extends ASTAttributeOwner implements IASTCompoundStatement, IASTAmbiguityParent {
+public class CASTCompoundStatement extends ASTAttributeOwner
+		implements IASTCompoundStatement, IASTAmbiguityParent, LazyFunctionBody.IOwner {
     private IASTStatement[] statements;
     private IScope scope;
+    private volatile LazyFunctionBody fLazyBody;
 
     @Override
 	public CASTCompoundStatement copy() {
@@ -44,6 +47,7 @@ public class CASTCompoundStatement extends ASTAttributeOwner implements IASTComp
 
     @Override
 	public IASTStatement[] getStatements() {
+    	parseLazyBody(false);
         if (statements == null) return IASTStatement.EMPTY_STATEMENT_ARRAY;
         return ArrayUtil.trim(IASTStatement.class, statements);
     }
@@ -51,6 +55,7 @@ public class CASTCompoundStatement extends ASTAttributeOwner implements IASTComp
     @Override
 	public void addStatement(IASTStatement statement) {
         assertNotFrozen();
+        parseLazyBody(false);
         statements = ArrayUtil.append(IASTStatement.class, statements, statement);
         if (statement != null) {
         	statement.setParent(this);
@@ -58,6 +63,34 @@ public class CASTCompoundStatement extends ASTAttributeOwner implements IASTComp
         }
     }
 
+    @Override
+	public void setLazyBody(LazyFunctionBody body) {
+    	assertNotFrozen();
+    	fLazyBody = body;
+    }
+
+    @Override
+	public void setLazyBodyStatements(IASTStatement[] stmts) {
+    	statements = stmts;
+    	for (IASTStatement statement : stmts) {
+    		statement.setParent(this);
+    		statement.setPropertyInParent(NESTED_STATEMENT);
+    	}
+    }
+
+    @Override
+	protected void trimToSize() {
+    	if (statements != null)
+    		statements = ArrayUtil.trim(IASTStatement.class, statements);
+    }
+
+    private void parseLazyBody(boolean forVisitor) {
+    	final LazyFunctionBody lazyBody = fLazyBody;
+    	if (lazyBody != null && lazyBody.parse(this, forVisitor)) {
+    		fLazyBody = null;
+    	}
+    }
+
     @Override
 	public IScope getScope() {
         if (scope == null)
@@ -76,9 +109,14 @@ public class CASTCompoundStatement extends ASTAttributeOwner implements IASTComp
 		}
 
         if (!acceptByAttributeSpecifiers(action)) return false;
-        IASTStatement[] s = getStatements();
-        for (int i = 0; i < s.length; i++) {
-            if (!s[i].accept(action)) return false;
+        parseLazyBody(true);
+        if (statements != null) {
+        	for (IASTStatement statement : statements) {
+        		if (statement == null)
+        			break;
+        		if (!statement.accept(action))
+        			return false;
+        	}
         }
 
         if (action.shouldVisitStatements) {
@@ -59,6 +59,12 @@ public class CASTInitializerList extends ASTNode implements IASTInitializerList,
 		return initializers;
 	}
 
+	@Override
+	protected void trimToSize() {
+		if (initializers != null)
+			initializers = ArrayUtil.trimAt(IASTInitializerClause.class, initializers, initializersPos);
+	}
+
 	@Override
 	@Deprecated
 	public IASTInitializer[] getInitializers() {
@@ -19,16 +19,19 @@ import org.eclipse.cdt.core.dom.ast.IScope;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTCompoundStatement;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPScope;
 import org.eclipse.cdt.core.parser.util.ArrayUtil;
+import org.eclipse.cdt.internal.core.dom.parser.LazyFunctionBody;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.DestructorCallCollector;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.ExecCompoundStatement;
 
 /**
  * @author jcamelon
  */
-public class CPPASTCompoundStatement extends CPPASTAttributeOwner implements ICPPASTCompoundStatement, ICPPExecutionOwner {
-    private IASTStatement[] statements = new IASTStatement[2];
+public class CPPASTCompoundStatement extends CPPASTAttributeOwner
+		implements ICPPASTCompoundStatement, ICPPExecutionOwner, LazyFunctionBody.IOwner {
+    private IASTStatement[] statements = IASTStatement.EMPTY_STATEMENT_ARRAY;
     private ICPPScope scope;
 	private IASTImplicitDestructorName[] fImplicitDestructorNames;
+	private volatile LazyFunctionBody fLazyBody;
 
     @Override
 	public CPPASTCompoundStatement copy() {
@@ -48,6 +51,7 @@ public class CPPASTCompoundStatement extends CPPASTAttributeOwner implements ICP
 
     @Override
 	public IASTStatement[] getStatements() {
+    	parseLazyBody(false);
     	statements = ArrayUtil.trim(statements);
         return statements;
     }
@@ -55,6 +59,7 @@ public class CPPASTCompoundStatement extends CPPASTAttributeOwner implements ICP
     @Override
 	public void addStatement(IASTStatement statement) {
         assertNotFrozen();
+        parseLazyBody(false);
         statements = ArrayUtil.append(statements, statement);
         if (statement != null) {
 			statement.setParent(this);
@@ -69,8 +74,36 @@ public class CPPASTCompoundStatement extends CPPASTAttributeOwner implements ICP
         return scope;
     }
 
+	@Override
+	public void setLazyBody(LazyFunctionBody body) {
+		assertNotFrozen();
+		fLazyBody = body;
+	}
+
+	@Override
+	public void setLazyBodyStatements(IASTStatement[] stmts) {
+		statements = stmts;
+		for (IASTStatement statement : stmts) {
+			statement.setParent(this);
+			statement.setPropertyInParent(NESTED_STATEMENT);
+		}
+	}
+
+	@Override
+	protected void trimToSize() {
+		statements = ArrayUtil.trim(statements);
+	}
+
+	private void parseLazyBody(boolean forVisitor) {
+		final LazyFunctionBody lazyBody = fLazyBody;
+		if (lazyBody != null && lazyBody.parse(this, forVisitor)) {
+			fLazyBody = null;
+		}
+	}
+
 	@Override
 	public IASTImplicitDestructorName[] getImplicitDestructorNames() {
+		parseLazyBody(false);
 		if (fImplicitDestructorNames == null) {
 			fImplicitDestructorNames = DestructorCallCollector.getLocalVariablesDestructorCalls(this);
 		}
@@ -89,6 +122,7 @@ public class CPPASTCompoundStatement extends CPPASTAttributeOwner implements ICP
 		}
 
         if (!acceptByAttributeSpecifiers(action)) return false;
+        parseLazyBody(true);
         for (IASTStatement statement : statements) {
         	if (statement == null)
         		break;
@@ -96,8 +130,10 @@ public class CPPASTCompoundStatement extends CPPASTAttributeOwner implements ICP
             	return false;
         }
 
-        if (action.shouldVisitImplicitDestructorNames && !acceptByNodes(getImplicitDestructorNames(), action))
+        if (action.shouldVisitImplicitDestructorNames && fLazyBody == null
+        		&& !acceptByNodes(getImplicitDestructorNames(), action)) {
         	return false;
+        }
 
         if (action.shouldVisitStatements) {
         	switch (action.leave(this)) {
@@ -124,6 +160,7 @@ public class CPPASTCompoundStatement extends CPPASTAttributeOwner implements ICP
 
     @Override
 	public ICPPExecution getExecution() {
+    	parseLazyBody(false);
     	return new ExecCompoundStatement(this.statements);
 	}
 }
@@ -64,6 +64,12 @@ public class CPPASTInitializerList extends ASTNode implements ICPPASTInitializer
 		return initializers;
 	}
 
+	@Override
+	protected void trimToSize() {
+		if (initializers != null)
+			initializers = ArrayUtil.trimAt(ICPPASTInitializerClause.class, initializers, initializersPos);
+	}
+
 	@Override
 	@Deprecated
 	public IASTInitializer[] getInitializers() {
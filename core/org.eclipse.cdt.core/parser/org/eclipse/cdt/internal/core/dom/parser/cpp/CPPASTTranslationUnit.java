@@ -53,6 +53,9 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 
 	// Caches.
 	private final Map<ICPPClassType, FinalOverriderMap> fFinalOverriderMapCache = new HashMap<>();
+	private final CPPScopeLookupCache fScopeLookupCache = new CPPScopeLookupCache();
+	private final CPPConstexprCache fConstexprCache = new CPPConstexprCache();
+	private final CPPOverloadResolutionCache fOverloadResolutionCache = new CPPOverloadResolutionCache();
 
 	public CPPASTTranslationUnit() {
 		fScopeMapper= new CPPScopeMapper(this);
@@ -175,6 +178,8 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 	public void skippedFile(int offset, InternalFileContent fileContent) {
 		super.skippedFile(offset, fileContent);
 		fScopeMapper.registerAdditionalDirectives(offset, fileContent.getUsingDirectives());
+		// The files included from the index affect the results of lookups in the index.
+		fScopeLookupCache.clear();
 	}
 
 	@Override
@@ -206,9 +211,19 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 
 	@Override
 	public void resolveAmbiguities() {
+		resolveAmbiguities(this);
+	}
+
+	@Override
+	public void resolveAmbiguities(IASTNode node) {
+		// A function body may be parsed while the ambiguities of the translation unit are resolved.
+		CPPASTAmbiguityResolver outerResolver = fAmbiguityResolver;
 		fAmbiguityResolver = new CPPASTAmbiguityResolver();
-		accept(fAmbiguityResolver);
-		fAmbiguityResolver = null;
+		try {
+			node.accept(fAmbiguityResolver);
+		} finally {
+			fAmbiguityResolver = outerResolver;
+		}
 	}
 
 	@Override
@@ -223,6 +238,18 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 		}
 	}
 
+	public CPPScopeLookupCache getScopeLookupCache() {
+		return fScopeLookupCache;
+	}
+
+	public CPPConstexprCache getConstexprCache() {
+		return fConstexprCache;
+	}
+
+	public CPPOverloadResolutionCache getOverloadResolutionCache() {
+		return fOverloadResolutionCache;
+	}
+
 	public Map<ICPPClassType, FinalOverriderMap> getFinalOverriderMapCache() {
 		return fFinalOverriderMapCache;
 	}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser.cpp;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunction;
+
+/**
+ * Caches the results of calls to constexpr functions within a translation unit. A constexpr
+ * function cannot have side effects, so a call that passes its arguments by value always
+ * yields the same result. The cache is keyed by the function and the signature of the
+ * arguments, the latter is computed by the caller.
+ * <p>
+ * In addition the number of evaluation steps is recorded per function, which allows to find
+ * the functions that are expensive to evaluate.
+ * <p>
+ * The cache also holds the executions computed for the bodies of constexpr functions. Computing
+ * them involves reading them from the index or instantiating them, which is done once per
+ * translation unit rather than once per call.
+ */
+public final class CPPConstexprCache {
+	private static final class Entry {
+		final ICPPEvaluation fResult;
+		final int fSteps;
+
+		Entry(ICPPEvaluation result, int steps) {
+			fResult= result;
+			fSteps= steps;
+		}
+	}
+
+	private final Map<ICPPFunction, Map<String, Entry>> fCache= new HashMap<>();
+	private final Map<ICPPFunction, ICPPExecution> fBodyExecutions= new HashMap<>();
+	private int fHits;
+	private int fMisses;
+	private long fStepsPerformed;
+	private long fStepsSaved;
+	private ICPPFunction fMostExpensiveFunction;
+	private int fMaxSteps;
+
+	/**
+	 * Returns the cached result for a call of the function with the given arguments,
+	 * or <code>null</code>.
+	 */
+	public ICPPEvaluation get(ICPPFunction function, String argumentSignature) {
+		Map<String, Entry> map= fCache.get(function);
+		Entry entry= map == null ? null : map.get(argumentSignature);
+		if (entry == null) {
+			fMisses++;
+			return null;
+		}
+		fHits++;
+		fStepsSaved += entry.fSteps;
+		return entry.fResult;
+	}
+
+	/**
+	 * Stores the result of a call and the number of evaluation steps it took.
+	 */
+	public void put(ICPPFunction function, String argumentSignature, ICPPEvaluation result, int steps) {
+		Map<String, Entry> map= fCache.get(function);
+		if (map == null) {
+			map= new HashMap<>();
+			fCache.put(function, map);
+		}
+		map.put(argumentSignature, new Entry(result, steps));
+		fStepsPerformed += steps;
+		if (steps > fMaxSteps) {
+			fMaxSteps= steps;
+			fMostExpensiveFunction= function;
+		}
+	}
+
+	/**
+	 * Returns the cached execution for the body of the function, or <code>null</code>.
+	 */
+	public ICPPExecution getBodyExecution(ICPPFunction function) {
+		return fBodyExecutions.get(function);
+	}
+
+	public void putBodyExecution(ICPPFunction function, ICPPExecution execution) {
+		fBodyExecutions.put(function, execution);
+	}
+
+	/**
+	 * Returns the number of functions whose body executions are cached.
+	 */
+	public int getBodyExecutionCount() {
+		return fBodyExecutions.size();
+	}
+
+	/**
+	 * Returns the number of calls of the function with distinct arguments whose results are cached.
+	 */
+	public int getCachedCallCount(ICPPFunction function) {
+		Map<String, Entry> map= fCache.get(function);
+		return map == null ? 0 : map.size();
+	}
+
+	public int getHitCount() {
+		return fHits;
+	}
+
+	public int getMissCount() {
+		return fMisses;
+	}
+
+	/**
+	 * Returns the number of evaluation steps that were avoided by using cached results.
+	 */
+	public long getStepsSaved() {
+		return fStepsSaved;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buf= new StringBuilder();
+		buf.append("Constexpr cache: ").append(fHits).append(" hits, ").append(fMisses).append(" misses, "); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		buf.append(fStepsPerformed).append(" steps performed, ").append(fStepsSaved).append(" steps saved"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (fMostExpensiveFunction != null) {
+			buf.append(", most expensive call: ").append(fMostExpensiveFunction.getName()); //$NON-NLS-1$
+			buf.append(" (").append(fMaxSteps).append(" steps)"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return buf.toString();
+	}
+}
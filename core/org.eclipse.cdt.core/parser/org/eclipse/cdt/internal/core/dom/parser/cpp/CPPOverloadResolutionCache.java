@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser.cpp;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.cdt.core.dom.ast.IFunction;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunction;
+
+/**
+ * Caches the outcome of overload resolution within a translation unit. The key consists of the
+ * set of candidate functions and a signature of the arguments that is computed by the caller,
+ * see {@link org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPSemantics}. The outcome
+ * is either the selected function or the functions that make the call ambiguous.
+ * <p>
+ * The set of candidates depends on the point of declaration of the call, it is part of the key.
+ * The caller computes a signature only for arguments whose conversions cannot change within the
+ * translation unit, therefore the entries never need to be invalidated.
+ */
+public final class CPPOverloadResolutionCache {
+	private final Map<List<ICPPFunction>, Map<String, Object>> fCache= new HashMap<>();
+	private int fHits;
+	private int fMisses;
+
+	/**
+	 * Returns the selected function, an array of ambiguous functions, or <code>null</code>.
+	 */
+	public Object get(ICPPFunction[] candidates, String argumentSignature) {
+		Map<String, Object> map= fCache.get(Arrays.asList(candidates));
+		Object result= map == null ? null : map.get(argumentSignature);
+		if (result == null) {
+			fMisses++;
+		} else {
+			fHits++;
+		}
+		return result;
+	}
+
+	public void putSelectedFunction(ICPPFunction[] candidates, String argumentSignature, IFunction function) {
+		put(candidates, argumentSignature, function);
+	}
+
+	public void putAmbiguousFunctions(ICPPFunction[] candidates, String argumentSignature, IFunction[] functions) {
+		put(candidates, argumentSignature, functions);
+	}
+
+	private void put(ICPPFunction[] candidates, String argumentSignature, Object result) {
+		Map<String, Object> map= fCache.get(Arrays.asList(candidates));
+		if (map == null) {
+			map= new HashMap<>();
+			// Copy the candidates, the caller may reuse the array.
+			fCache.put(Arrays.asList(candidates.clone()), map);
+		}
+		map.put(argumentSignature, result);
+	}
+
+	public int getHitCount() {
+		return fHits;
+	}
+
+	public int getMissCount() {
+		return fMisses;
+	}
+
+	@Override
+	public String toString() {
+		return "Overload resolution cache: " + fHits + " hits, " + fMisses + " misses"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
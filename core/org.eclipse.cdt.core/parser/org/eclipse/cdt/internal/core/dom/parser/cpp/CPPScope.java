@@ -190,41 +190,59 @@ abstract public class CPPScope implements ICPPASTInternalScope {
 		final IASTTranslationUnit tu = lookup.getTranslationUnit();
 		if (tu != null) {
 			IIndex index = tu.getIndex();
-			if (index != null) {
-				IIndexFileSet fileSet= lookup.getIncludedFiles();
-				if (physicalNode instanceof IASTTranslationUnit) {
-					try {
-						IndexFilter filter = IndexFilter.CPP_DECLARED_OR_IMPLICIT_NO_INSTANCE;
-						final char[] nchars = lookup.getLookupKey();
-						IBinding[] bindings = lookup.isPrefixLookup() ?
-								index.findBindingsForContentAssist(nchars, true, filter, null) :
-								index.findBindings(nchars, filter, null);
-						if (fileSet != null) {
-							bindings= fileSet.filterFileLocalBindings(bindings);
-						}
-						result = ArrayUtil.addAll(IBinding.class, result, bindings);
-					} catch (CoreException e) {
-						CCorePlugin.log(e);
-					}
-				} else if (physicalNode instanceof ICPPASTNamespaceDefinition) {
-					ICPPASTNamespaceDefinition ns = (ICPPASTNamespaceDefinition) physicalNode;
-					try {
-						IIndexBinding binding = index.findBinding(ns.getName());
-						if (binding instanceof ICPPNamespace) {
-							ICPPNamespaceScope indexNs = ((ICPPNamespace) binding).getNamespaceScope();
-							IBinding[] bindings = indexNs.getBindings(lookup);
-							result = ArrayUtil.addAll(IBinding.class, result, bindings);
-						}
-					} catch (CoreException e) {
-						CCorePlugin.log(e);
+			if (index != null && (physicalNode instanceof IASTTranslationUnit
+					|| physicalNode instanceof ICPPASTNamespaceDefinition)) {
+				CPPScopeLookupCache cache = null;
+				IBinding[] bindings = null;
+				if (!lookup.isPrefixLookup() && tu instanceof CPPASTTranslationUnit) {
+					cache = ((CPPASTTranslationUnit) tu).getScopeLookupCache();
+					bindings = cache.get(index, this, lookup.getLookupKey());
+				}
+				if (bindings == null) {
+					bindings = getBindingsInIndex(index, lookup);
+					if (cache != null) {
+						cache.put(this, lookup.getLookupKey(), bindings);
 					}
 				}
+				result = ArrayUtil.addAll(IBinding.class, result, bindings);
 			}
 		}
 
 		return ArrayUtil.trim(IBinding.class, result);
 	}
 
+	private IBinding[] getBindingsInIndex(IIndex index, ScopeLookupData lookup) {
+		IBinding[] result = IBinding.EMPTY_BINDING_ARRAY;
+		if (physicalNode instanceof IASTTranslationUnit) {
+			try {
+				IndexFilter filter = IndexFilter.CPP_DECLARED_OR_IMPLICIT_NO_INSTANCE;
+				final char[] nchars = lookup.getLookupKey();
+				IBinding[] bindings = lookup.isPrefixLookup() ?
+						index.findBindingsForContentAssist(nchars, true, filter, null) :
+						index.findBindings(nchars, filter, null);
+				IIndexFileSet fileSet= lookup.getIncludedFiles();
+				if (fileSet != null) {
+					bindings= fileSet.filterFileLocalBindings(bindings);
+				}
+				result = bindings;
+			} catch (CoreException e) {
+				CCorePlugin.log(e);
+			}
+		} else if (physicalNode instanceof ICPPASTNamespaceDefinition) {
+			ICPPASTNamespaceDefinition ns = (ICPPASTNamespaceDefinition) physicalNode;
+			try {
+				IIndexBinding binding = index.findBinding(ns.getName());
+				if (binding instanceof ICPPNamespace) {
+					ICPPNamespaceScope indexNs = ((ICPPNamespace) binding).getNamespaceScope();
+					result = indexNs.getBindings(lookup);
+				}
+			} catch (CoreException e) {
+				CCorePlugin.log(e);
+			}
+		}
+		return result;
+	}
+
 	public IBinding[] getBindingsInAST(ScopeLookupData lookup) {
 		populateCache();
 	    final char[] c = lookup.getLookupKey();
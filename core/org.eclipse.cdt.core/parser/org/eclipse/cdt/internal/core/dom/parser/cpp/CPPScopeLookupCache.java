@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser.cpp;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.core.dom.ast.IBinding;
+import org.eclipse.cdt.core.dom.ast.IScope;
+import org.eclipse.cdt.core.index.IIndex;
+import org.eclipse.cdt.core.parser.util.CharArrayObjectMap;
+
+/**
+ * Caches the bindings contributed by the index when a name is looked up in the global scope
+ * or in a namespace scope of the AST. These bindings depend on the scope and the name, only,
+ * so one index query serves all occurrences of a name within the translation unit.
+ * <p>
+ * The cache is cleared when the index is modified or when files are added to the set of files
+ * that the translation unit includes from the index.
+ */
+public final class CPPScopeLookupCache {
+	private final Map<IScope, CharArrayObjectMap<IBinding[]>> fCache= new HashMap<>();
+	private long fLastWriteAccess;
+	private int fHits;
+	private int fMisses;
+
+	/**
+	 * Returns the cached bindings for the name in the given scope, or <code>null</code>.
+	 */
+	public IBinding[] get(IIndex index, IScope scope, char[] name) {
+		final long lastWriteAccess= index.getLastWriteAccess();
+		if (lastWriteAccess != fLastWriteAccess) {
+			fCache.clear();
+			fLastWriteAccess= lastWriteAccess;
+		}
+		CharArrayObjectMap<IBinding[]> map= fCache.get(scope);
+		IBinding[] result= map == null ? null : map.get(name);
+		if (result == null) {
+			fMisses++;
+		} else {
+			fHits++;
+		}
+		return result;
+	}
+
+	public void put(IScope scope, char[] name, IBinding[] bindings) {
+		CharArrayObjectMap<IBinding[]> map= fCache.get(scope);
+		if (map == null) {
+			map= new CharArrayObjectMap<>(8);
+			fCache.put(scope, map);
+		}
+		map.put(name, bindings);
+	}
+
+	public void clear() {
+		fCache.clear();
+	}
+
+	public int getHitCount() {
+		return fHits;
+	}
+
+	public int getMissCount() {
+		return fMisses;
+	}
+
+	@Override
+	public String toString() {
+		return "Scope lookup cache: " + fHits + " hits, " + fMisses + " misses"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
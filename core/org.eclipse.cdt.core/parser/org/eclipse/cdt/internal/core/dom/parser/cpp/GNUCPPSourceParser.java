@@ -5094,6 +5094,17 @@ public class GNUCPPSourceParser extends AbstractGNUSourceCodeParser {
 		return tryStatement;
 	}
 
+	@Override
+	protected void resolveAmbiguities() {
+		super.resolveAmbiguities();
+		if (log.isTracing() && translationUnit instanceof CPPASTTranslationUnit) {
+			CPPASTTranslationUnit tu= (CPPASTTranslationUnit) translationUnit;
+			log.traceLog(tu.getScopeLookupCache().toString());
+			log.traceLog(tu.getConstexprCache().toString());
+			log.traceLog(tu.getOverloadResolutionCache().toString());
+		}
+	}
+
 	@Override
 	protected void nullifyTranslationUnit() {
 		translationUnit = null;
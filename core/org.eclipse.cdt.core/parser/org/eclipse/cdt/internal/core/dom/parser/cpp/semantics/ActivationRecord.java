@@ -14,6 +14,7 @@ import java.util.Map.Entry;
 
 import org.eclipse.cdt.core.dom.ast.IBinding;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPParameter;
+import org.eclipse.cdt.core.parser.util.CharArrayUtils;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPEvaluation;
 
 /**
@@ -57,8 +58,14 @@ public class ActivationRecord {
 	private int getParameterPosition(IBinding binding) {
 		if (binding instanceof ICPPParameter) {
 			for (int i = 0; i < params.length; i++) {
-				ICPPParameter param = params[i];
-				if (param.getName().equals(binding.getName())) {
+				if (params[i] == binding) {
+					return i;
+				}
+			}
+			// Compare the names without creating strings, this is called for every access to a parameter.
+			char[] name = binding.getNameCharArray();
+			for (int i = 0; i < params.length; i++) {
+				if (CharArrayUtils.equals(params[i].getNameCharArray(), name)) {
 					return i;
 				}
 			}
@@ -46,6 +46,7 @@ import java.util.regex.Pattern;
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.dom.IName;
 import org.eclipse.cdt.core.dom.ast.ASTNodeProperty;
+import org.eclipse.cdt.core.dom.ast.ASTTypeUtil;
 import org.eclipse.cdt.core.dom.ast.ASTVisitor;
 import org.eclipse.cdt.core.dom.ast.DOMException;
 import org.eclipse.cdt.core.dom.ast.EScopeKind;
@@ -85,6 +86,7 @@ import org.eclipse.cdt.core.dom.ast.IASTTypeId;
 import org.eclipse.cdt.core.dom.ast.IASTTypeIdExpression;
 import org.eclipse.cdt.core.dom.ast.IASTTypeIdInitializerExpression;
 import org.eclipse.cdt.core.dom.ast.IASTUnaryExpression;
+import org.eclipse.cdt.core.dom.ast.IArrayType;
 import org.eclipse.cdt.core.dom.ast.IBasicType;
 import org.eclipse.cdt.core.dom.ast.IBasicType.Kind;
 import org.eclipse.cdt.core.dom.ast.IBinding;
@@ -145,6 +147,7 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTUsingDirective;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTWhileStatement;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPAliasTemplate;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPBase;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPBasicType;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPBlockScope;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPClassScope;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPClassSpecialization;
@@ -152,6 +155,7 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPClassTemplate;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPClassTemplatePartialSpecialization;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPClassType;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPConstructor;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPEnumeration;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPField;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunction;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunctionInstance;
@@ -264,6 +268,9 @@ public class CPPSemantics {
 	public static boolean traceBindingResolution = false;
 	public static int traceIndent= 0;
 
+	// Set to false for measuring the benefit of the overload resolution cache.
+	public static boolean cacheOverloadResolution = true;
+
 	// special return value for costForFunctionCall
 	private static final FunctionCost CONTAINS_DEPENDENT_TYPES = new FunctionCost(null, 0, null);
 
@@ -2589,6 +2596,19 @@ public class CPPSemantics {
 
 		// Reduce our set of candidate functions to only those who have the right number of parameters.
 		final IType[] argTypes = data.getFunctionArgumentTypes();
+		final CPPASTTranslationUnit tu = data.getTranslationUnit();
+		final ICPPFunction[] candidates= fns;
+		final String cacheKey= tu == null ? null : getOverloadResolutionKey(data, fns, allowUDC, resolveTargetedArgumentTypes);
+		if (cacheKey != null) {
+			Object cached= tu.getOverloadResolutionCache().get(candidates, cacheKey);
+			if (cached instanceof IFunction)
+				return (IFunction) cached;
+			if (cached instanceof IFunction[]) {
+				return new ProblemBinding(lookupName, lookupPoint,
+						IProblemBinding.SEMANTIC_AMBIGUOUS_LOOKUP, (IFunction[]) cached);
+			}
+		}
+
 		ICPPFunction[] tmp= selectByArgumentCount(data, fns);
 		if (tmp.length == 0 || tmp[0] == null)
 			return new ProblemBinding(lookupName, lookupPoint, IProblemBinding.SEMANTIC_NAME_NOT_FOUND, fns);
@@ -2627,7 +2647,6 @@ public class CPPSemantics {
 		// Loop over all functions
 		List<FunctionCost> potentialCosts= null;
 		ICPPFunction unknownFunction= null;
-		final CPPASTTranslationUnit tu = data.getTranslationUnit();
 		for (ICPPFunction fn : fns) {
 			if (fn == null)
 				continue;
@@ -2684,6 +2703,10 @@ public class CPPSemantics {
 
 		if (ambiguousFunctions != null) {
 			ambiguousFunctions= ArrayUtil.append(IFunction.class, ambiguousFunctions, bestFnCost.getFunction());
+			if (cacheKey != null) {
+				tu.getOverloadResolutionCache().putAmbiguousFunctions(candidates, cacheKey,
+						ArrayUtil.trim(ambiguousFunctions));
+			}
 			return new ProblemBinding(lookupName, lookupPoint,
 					IProblemBinding.SEMANTIC_AMBIGUOUS_LOOKUP, ambiguousFunctions);
 		}
@@ -2703,11 +2726,119 @@ public class CPPSemantics {
 			Cost c0= bestFnCost.getCost(0);
 			IFunction firstConversion= c0.getUserDefinedConversion();
 			if (firstConversion instanceof ICPPConstructor)
-				return firstConversion;
+				result= firstConversion;
+		}
+		if (cacheKey != null) {
+			tu.getOverloadResolutionCache().putSelectedFunction(candidates, cacheKey, result);
 		}
 		return result;
 	}
 
+	/**
+	 * Computes the key for caching the result of overload resolution, or returns {@code null} if
+	 * there is only one candidate, or if the result may depend on more than the candidates and
+	 * the types of the arguments. This is the case for templates, which may be instantiated
+	 * differently depending on the point of instantiation, for types that may be completed later
+	 * in the translation unit and for local types, which cannot be distinguished by their names.
+	 */
+	private static String getOverloadResolutionKey(LookupData data, ICPPFunction[] fns, boolean allowUDC,
+			boolean resolveTargetedArgumentTypes) {
+		// Resolving a single candidate is cheaper than computing the key.
+		if (!cacheOverloadResolution || fns.length < 2)
+			return null;
+		// Narrowing conversions depend on the values of the arguments.
+		if (data.getTemplateArguments() != null || data.fNoNarrowing)
+			return null;
+		for (ICPPFunction fn : fns) {
+			if (fn instanceof ICPPFunctionTemplate || fn instanceof ICPPUnknownBinding
+					|| fn instanceof CPPDeferredFunction) {
+				return null;
+			}
+		}
+
+		StringBuilder buf= new StringBuilder();
+		buf.append(allowUDC ? 'u' : '-');
+		buf.append(resolveTargetedArgumentTypes ? 't' : '-');
+		buf.append(data.argsContainImpliedObject ? 'i' : '-');
+		final IType impliedObjectType= data.getImpliedObjectType();
+		if (impliedObjectType != null) {
+			if (!appendArgumentSignature(impliedObjectType, data.getImpliedObjectValueCategory(), buf))
+				return null;
+		}
+		buf.append('(');
+		final IType[] argTypes= data.getFunctionArgumentTypes();
+		final ValueCategory[] valueCategories= data.getFunctionArgumentValueCategories();
+		for (int i = 0; i < argTypes.length; i++) {
+			if (!appendArgumentSignature(argTypes[i], valueCategories[i], buf))
+				return null;
+		}
+		buf.append(')');
+		return buf.toString();
+	}
+
+	private static boolean appendArgumentSignature(IType type, ValueCategory valueCategory, StringBuilder buf) {
+		if (type == null || type instanceof FunctionSetType || type instanceof InitializerListType
+				|| CPPTemplates.isDependentType(type)) {
+			return false;
+		}
+		IType nested= type;
+		while (true) {
+			nested= getNestedType(nested, TDEF | REF | ALLCVQ);
+			if (nested instanceof ICPPPointerToMemberType)
+				return false;
+			if (nested instanceof IPointerType) {
+				nested= ((IPointerType) nested).getType();
+			} else if (nested instanceof IArrayType) {
+				nested= ((IArrayType) nested).getType();
+			} else {
+				break;
+			}
+		}
+		if (!isCacheableArgumentType(nested))
+			return false;
+
+		ASTTypeUtil.appendType(type, true, buf);
+		if (nested instanceof CPPBasicType) {
+			// Null pointer constants and string literals convert differently.
+			CPPBasicType basicType= (CPPBasicType) nested;
+			if (basicType.getAssociatedNumericalValue() != null)
+				buf.append('#').append(basicType.getAssociatedNumericalValue());
+			if (basicType.isFromStringLiteral())
+				buf.append('"');
+		}
+		buf.append(':').append(valueCategory == null ? '-' : valueCategory.ordinal()).append(',');
+		return true;
+	}
+
+	private static boolean isCacheableArgumentType(IType type) {
+		if (type instanceof ICPPBasicType)
+			return true;
+		if (!(type instanceof ICPPClassType) && !(type instanceof ICPPEnumeration))
+			return false;
+
+		IBinding binding= (IBinding) type;
+		if (binding.getNameCharArray().length == 0)
+			return false;
+		if (type instanceof ICPPTemplateInstance) {
+			for (ICPPTemplateArgument arg : ((ICPPTemplateInstance) type).getTemplateArguments()) {
+				if (arg.isTypeValue() && !appendArgumentSignature(arg.getTypeValue(), null, new StringBuilder()))
+					return false;
+			}
+		}
+		IBinding definition= binding instanceof ICPPSpecialization ?
+				((ICPPSpecialization) binding).getSpecializedBinding() : binding;
+		if (!(definition instanceof IIndexBinding) && definition instanceof ICPPInternalBinding
+				&& ((ICPPInternalBinding) definition).getDefinition() == null) {
+			// The type may still be completed.
+			return false;
+		}
+		for (IBinding owner= binding.getOwner(); owner != null; owner= owner.getOwner()) {
+			if (!(owner instanceof ICPPNamespace) && !(owner instanceof ICPPClassType))
+				return false;
+		}
+		return true;
+	}
+
 	/**
 	 * If {@code type} is a {@link FunctionSetType} or a pointer type containing a FunctionSetType,
 	 * resolves the FunctionSetType using the given target type.
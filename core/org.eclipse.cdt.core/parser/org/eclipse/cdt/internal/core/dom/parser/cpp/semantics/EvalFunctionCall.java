@@ -20,6 +20,7 @@ import static org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.SemanticUti
 
 import java.util.Arrays;
 
+import org.eclipse.cdt.core.dom.ast.ASTTypeUtil;
 import org.eclipse.cdt.core.dom.ast.IASTExpression.ValueCategory;
 import org.eclipse.cdt.core.dom.ast.IASTNode;
 import org.eclipse.cdt.core.dom.ast.IBinding;
@@ -38,7 +39,11 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateInstance;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateParameterMap;
 import org.eclipse.cdt.internal.core.dom.parser.CompositeValue;
 import org.eclipse.cdt.internal.core.dom.parser.DependentValue;
+import org.eclipse.cdt.internal.core.dom.parser.FloatingPointValue;
 import org.eclipse.cdt.internal.core.dom.parser.ITypeMarshalBuffer;
+import org.eclipse.cdt.internal.core.dom.parser.IntegralValue;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPConstexprCache;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPFunction;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPEvaluation;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPExecution;
@@ -300,9 +305,104 @@ public final class EvalFunctionCall extends CPPDependentEvaluation {
 		if (!function.isConstexpr())
 			return EvalFixed.INCOMPLETE;
 
+		final IASTNode point = context.getPoint();
+		CPPConstexprCache cache = getConstexprCache(point);
+		String key = null;
+		if (cache != null) {
+			key = getArgumentSignature(function, point);
+			if (key == null) {
+				cache = null;
+			} else {
+				ICPPEvaluation result = cache.get(function, key);
+				if (result != null)
+					return result;
+			}
+		}
+
+		final int stepsBefore = context.getStepsPerformed();
+		ICPPEvaluation result = evaluateFunctionBody(function, context);
+		if (cache != null && result != EvalFixed.INCOMPLETE && result != this
+				&& !(result instanceof EvalReference)) {
+			// Only immutable values are cached, composite values may be modified by the caller.
+			IValue value = result.getValue(point);
+			if (isNumericValue(value)) {
+				cache.put(function, key, new EvalFixed(result.getType(point), result.getValueCategory(point), value),
+						context.getStepsPerformed() - stepsBefore);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes a signature for the arguments of a call to a constexpr function, or returns
+	 * {@code null} if the result of the call may depend on more than the values of the arguments.
+	 */
+	private String getArgumentSignature(ICPPFunction function, IASTNode point) {
+		if (getImplicitThis() != null)
+			return null;
+		if (function instanceof ICPPMethod && !((ICPPMethod) function).isStatic())
+			return null;
+		// The value of a pointer is only an offset into the object it points to.
+		if (isReferenceOrPointer(function.getType().getReturnType()))
+			return null;
+		for (ICPPParameter param : function.getParameters()) {
+			if (isReference(param) || isReferenceOrPointer(param.getType()))
+				return null;
+		}
+
+		StringBuilder buf = new StringBuilder();
+		for (int i = 1; i < fArguments.length; i++) {
+			if (fArguments[i] instanceof EvalReference)
+				return null;
+			IValue value = fArguments[i].getValue(point);
+			if (!isNumericValue(value))
+				return null;
+			ASTTypeUtil.appendType(fArguments[i].getType(point), true, buf);
+			buf.append('=').append(value.getSignature()).append(',');
+		}
+		return buf.toString();
+	}
+
+	private static CPPConstexprCache getConstexprCache(IASTNode point) {
+		if (point != null && point.getTranslationUnit() instanceof CPPASTTranslationUnit) {
+			return ((CPPASTTranslationUnit) point.getTranslationUnit()).getConstexprCache();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the execution for the body of the function. The execution is computed once per
+	 * translation unit, because this involves reading it from the index or instantiating it.
+	 */
+	private static ICPPExecution getFunctionBodyExecution(ICPPFunction function, IASTNode point) {
+		CPPConstexprCache cache = getConstexprCache(point);
+		if (cache == null)
+			return CPPFunction.getFunctionBodyExecution(function, point);
+
+		ICPPExecution exec = cache.getBodyExecution(function);
+		if (exec == null) {
+			exec = CPPFunction.getFunctionBodyExecution(function, point);
+			if (exec != null) {
+				cache.putBodyExecution(function, exec);
+			}
+		}
+		return exec;
+	}
+
+	private static boolean isReferenceOrPointer(IType type) {
+		type = SemanticUtil.getNestedType(type, TDEF | CVTYPE);
+		return type instanceof ICPPReferenceType || type instanceof IPointerType;
+	}
+
+	private static boolean isNumericValue(IValue value) {
+		return value instanceof FloatingPointValue
+				|| value instanceof IntegralValue && value.numberValue() != null;
+	}
+
+	private ICPPEvaluation evaluateFunctionBody(ICPPFunction function, ConstexprEvaluationContext context) {
 		ActivationRecord record = createActivationRecord(function.getParameters(), fArguments, 
 				getImplicitThis(), context.getPoint());
-		ICPPExecution bodyExec = CPPFunction.getFunctionBodyExecution(function, context.getPoint());
+		ICPPExecution bodyExec = getFunctionBodyExecution(function, context.getPoint());
 		if (bodyExec == null) {
 			if (!(function instanceof ICPPTemplateInstance)
 					|| ((ICPPTemplateInstance) function).isExplicitSpecialization()) {
@@ -312,7 +412,7 @@ public final class EvalFunctionCall extends CPPDependentEvaluation {
 			IBinding specialized = functionInstance.getSpecializedBinding();
 			if (!(specialized instanceof ICPPFunction))
 				return this;
-			bodyExec = CPPFunction.getFunctionBodyExecution((ICPPFunction) specialized, context.getPoint());
+			bodyExec = getFunctionBodyExecution((ICPPFunction) specialized, context.getPoint());
 		}
 		if (bodyExec != null) {
 			bodyExec = bodyExec.executeForFunctionCall(record, context.recordStep());
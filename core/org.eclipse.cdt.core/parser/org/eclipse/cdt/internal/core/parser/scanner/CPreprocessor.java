@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2015 IBM Corporation and others.
+ * Copyright (c) 2004, 2017 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -247,6 +247,7 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
     final private char[] fAdditionalNumericLiteralSuffixes;
     final private CharArrayIntMap fKeywords;
     final private CharArrayIntMap fPPKeywords;
+    private String fIncludeGuardConfiguration;
     private final IncludeSearchPath fIncludeSearchPath;
     private String[][] fPreIncludedFiles= null;
 
@@ -334,7 +335,11 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
     
 	private char[] detectIncludeGuard(String filePath, AbstractCharArray source, ScannerContext ctx) {
 		if (!fFileContentProvider.shouldIndexAllHeaderVersions(filePath)) {
-			final char[] guard = IncludeGuardDetection.detectIncludeGuard(source, fLexOptions, fPPKeywords);
+			if (fIncludeGuardConfiguration == null) {
+				fIncludeGuardConfiguration= IncludeGuardCache.getConfigurationKey(fLexOptions, fPPKeywords);
+			}
+			final char[] guard = IncludeGuardCache.getInstance().detectIncludeGuard(filePath, source,
+					fLexOptions, fPPKeywords, fIncludeGuardConfiguration);
 			if (guard != null) {
 				IFileNomination nom= fLocationMap.reportPragmaOnceSemantics(ctx.getLocationCtx());
 				fFileContentProvider.reportPragmaOnceSemantics(filePath, nom);
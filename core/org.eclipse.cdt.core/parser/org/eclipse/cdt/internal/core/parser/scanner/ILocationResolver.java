@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2012 IBM Corporation and others.
+ * Copyright (c) 2004, 2017 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -79,6 +79,12 @@ public interface ILocationResolver {
      */
     String getTranslationUnitPath();
     
+    /**
+     * Returns the hash of the contents of the translation unit, as they were read by the
+     * preprocessor.
+     */
+    long getTranslationUnitContentsHash();
+
     /**
      * @see IASTTranslationUnit#getContainingFilename()
      */
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.parser.scanner;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.core.parser.util.CharArrayIntMap;
+
+/**
+ * Remembers the results of {@link IncludeGuardDetection} for files across translation units,
+ * such that a header that is included by many translation units is scanned for its include
+ * guard only once. The table is shared by all parsers, i.e. the editor and the indexer.
+ * <p>
+ * Entries are validated against the length and the hash of the file content, so modified
+ * files and working copies with unsaved changes are scanned again. Since the lexer options and
+ * the preprocessor keywords determine how a file is tokenized, they are part of the key, see
+ * {@link #getConfigurationKey(Lexer.LexerOptions, CharArrayIntMap)}.
+ */
+public final class IncludeGuardCache {
+	private static final int MAX_ENTRIES= 20000;
+	private static final char[] NO_GUARD= {};
+	private static final IncludeGuardCache INSTANCE= new IncludeGuardCache();
+
+	private static final class Key {
+		final String fFilePath;
+		final String fConfiguration;
+
+		Key(String filePath, String configuration) {
+			fFilePath= filePath;
+			fConfiguration= configuration;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * fFilePath.hashCode() + fConfiguration.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other= (Key) obj;
+			return fFilePath.equals(other.fFilePath) && fConfiguration.equals(other.fConfiguration);
+		}
+	}
+
+	private static final class Entry {
+		final int fLength;
+		final long fContentsHash;
+		final char[] fGuard;
+
+		Entry(int length, long contentsHash, char[] guard) {
+			fLength= length;
+			fContentsHash= contentsHash;
+			fGuard= guard;
+		}
+	}
+
+	private final Map<Key, Entry> fEntries= new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+	// Shares the configuration strings between the keys, there are only a few distinct ones.
+	private final Map<String, String> fConfigurations= new HashMap<>();
+	private int fHits;
+	private int fMisses;
+
+	public static IncludeGuardCache getInstance() {
+		return INSTANCE;
+	}
+
+	private IncludeGuardCache() {
+	}
+
+	/**
+	 * Computes the part of the key that describes how files are tokenized for the detection of
+	 * include guards. Options that do not affect the tokens, e.g. the creation of image locations,
+	 * are not included.
+	 */
+	public static String getConfigurationKey(Lexer.LexerOptions lexOptions, CharArrayIntMap ppKeywords) {
+		StringBuilder buf= new StringBuilder();
+		buf.append(lexOptions.fSupportDollarInIdentifiers ? '1' : '0');
+		buf.append(lexOptions.fSupportAtSignInIdentifiers ? '1' : '0');
+		buf.append(lexOptions.fSupportMinAndMax ? '1' : '0');
+		buf.append(lexOptions.fSupportSlashPercentComments ? '1' : '0');
+		buf.append(lexOptions.fSupportUTFLiterals ? '1' : '0');
+		buf.append(lexOptions.fSupportRawStringLiterals ? '1' : '0');
+		buf.append(lexOptions.fSupportUserDefinedLiterals ? '1' : '0');
+		String[] keywords= new String[ppKeywords.size()];
+		int i= 0;
+		for (char[] keyword : ppKeywords.keys()) {
+			keywords[i++]= String.valueOf(keyword) + '=' + ppKeywords.get(keyword);
+		}
+		Arrays.sort(keywords);
+		for (String keyword : keywords) {
+			buf.append(' ').append(keyword);
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * Returns the include guard of the given file, or <code>null</code> if the file does not
+	 * have one. The detection is performed only if there is no valid entry for the file and
+	 * the configuration.
+	 *
+	 * @param configurationKey the result of {@link #getConfigurationKey(Lexer.LexerOptions, CharArrayIntMap)}
+	 *     for the given options and keywords.
+	 */
+	public char[] detectIncludeGuard(String filePath, AbstractCharArray content,
+			Lexer.LexerOptions lexOptions, CharArrayIntMap ppKeywords, String configurationKey) {
+		final int length= content.getLength();
+		final long hash= content.getContentsHash();
+		final Key key;
+		synchronized (fEntries) {
+			String configuration= fConfigurations.get(configurationKey);
+			if (configuration == null) {
+				configuration= configurationKey;
+				fConfigurations.put(configuration, configuration);
+			}
+			key= new Key(filePath, configuration);
+			Entry entry= fEntries.get(key);
+			if (entry != null && entry.fLength == length && entry.fContentsHash == hash) {
+				fHits++;
+				return entry.fGuard == NO_GUARD ? null : entry.fGuard;
+			}
+			fMisses++;
+		}
+		char[] guard= IncludeGuardDetection.detectIncludeGuard(content, lexOptions, ppKeywords);
+		synchronized (fEntries) {
+			fEntries.put(key, new Entry(length, hash, guard == null ? NO_GUARD : guard));
+		}
+		return guard;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void clear() {
+		synchronized (fEntries) {
+			fEntries.clear();
+			fConfigurations.clear();
+			fHits= fMisses= 0;
+		}
+	}
+
+	public int getHitCount() {
+		synchronized (fEntries) {
+			return fHits;
+		}
+	}
+
+	public int getMissCount() {
+		synchronized (fEntries) {
+			return fMisses;
+		}
+	}
+}
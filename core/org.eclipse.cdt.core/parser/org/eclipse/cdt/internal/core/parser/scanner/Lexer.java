@@ -90,6 +90,13 @@ final public class Lexer implements ITokenSequence {
 	private boolean fInsideIncludeDirective= false;
 	private Token fToken;
 	private Token fLastToken;
+
+	// While skipping to the end of a line or to the next directive the tokens are discarded right
+	// away. During that time two scratch tokens are used in turns instead of allocating new ones.
+	// Scratch tokens never become the current or the last token, those are copied.
+	private boolean fRecycleTokens;
+	private Token fScratchToken1;
+	private Token fScratchToken2;
 	
 	// For the few cases where we have to lookahead more than one character
 	private int fMarkPhase3Offset;
@@ -206,29 +213,34 @@ final public class Lexer implements ITokenSequence {
 	public final int consumeLine(int origin) throws OffsetLimitReachedException {
 		Token t= fToken;
 		Token lt= null;
-		while (true) {
-			switch (t.getType()) {
-			case IToken.tCOMPLETION:
-				if (lt != null) {
-					fLastToken= lt;
-				}
-				fToken= t;
-				throw new OffsetLimitReachedException(origin, t);
-			case IToken.tEND_OF_INPUT:
-				if (fSupportContentAssist) {
-					t.setType(IToken.tCOMPLETION);
+		fRecycleTokens= !fSupportContentAssist;
+		try {
+			while (true) {
+				switch (t.getType()) {
+				case IToken.tCOMPLETION:
+					if (lt != null) {
+						fLastToken= copyScratchToken(lt);
+					}
+					fToken= t;
 					throw new OffsetLimitReachedException(origin, t);
+				case IToken.tEND_OF_INPUT:
+					if (fSupportContentAssist) {
+						t.setType(IToken.tCOMPLETION);
+						throw new OffsetLimitReachedException(origin, t);
+					}
+					//$FALL-THROUGH$
+				case Lexer.tNEWLINE:
+					fToken= copyScratchToken(t);
+					if (lt != null) {
+						fLastToken= copyScratchToken(lt);
+					}
+					return getLastEndOffset();
 				}
-				//$FALL-THROUGH$
-			case Lexer.tNEWLINE:
-				fToken= t;
-				if (lt != null) {
-					fLastToken= lt;
-				}
-				return getLastEndOffset();
+				lt= t;
+				t= fetchToken();
 			}
-			lt= t;
-			t= fetchToken();
+		} finally {
+			fRecycleTokens= false;
 		}
 	}
 
@@ -240,20 +252,56 @@ final public class Lexer implements ITokenSequence {
 	public Token nextDirective() throws OffsetLimitReachedException {
 		Token t0;
 		Token t1= fToken;
-		for (;;) {
-			t0= t1;
-			t1= fetchToken();
-			final int tt1 = t1.getType();
-			if (tt1 == IToken.tEND_OF_INPUT || tt1 == IToken.tCOMPLETION)
-				break;
-			if (tt1 == IToken.tPOUND) {
-				final int tt0= t0.getType();
-				if (tt0 == tNEWLINE || tt0 == tBEFORE_INPUT)
+		fRecycleTokens= !fSupportContentAssist;
+		try {
+			for (;;) {
+				t0= t1;
+				t1= fetchToken();
+				final int tt1 = t1.getType();
+				if (tt1 == IToken.tEND_OF_INPUT || tt1 == IToken.tCOMPLETION)
 					break;
+				if (tt1 == IToken.tPOUND) {
+					final int tt0= t0.getType();
+					if (tt0 == tNEWLINE || tt0 == tBEFORE_INPUT)
+						break;
+				}
 			}
+		} finally {
+			fRecycleTokens= false;
 		}
-		fLastToken= t0;
-		return fToken=t1;
+		fLastToken= copyScratchToken(t0);
+		return fToken= copyScratchToken(t1);
+	}
+
+	/**
+	 * Returns a scratch token for the given kind and range, the token must not escape the
+	 * loop that is skipping tokens.
+	 */
+	private Token scratchToken(int kind, int offset, int endOffset) {
+		Token t= fScratchToken1;
+		if (t == null) {
+			t= fScratchToken1= new Token(kind, fSource, offset, endOffset);
+			fScratchToken2= new Token(kind, fSource, offset, endOffset);
+		} else {
+			t.setType(kind);
+			t.setOffset(offset, endOffset);
+		}
+		// Use the tokens in turns, the caller needs access to the previous one.
+		fScratchToken1= fScratchToken2;
+		fScratchToken2= t;
+		return t;
+	}
+
+	/**
+	 * Replaces a scratch token with a real one. Scratch tokens are used only for kinds
+	 * whose image is determined by the kind, or for tokens of which only the kind and the
+	 * offsets are needed.
+	 */
+	private Token copyScratchToken(Token t) {
+		if (t == fScratchToken1 || t == fScratchToken2) {
+			return new Token(t.getType(), fSource, t.getOffset(), t.getEndOffset());
+		}
+		return t;
 	}
 	
 	/**
@@ -650,6 +698,8 @@ final public class Lexer implements ITokenSequence {
     }
 
 	private Token newToken(int kind, int offset) {
+		if (fRecycleTokens)
+			return scratchToken(kind, offset, fOffset);
     	return new Token(kind, fSource, offset, fOffset);
     }
 
@@ -659,6 +709,10 @@ final public class Lexer implements ITokenSequence {
 
     private Token newToken(final int kind, final int offset, final int imageLength) {
     	final int endOffset= fOffset;
+    	if (fRecycleTokens && kind != IToken.tCOMPLETION) {
+    		// The image of a skipped token is never needed.
+    		return scratchToken(kind, offset, endOffset);
+    	}
     	final int sourceLen= endOffset - offset;
     	char[] image;
     	if (sourceLen != imageLength) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2014 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2017 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import org.eclipse.cdt.core.dom.ast.IASTFileLocation;
 import org.eclipse.cdt.core.dom.ast.IASTNodeLocation;
@@ -33,7 +34,13 @@ class LocationCtxContainer extends LocationCtx {
 	 */
 	private int fChildSequenceLength;
 
-	private ArrayList<LocationCtx> fChildren;
+	/*
+	 * The children are stored in a plain array that is trimmed when the context is complete.
+	 * Their sequence numbers are read from the children, such that no additional storage is
+	 * needed per child.
+	 */
+	private LocationCtx[] fChildren;
+	private int fChildCount;
 	private final AbstractCharArray fSource;
 	private int[] fLineOffsets;
 	
@@ -45,17 +52,37 @@ class LocationCtxContainer extends LocationCtx {
 	
 	@Override
 	public Collection<LocationCtx> getChildren() {
-		if (fChildren == null) {
+		if (fChildCount == 0) {
 			return Collections.emptyList();
 		}
-		return fChildren;
+		List<LocationCtx> children= Arrays.asList(fChildren);
+		return Collections.unmodifiableList(children.subList(0, fChildCount));
 	}
 
 	public void addChild(LocationCtx locationCtx) {
 		if (fChildren == null) {
-			fChildren= new ArrayList<>();
+			fChildren= new LocationCtx[4];
+		} else if (fChildCount == fChildren.length) {
+			fChildren= Arrays.copyOf(fChildren, fChildCount * 2);
+		}
+		fChildren[fChildCount++]= locationCtx;
+	}
+
+	/**
+	 * Releases the unused capacity of the child array. Called when the context is complete,
+	 * no more children can be added afterwards.
+	 */
+	public void trimToSize() {
+		if (fChildren != null && fChildCount < fChildren.length) {
+			fChildren= Arrays.copyOf(fChildren, fChildCount);
 		}
-		fChildren.add(locationCtx);
+	}
+
+	/**
+	 * Returns the hash of the contents of the file or buffer this context represents.
+	 */
+	public final long getContentsHash() {
+		return fSource.getContentsHash();
 	}
 
 	public char[] getSource(int offset, int length) {
@@ -75,9 +102,9 @@ class LocationCtxContainer extends LocationCtx {
 	@Override
 	public final int getSequenceNumberForOffset(int offset, boolean checkChildren) {
 		int result= fSequenceNumber + fChildSequenceLength + offset;
-		if (checkChildren && fChildren != null) {
-			for (int i= fChildren.size(); --i >= 0;) {
-				final LocationCtx child= fChildren.get(i);
+		if (checkChildren) {
+			for (int i= fChildCount; --i >= 0;) {
+				final LocationCtx child= fChildren[i];
 				if (child.fEndOffsetInParent > offset) { // Child was inserted behind the offset, adjust sequence number
 					result -= child.getSequenceLength();
 				} else {
@@ -145,10 +172,10 @@ class LocationCtxContainer extends LocationCtx {
 			return;
 		
 		final int endSequenceNumber= sequenceNumber + length;
-		if (fChildren != null) {
+		if (fChildCount > 0) {
 			int childIdx= Math.max(0, findChildIdxLessOrEqualThan(sequenceNumber, false));
-			for (; childIdx < fChildren.size(); childIdx++) {
-				final LocationCtx child= fChildren.get(childIdx);
+			for (; childIdx < fChildCount; childIdx++) {
+				final LocationCtx child= fChildren[childIdx];
 
 				// Create the location between start and the child
 				if (sequenceNumber < child.fSequenceNumber) {
@@ -204,17 +231,17 @@ class LocationCtxContainer extends LocationCtx {
 	}
 
 	final int findChildIdxLessOrEqualThan(int sequenceNumber, boolean beforeReplacedChars) {
-		if (fChildren == null) {
+		if (fChildCount == 0) {
 			return -1;
 		}
-		int upper= fChildren.size();
+		int upper= fChildCount;
 		int lower= 0;
 		while (upper > lower) {
 			int middle= (upper + lower) >>> 1;
-			LocationCtx child= fChildren.get(middle);
+			final LocationCtx child= fChildren[middle];
 			int childSequenceNumber= child.fSequenceNumber;
 			if (beforeReplacedChars) {
-				childSequenceNumber -= child.fEndOffsetInParent - child.fOffsetInParent; 
+				childSequenceNumber -= child.fEndOffsetInParent - child.fOffsetInParent;
 			}
 			if (childSequenceNumber <= sequenceNumber) {
 				lower= middle + 1;
@@ -227,18 +254,17 @@ class LocationCtxContainer extends LocationCtx {
 
 	final LocationCtx findChildLessOrEqualThan(final int sequenceNumber, boolean beforeReplacedChars) {
 		final int idx= findChildIdxLessOrEqualThan(sequenceNumber, beforeReplacedChars);
-		return idx >= 0 ? fChildren.get(idx) : null;
+		return idx >= 0 ? fChildren[idx] : null;
 	}
 
 	@Override
 	public void getInclusions(ArrayList<IASTInclusionNode> result) {
-		if (fChildren != null) {
-			for (LocationCtx ctx : fChildren) {
-				if (ctx.getInclusionStatement() != null) {
-					result.add(new ASTInclusionNode(ctx));
-				} else {
-					ctx.getInclusions(result);
-				}
+		for (int i= 0; i < fChildCount; i++) {
+			final LocationCtx ctx= fChildren[i];
+			if (ctx.getInclusionStatement() != null) {
+				result.add(new ASTInclusionNode(ctx));
+			} else {
+				ctx.getInclusions(result);
 			}
 		}
 	}
@@ -81,7 +81,8 @@ class LocationCtxMacroExpansion extends LocationCtx {
 		int nextToCheck= offset;
 		ImageLocationInfo firstInfo= null;
 		ImageLocationInfo lastInfo= null;
-		for (ImageLocationInfo info : fLocationInfos) {
+		for (int i= findFirstImageLocationInfo(offset); i < fLocationInfos.length; i++) {
+			final ImageLocationInfo info= fLocationInfos[i];
 			if (info.fTokenOffsetInExpansion == nextToCheck) {
 				if (firstInfo == null || lastInfo == null) {
 					firstInfo= lastInfo= info;
@@ -100,6 +101,24 @@ class LocationCtxMacroExpansion extends LocationCtx {
 		return null;
 	}
 
+	/**
+	 * Returns the index of the first image location info with a token offset greater or equal
+	 * to the given one. The infos are sorted by their token offsets.
+	 */
+	private int findFirstImageLocationInfo(int tokenOffset) {
+		int lower= 0;
+		int upper= fLocationInfos.length;
+		while (upper > lower) {
+			int middle= (upper + lower) >>> 1;
+			if (fLocationInfos[middle].fTokenOffsetInExpansion < tokenOffset) {
+				lower= middle + 1;
+			} else {
+				upper= middle;
+			}
+		}
+		return lower;
+	}
+
 	public ASTPreprocessorName[] getNestedMacroReferences() {
 		return fLocationMap.getNestedMacroReferences((ASTMacroExpansion) fExpansionName.getParent());
 	}
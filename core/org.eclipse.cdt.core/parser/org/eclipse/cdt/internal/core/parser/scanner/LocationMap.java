@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2016 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2017 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -224,6 +224,9 @@ public class LocationMap implements ILocationResolver {
 		assert fCurrentContext == locationCtx;
 		final LocationCtx child= fCurrentContext;
 		final LocationCtx parent= (LocationCtx) fCurrentContext.getParent();
+		if (child instanceof LocationCtxContainer) {
+			((LocationCtxContainer) child).trimToSize();
+		}
 		if (parent != null) {
 			fCurrentContext= parent;
 			fLastChildInsertionOffset= child.fEndOffsetInParent;
@@ -453,6 +456,11 @@ public class LocationMap implements ILocationResolver {
 		return fTranslationUnitPath;
 	}
 
+	@Override
+	public long getTranslationUnitContentsHash() {
+		return fRootContext != null ? fRootContext.getContentsHash() : 0;
+	}
+
 	/**
 	 * Line number of offset in current context.
 	 * @param offset in current context.
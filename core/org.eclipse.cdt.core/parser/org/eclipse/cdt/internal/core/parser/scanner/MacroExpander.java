@@ -948,6 +948,9 @@ public class MacroExpander {
 	}
 
 	public ImageLocationInfo[] clearImageLocationInfos() {
+		if (fImageLocationInfos.isEmpty()) {
+			return ImageLocationInfo.NO_LOCATION_INFOS;
+		}
 		ImageLocationInfo[] result= fImageLocationInfos.toArray(new ImageLocationInfo[fImageLocationInfos.size()]);
 		fImageLocationInfos.clear();
 		return result;
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.parser.scanner;
+
+import java.io.IOException;
+
+import org.eclipse.cdt.core.dom.ast.IASTFileLocation;
+import org.eclipse.cdt.core.parser.EndOfFileException;
+import org.eclipse.cdt.core.parser.IToken;
+
+/**
+ * Runs the preprocessor without a parser and streams the resulting tokens as text, similar
+ * to the output of <code>gcc -E</code>. Tokens are written as soon as the preprocessor
+ * delivers them, none of them are retained. Optionally line markers of the form
+ * <code># line "file"</code> are emitted whenever the output switches to another file or
+ * skips a larger number of lines.
+ * <p>
+ * Clients that need the tokens rather than text can consume {@link CPreprocessor#nextToken()}
+ * directly and use {@link #getFileLocation(IToken)} to map them back to the source.
+ */
+public class PreprocessorOutputWriter {
+	/**
+	 * Gaps of up to this number of lines are filled with newlines rather than a line marker.
+	 */
+	private static final int MAX_EMPTY_LINES= 8;
+
+	private final CPreprocessor fPreprocessor;
+	private final ILocationResolver fLocationResolver;
+	private final Appendable fOutput;
+	private boolean fEmitLineMarkers= true;
+
+	private String fCurrentFile;
+	private int fCurrentLine;
+	private boolean fLineIsEmpty= true;
+	private int fTokenCount;
+	private long fCharCount;
+
+	/**
+	 * Creates a writer for the given preprocessor. The preprocessor must not be used
+	 * by a parser at the same time.
+	 */
+	public PreprocessorOutputWriter(CPreprocessor preprocessor, Appendable output) {
+		fPreprocessor= preprocessor;
+		fLocationResolver= preprocessor.getLocationMap();
+		fOutput= output;
+		// Image locations are needed for the AST, only.
+		preprocessor.setComputeImageLocations(false);
+	}
+
+	/**
+	 * Controls whether line markers are written, the default is <code>true</code>.
+	 */
+	public void setEmitLineMarkers(boolean val) {
+		fEmitLineMarkers= val;
+	}
+
+	/**
+	 * Returns the number of tokens written so far.
+	 */
+	public int getTokenCount() {
+		return fTokenCount;
+	}
+
+	/**
+	 * Returns the number of characters written so far.
+	 */
+	public long getCharCount() {
+		return fCharCount;
+	}
+
+	/**
+	 * Preprocesses the entire translation unit and writes the output.
+	 */
+	public void write() throws IOException {
+		try {
+			while (true) {
+				writeToken(fPreprocessor.nextToken());
+			}
+		} catch (EndOfFileException e) {
+			// Done.
+		}
+		if (!fLineIsEmpty) {
+			newline();
+		}
+	}
+
+	/**
+	 * Returns the location of the token in its file. For tokens resulting from a macro
+	 * expansion this is the location of the expansion.
+	 */
+	public IASTFileLocation getFileLocation(IToken token) {
+		return fLocationResolver.getMappedFileLocation(token.getOffset(), token.getLength());
+	}
+
+	private void writeToken(IToken token) throws IOException {
+		final IASTFileLocation loc= getFileLocation(token);
+		if (loc != null) {
+			final String file= loc.getFileName();
+			final int line= loc.getStartingLineNumber();
+			if (!file.equals(fCurrentFile)) {
+				if (!fLineIsEmpty) {
+					newline();
+				}
+				writeLineMarker(line, file);
+			} else if (line > fCurrentLine) {
+				if (!fLineIsEmpty) {
+					newline();
+				}
+				if (line - fCurrentLine > MAX_EMPTY_LINES + 1) {
+					writeLineMarker(line, file);
+				} else {
+					for (int i= fCurrentLine + 1; i < line; i++) {
+						newline();
+					}
+				}
+			}
+			fCurrentFile= file;
+			fCurrentLine= Math.max(fCurrentLine, line);
+		}
+		if (!fLineIsEmpty) {
+			append(" "); //$NON-NLS-1$
+		}
+		append(token.getImage());
+		fLineIsEmpty= false;
+		fTokenCount++;
+	}
+
+	private void writeLineMarker(int line, String file) throws IOException {
+		fCurrentLine= line;
+		if (fEmitLineMarkers) {
+			append("# " + line + " \"" + file + '"'); //$NON-NLS-1$ //$NON-NLS-2$
+			newline();
+		}
+	}
+
+	private void newline() throws IOException {
+		append("\n"); //$NON-NLS-1$
+		fLineIsEmpty= true;
+	}
+
+	private void append(String text) throws IOException {
+		fOutput.append(text);
+		fCharCount += text.length();
+	}
+}
@@ -156,6 +156,7 @@ import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.TypeOfDependentExp
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.TypeOfUnknownMember;
 import org.eclipse.cdt.internal.core.index.IIndexBindingConstants;
 import org.eclipse.cdt.internal.core.index.IIndexCPPBindingConstants;
+import org.eclipse.cdt.internal.core.index.IndexCPPSignatureUtil;
 import org.eclipse.cdt.internal.core.index.composite.CompositeIndexBinding;
 import org.eclipse.cdt.internal.core.pdom.PDOM;
 import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
@@ -197,6 +198,9 @@ class PDOMCPPLinkage extends PDOMLinkage implements IIndexCPPBindingConstants {
 	// (which is a lot of functions).
 	private IASTName pointOfInstantiation = null;  
 
+	// The instances stored for templates, survives the release of the locks on the index.
+	private final PDOMInstanceRecords fInstanceRecords = new PDOMInstanceRecords();
+
 	public PDOMCPPLinkage(PDOM pdom, long record) {
 		super(pdom, record);
 	}
@@ -205,6 +209,13 @@ class PDOMCPPLinkage extends PDOMLinkage implements IIndexCPPBindingConstants {
 		super(pdom, CPP_LINKAGE_NAME, CPP_LINKAGE_NAME.toCharArray());
 	}
 
+	/**
+	 * Returns the table of instances stored for the templates of this linkage.
+	 */
+	PDOMInstanceRecords getInstanceRecords() {
+		return fInstanceRecords;
+	}
+
 	@Override
 	public String getLinkageName() {
 		return CPP_LINKAGE_NAME;
@@ -874,6 +885,11 @@ class PDOMCPPLinkage extends PDOMLinkage implements IIndexCPPBindingConstants {
 			} else if (special instanceof ICPPVariable && orig instanceof ICPPVariable) {
 				result= new PDOMCPPVariableInstance(this, parent, (ICPPVariableInstance) special, orig);
 			}
+			if (result != null) {
+				String key= IndexCPPSignatureUtil.getTemplateArgString(
+						((ICPPTemplateInstance) special).getTemplateArguments(), true);
+				fInstanceRecords.add(orig.getRecord(), key, result.getRecord());
+			}
 		} else if (special instanceof ICPPField) {
 			result= new PDOMCPPFieldSpecialization(this, parent, (ICPPField) special, orig);
 		} else if (special instanceof ICPPFunctionTemplate) {
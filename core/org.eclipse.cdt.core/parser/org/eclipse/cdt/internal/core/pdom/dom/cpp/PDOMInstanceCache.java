@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2014 Wind River Systems, Inc. and others.
+ * Copyright (c) 2008, 2017 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,7 @@
 package org.eclipse.cdt.internal.core.pdom.dom.cpp;
 
 import java.util.HashMap;
+import java.util.Map;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.dom.ast.DOMException;
@@ -21,6 +22,7 @@ import org.eclipse.cdt.internal.core.index.IndexCPPSignatureUtil;
 import org.eclipse.cdt.internal.core.pdom.PDOM;
 import org.eclipse.cdt.internal.core.pdom.dom.NamedNodeCollector;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMBinding;
+import org.eclipse.cdt.internal.core.pdom.dom.PDOMLinkage;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMNamedNode;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMNode;
 import org.eclipse.core.runtime.CoreException;
@@ -47,6 +49,17 @@ public class PDOMInstanceCache {
 		return newCache;
 	}
 	
+	/**
+	 * Returns the table of instance records kept for the given linkage, or <code>null</code> if
+	 * the linkage does not record instances.
+	 */
+	public static PDOMInstanceRecords getInstanceRecords(PDOMLinkage linkage) {
+		if (linkage instanceof PDOMCPPLinkage) {
+			return ((PDOMCPPLinkage) linkage).getInstanceRecords();
+		}
+		return null;
+	}
+
 	private final HashMap<String, ICPPTemplateInstance> fMap;
 	private ICPPDeferredClassInstance fDeferredInstance;
 
@@ -76,22 +89,45 @@ public class PDOMInstanceCache {
 	}
 	
 	private void populate(PDOMBinding binding) throws CoreException {
+		final PDOMLinkage linkage= binding.getLinkage();
+		PDOMInstanceRecords instanceRecords= getInstanceRecords(linkage);
+		if (instanceRecords != null) {
+			Map<String, Long> records= instanceRecords.get(binding.getRecord());
+			if (records != null) {
+				for (Map.Entry<String, Long> entry : records.entrySet()) {
+					PDOMBinding inst= linkage.getBinding(entry.getValue());
+					if (inst instanceof ICPPTemplateInstance) {
+						fMap.put(entry.getKey(), (ICPPTemplateInstance) inst);
+					}
+				}
+				return;
+			}
+		}
+
 		PDOMNode parent= binding.getParentNode();
 		if (parent == null) {
-			parent= binding.getLinkage();
+			parent= linkage;
 		}
-		NamedNodeCollector nn= new NamedNodeCollector(binding.getLinkage(), binding.getNameCharArray());
+		NamedNodeCollector nn= new NamedNodeCollector(linkage, binding.getNameCharArray());
 		parent.accept(nn);
 		PDOMNamedNode[] nodes= nn.getNodes();
+		Map<String, Long> records= new HashMap<>();
 		for (PDOMNamedNode node : nodes) {
 			if (node instanceof ICPPTemplateInstance) {
 				ICPPTemplateInstance inst= (ICPPTemplateInstance) node;
 				if (binding.equals(inst.getTemplateDefinition())) {
-					ICPPTemplateArgument[] args= inst.getTemplateArguments();
-					addInstance(args, inst);
+					try {
+						String key= IndexCPPSignatureUtil.getTemplateArgString(inst.getTemplateArguments(), true);
+						fMap.put(key, inst);
+						records.put(key, node.getRecord());
+					} catch (DOMException e) {
+					}
 				}
 			}
 		}
+		if (instanceRecords != null) {
+			instanceRecords.put(binding.getRecord(), records);
+		}
 	}
 
 	synchronized public ICPPTemplateInstance[] getAllInstances() {
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.pdom.dom.cpp;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the records of the instances that are stored in the database for a template, keyed
+ * by the signature of the template arguments. In contrast to {@link PDOMInstanceCache} the table
+ * references database records only, it is therefore not cleared when the locks on the index are
+ * released and serves all translation units that use an instance of the template.
+ * <p>
+ * Bindings are never removed from the database, the table needs to be updated when new instances
+ * are added, only. An entry for a template is created when its instances are first collected
+ * from the database.
+ */
+public final class PDOMInstanceRecords {
+	private static final int MAX_TEMPLATES= 10000;
+
+	private final Map<Long, Map<String, Long>> fInstances= new LinkedHashMap<Long, Map<String, Long>>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Map<String, Long>> eldest) {
+			return size() > MAX_TEMPLATES;
+		}
+	};
+	private int fHits;
+	private int fMisses;
+
+	/**
+	 * Returns a copy of the instance records for the given template, or <code>null</code>
+	 * if the instances of the template have not been collected, yet.
+	 */
+	public synchronized Map<String, Long> get(long templateRecord) {
+		Map<String, Long> instances= fInstances.get(templateRecord);
+		if (instances == null) {
+			fMisses++;
+			return null;
+		}
+		fHits++;
+		return new HashMap<>(instances);
+	}
+
+	/**
+	 * Stores the complete set of instance records for the given template.
+	 */
+	public synchronized void put(long templateRecord, Map<String, Long> instances) {
+		fInstances.put(templateRecord, new HashMap<>(instances));
+	}
+
+	/**
+	 * Adds an instance that has been stored in the database. The instance is ignored when the
+	 * instances of the template have not been collected, yet, because it will be found then.
+	 */
+	public synchronized void add(long templateRecord, String argumentSignature, long instanceRecord) {
+		Map<String, Long> instances= fInstances.get(templateRecord);
+		if (instances != null) {
+			instances.put(argumentSignature, instanceRecord);
+		}
+	}
+
+	/**
+	 * Returns the number of templates whose instances are recorded.
+	 */
+	public synchronized int size() {
+		return fInstances.size();
+	}
+
+	public synchronized void clear() {
+		fInstances.clear();
+		fHits= fMisses= 0;
+	}
+
+	public synchronized int getHitCount() {
+		return fHits;
+	}
+
+	public synchronized int getMissCount() {
+		return fMisses;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "Instance records: " + fInstances.size() + " templates, " + fHits + " hits, " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ fMisses + " misses"; //$NON-NLS-1$
+	}
+}
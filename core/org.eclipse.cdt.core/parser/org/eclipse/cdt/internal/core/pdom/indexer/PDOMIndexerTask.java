@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2016 Wind River Systems, Inc. and others.
+ * Copyright (c) 2006, 2017 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -23,6 +23,7 @@ import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.CCorePreferenceConstants;
+import org.eclipse.cdt.core.dom.ILinkage;
 import org.eclipse.cdt.core.dom.IPDOMIndexer;
 import org.eclipse.cdt.core.dom.IPDOMIndexerTask;
 import org.eclipse.cdt.core.index.IIndexManager;
@@ -30,12 +31,16 @@ import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.core.model.ITranslationUnit;
 import org.eclipse.cdt.core.parser.IncludeExportPatterns;
 import org.eclipse.cdt.internal.core.index.IWritableIndex;
+import org.eclipse.cdt.internal.core.index.IWritableIndexFragment;
 import org.eclipse.cdt.internal.core.index.IWritableIndexManager;
 import org.eclipse.cdt.internal.core.model.CProject;
 import org.eclipse.cdt.internal.core.pdom.AbstractIndexerTask;
 import org.eclipse.cdt.internal.core.pdom.ITodoTaskUpdater;
 import org.eclipse.cdt.internal.core.pdom.IndexerProgress;
+import org.eclipse.cdt.internal.core.pdom.PDOM;
 import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
+import org.eclipse.cdt.internal.core.pdom.dom.cpp.PDOMInstanceCache;
+import org.eclipse.cdt.internal.core.pdom.dom.cpp.PDOMInstanceRecords;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -320,6 +325,21 @@ public abstract class PDOMIndexerTask extends AbstractIndexerTask implements IPD
 					+ hits + " hits, "      //$NON-NLS-1$
 					+ misses + "(" + nfPercent.format(missPct) + ") misses.");      //$NON-NLS-1$ //$NON-NLS-2$
 
+			IWritableIndexFragment fragment= index.getWritableFragment();
+			if (fragment instanceof PDOM) {
+				try {
+					PDOMInstanceRecords records= PDOMInstanceCache.getInstanceRecords(
+							((PDOM) fragment).getLinkage(ILinkage.CPP_LINKAGE_ID));
+					if (records != null) {
+						System.out.println(indent + " Template instances: "    //$NON-NLS-1$
+								+ records.getHitCount() + " hits, "      //$NON-NLS-1$
+								+ records.getMissCount() + " misses.");      //$NON-NLS-1$
+					}
+				} catch (CoreException e) {
+					CCorePlugin.log(e);
+				}
+			}
+
 			if (Boolean.parseBoolean(System.getProperty("SHOW_COMPRESSED_INDEXER_INFO"))) {    //$NON-NLS-1$
 				Calendar cal = Calendar.getInstance();
 				NumberFormat twoDigits= NumberFormat.getNumberInstance();
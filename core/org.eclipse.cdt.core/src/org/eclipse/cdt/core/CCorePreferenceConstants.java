@@ -315,6 +315,51 @@ public class CCorePreferenceConstants {
 	// NOTE: This default came from measurements using a 1Gb heap on a 64-bit VM.  The test project was
 	//       boost-1.55.0.  This default will index all but 9 files without running out of memory.
 
+	/**
+	 * A named preference that specifies the maximum number of ASTs of previously active editors
+	 * that are kept for reuse when the editors become active again.
+	 *
+	 * @since 6.4
+	 */
+	public static final String AST_CACHE_MAXIMUM_ENTRIES = "astCache.maximumEntries"; //$NON-NLS-1$
+
+	/**
+	 * Default value for {@link #AST_CACHE_MAXIMUM_ENTRIES}.
+	 *
+	 * @since 6.4
+	 */
+	public static final int DEFAULT_AST_CACHE_MAXIMUM_ENTRIES = 8;
+
+	/**
+	 * A named preference that specifies the estimated amount of memory in megabytes that the ASTs
+	 * of previously active editors may occupy.
+	 *
+	 * @since 6.4
+	 */
+	public static final String AST_CACHE_MAXIMUM_SIZE_MB = "astCache.maximumSizeMB"; //$NON-NLS-1$
+
+	/**
+	 * Default value for {@link #AST_CACHE_MAXIMUM_SIZE_MB}.
+	 *
+	 * @since 6.4
+	 */
+	public static final int DEFAULT_AST_CACHE_MAXIMUM_SIZE_MB = 128;
+
+	/**
+	 * A named preference that controls whether the structure of translation units that are indexed
+	 * and unchanged since is built from the index rather than by parsing them.
+	 *
+	 * @since 6.4
+	 */
+	public static final String MODEL_BUILD_FROM_INDEX = "model.buildFromIndex"; //$NON-NLS-1$
+
+	/**
+	 * Default value for {@link #MODEL_BUILD_FROM_INDEX}.
+	 *
+	 * @since 6.4
+	 */
+	public static final boolean DEFAULT_MODEL_BUILD_FROM_INDEX = false;
+
     /**
      * Returns the node in the preference in the given context.
      *
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2008 QNX Software Systems and others.
+ * Copyright (c) 2000, 2017 QNX Software Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,12 @@ import org.eclipse.core.runtime.IAdaptable;
 import org.eclipse.core.runtime.IPath;
 
 /**
+ * Recognizes binary files and creates their representations.
+ * <p>
+ * The binary runner of a project calls {@link #isBinary(byte[], IPath)} and
+ * {@link #getBinary(byte[], IPath)} for different files from several threads at the same time,
+ * so implementations must be reentrant. They must not keep the state of one file in fields
+ * of the parser.
  */
 public interface IBinaryParser extends IAdaptable {
 
@@ -75,5 +75,12 @@ public class CCorePreferenceInitializer extends AbstractPreferenceInitializer {
 		defaultPreferences.putInt(CCorePreferenceConstants.SCALABILITY_MAXIMUM_TRIVIAL_EXPRESSIONS, CCorePreferenceConstants.DEFAULT_SCALABILITY_MAXIMUM_TRIVIAL_EXPRESSIONS);
 		defaultPreferences.putBoolean(CCorePreferenceConstants.SCALABILITY_LIMIT_TOKENS_PER_TU, CCorePreferenceConstants.DEFAULT_SCALABILITY_LIMIT_TOKENS_PER_TU);
 		defaultPreferences.putInt(CCorePreferenceConstants.SCALABILITY_MAXIMUM_TOKENS, CCorePreferenceConstants.DEFAULT_SCALABILITY_MAXIMUM_TOKENS);
+
+		// AST cache defaults.
+		defaultPreferences.putInt(CCorePreferenceConstants.AST_CACHE_MAXIMUM_ENTRIES, CCorePreferenceConstants.DEFAULT_AST_CACHE_MAXIMUM_ENTRIES);
+		defaultPreferences.putInt(CCorePreferenceConstants.AST_CACHE_MAXIMUM_SIZE_MB, CCorePreferenceConstants.DEFAULT_AST_CACHE_MAXIMUM_SIZE_MB);
+
+		// Model builder defaults.
+		defaultPreferences.putBoolean(CCorePreferenceConstants.MODEL_BUILD_FROM_INDEX, CCorePreferenceConstants.DEFAULT_MODEL_BUILD_FROM_INDEX);
 	}
 }
@@ -0,0 +1,1548 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Demangles C++ symbol names according to the Itanium C++ ABI, as used by GCC and Clang,
+ * without running an external program. The output follows the format of c++filt.
+ * <p>
+ * Results are kept in a cache that is shared by all clients. When the cache exceeds its
+ * maximum size, it is cleared.
+ * <p>
+ * Names that use constructs not supported by this demangler, e.g. expressions in template
+ * arguments, are not demangled. Clients may pass those to {@link CPPFilt}.
+ *
+ * @noextend This class is not intended to be subclassed by clients.
+ * @noinstantiate This class is not intended to be instantiated by clients.
+ * @since 6.4
+ */
+public final class CPPDemangler {
+	private static final int MAX_CACHE_SIZE = 100000;
+	/** Substitutions allow for names that grow exponentially, longer names are not demangled */
+	private static final int MAX_LENGTH = 1 << 16;
+	/** Maps mangled names to demangled ones, or to themselves if they cannot be demangled */
+	private static final ConcurrentHashMap<String, String> fgCache = new ConcurrentHashMap<>();
+
+	private CPPDemangler() {
+	}
+
+	/**
+	 * Demangles the given symbol name.
+	 *
+	 * @param symbol a symbol name
+	 * @return the demangled name or <code>null</code> if the symbol is not a mangled C++ name
+	 *     or cannot be demangled
+	 */
+	public static String demangle(String symbol) {
+		if (symbol == null || !symbol.startsWith("_Z")) //$NON-NLS-1$
+			return null;
+		String result = fgCache.get(symbol);
+		if (result == null) {
+			result = new Parser(symbol).demangle();
+			if (result == null)
+				result = symbol;
+			if (fgCache.size() >= MAX_CACHE_SIZE)
+				fgCache.clear();
+			fgCache.put(symbol, result);
+		}
+		return result.equals(symbol) ? null : result;
+	}
+
+	/**
+	 * Checks whether the given symbol name is a mangled C++ name.
+	 */
+	public static boolean isMangled(String symbol) {
+		return symbol != null && symbol.startsWith("_Z"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Thrown when the input cannot be demangled.
+	 */
+	private static class DemangleException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		DemangleException() {
+			super(null, null, false, false);
+		}
+	}
+
+	/**
+	 * A node of the demangled name. Types that declare a part after the name of a declarator,
+	 * i.e. function and array types, print it in {@link #printRight(StringBuilder)}.
+	 */
+	private static abstract class Node {
+		abstract void printLeft(StringBuilder out);
+
+		void printRight(StringBuilder out) {
+		}
+
+		boolean hasRight() {
+			return false;
+		}
+
+		boolean isArray() {
+			return false;
+		}
+
+		boolean isFunction() {
+			return false;
+		}
+
+		void print(StringBuilder out) {
+			printLeft(out);
+			if (hasRight())
+				printRight(out);
+		}
+
+		/**
+		 * Returns the name used for constructors and destructors of this node.
+		 */
+		String getBaseName() {
+			StringBuilder buf = new StringBuilder();
+			print(buf);
+			return buf.toString();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder buf = new StringBuilder();
+			print(buf);
+			return buf.toString();
+		}
+	}
+
+	private static class NameNode extends Node {
+		final String fName;
+		final String fBaseName;
+
+		NameNode(String name) {
+			this(name, name);
+		}
+
+		NameNode(String name, String baseName) {
+			fName = name;
+			fBaseName = baseName;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			out.append(fName);
+		}
+
+		@Override
+		String getBaseName() {
+			return fBaseName;
+		}
+	}
+
+	private static class NestedName extends Node {
+		final Node fQualifier;
+		final Node fName;
+
+		NestedName(Node qualifier, Node name) {
+			fQualifier = qualifier;
+			fName = name;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			fQualifier.print(out);
+			out.append("::"); //$NON-NLS-1$
+			fName.print(out);
+		}
+
+		@Override
+		String getBaseName() {
+			if (fName instanceof UnnamedTypeName)
+				return fQualifier.getBaseName();
+			return fName.getBaseName();
+		}
+	}
+
+	/**
+	 * An unnamed class or a closure type, c++filt names their constructors and destructors
+	 * after the enclosing scope.
+	 */
+	private static class UnnamedTypeName extends NameNode {
+		UnnamedTypeName(String name) {
+			super(name);
+		}
+	}
+
+	private static class AbiTagged extends Node {
+		final Node fName;
+		final String fTag;
+
+		AbiTagged(Node name, String tag) {
+			fName = name;
+			fTag = tag;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			fName.print(out);
+			out.append("[abi:").append(fTag).append(']'); //$NON-NLS-1$
+		}
+
+		@Override
+		String getBaseName() {
+			return fName.getBaseName();
+		}
+	}
+
+	private static class TemplateArgs extends Node {
+		final List<Node> fArgs;
+
+		TemplateArgs(List<Node> args) {
+			fArgs = args;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			out.append('<');
+			// Like c++filt, do not separate the closing brackets after an omitted empty pack.
+			if (!printList(fArgs, out) && out.charAt(out.length() - 1) == '>')
+				out.append(' ');
+			out.append('>');
+		}
+	}
+
+	private static class NameWithTemplateArgs extends Node {
+		final Node fName;
+		final TemplateArgs fArgs;
+
+		NameWithTemplateArgs(Node name, TemplateArgs args) {
+			fName = name;
+			fArgs = args;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			fName.print(out);
+			if (out.charAt(out.length() - 1) == '<')
+				out.append(' ');
+			fArgs.print(out);
+		}
+
+		@Override
+		String getBaseName() {
+			return fName.getBaseName();
+		}
+	}
+
+	/**
+	 * A list of nodes printed with separating commas, e.g. a template argument pack.
+	 */
+	private static class NodeList extends Node {
+		final List<Node> fNodes;
+
+		NodeList(List<Node> nodes) {
+			fNodes = nodes;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			printList(fNodes, out);
+		}
+	}
+
+	private static class QualifiedType extends Node {
+		final Node fType;
+		final String fQualifiers;
+
+		QualifiedType(Node type, String qualifiers) {
+			fType = type;
+			fQualifiers = qualifiers;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			fType.printLeft(out);
+			if (!(fType instanceof FunctionType))
+				out.append(fQualifiers);
+		}
+
+		@Override
+		void printRight(StringBuilder out) {
+			fType.printRight(out);
+			if (fType instanceof FunctionType)
+				out.append(fQualifiers);
+		}
+
+		@Override
+		boolean hasRight() {
+			return fType.hasRight();
+		}
+
+		@Override
+		boolean isArray() {
+			return fType.isArray();
+		}
+
+		@Override
+		boolean isFunction() {
+			return fType.isFunction();
+		}
+	}
+
+	/**
+	 * Pointers, references, complex and imaginary types.
+	 */
+	private static class PointerType extends Node {
+		final Node fPointee;
+		final String fOperator;
+
+		PointerType(Node pointee, String operator) {
+			fPointee = pointee;
+			fOperator = operator;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			fPointee.printLeft(out);
+			if (fPointee.isArray())
+				out.append(' ');
+			if (fPointee.isArray() || fPointee.isFunction())
+				out.append('(');
+			out.append(fOperator);
+		}
+
+		@Override
+		void printRight(StringBuilder out) {
+			if (fPointee.isArray() || fPointee.isFunction())
+				out.append(')');
+			fPointee.printRight(out);
+		}
+
+		@Override
+		boolean hasRight() {
+			return fPointee.hasRight();
+		}
+	}
+
+	private static class PointerToMemberType extends Node {
+		final Node fClassType;
+		final Node fMemberType;
+
+		PointerToMemberType(Node classType, Node memberType) {
+			fClassType = classType;
+			fMemberType = memberType;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			fMemberType.printLeft(out);
+			if (fMemberType.isArray() || fMemberType.isFunction()) {
+				out.append('(');
+			} else {
+				out.append(' ');
+			}
+			fClassType.print(out);
+			out.append("::*"); //$NON-NLS-1$
+		}
+
+		@Override
+		void printRight(StringBuilder out) {
+			if (fMemberType.isArray() || fMemberType.isFunction())
+				out.append(')');
+			fMemberType.printRight(out);
+		}
+
+		@Override
+		boolean hasRight() {
+			return fMemberType.hasRight();
+		}
+	}
+
+	private static class FunctionType extends Node {
+		final Node fReturnType;
+		final List<Node> fParameters;
+		final String fQualifiers;
+
+		FunctionType(Node returnType, List<Node> parameters, String qualifiers) {
+			fReturnType = returnType;
+			fParameters = parameters;
+			fQualifiers = qualifiers;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			fReturnType.printLeft(out);
+			if (!fReturnType.hasRight())
+				out.append(' ');
+		}
+
+		@Override
+		void printRight(StringBuilder out) {
+			out.append('(');
+			printList(fParameters, out);
+			out.append(')');
+			fReturnType.printRight(out);
+			out.append(fQualifiers);
+		}
+
+		@Override
+		boolean hasRight() {
+			return true;
+		}
+
+		@Override
+		boolean isFunction() {
+			return true;
+		}
+	}
+
+	private static class ArrayType extends Node {
+		final Node fElementType;
+		final String fDimension;
+
+		ArrayType(Node elementType, String dimension) {
+			fElementType = elementType;
+			fDimension = dimension;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			fElementType.printLeft(out);
+		}
+
+		@Override
+		void printRight(StringBuilder out) {
+			if (out.charAt(out.length() - 1) != ']')
+				out.append(' ');
+			out.append('[').append(fDimension).append(']');
+			fElementType.printRight(out);
+		}
+
+		@Override
+		boolean hasRight() {
+			return true;
+		}
+
+		@Override
+		boolean isArray() {
+			return true;
+		}
+	}
+
+	private static class FunctionEncoding extends Node {
+		final Node fReturnType;
+		final Node fName;
+		final List<Node> fParameters;
+		final String fQualifiers;
+
+		FunctionEncoding(Node returnType, Node name, List<Node> parameters, String qualifiers) {
+			fReturnType = returnType;
+			fName = name;
+			fParameters = parameters;
+			fQualifiers = qualifiers;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			if (fReturnType != null) {
+				fReturnType.printLeft(out);
+				if (!fReturnType.hasRight())
+					out.append(' ');
+			}
+			fName.print(out);
+		}
+
+		@Override
+		void printRight(StringBuilder out) {
+			out.append('(');
+			printList(fParameters, out);
+			out.append(')');
+			if (fReturnType != null)
+				fReturnType.printRight(out);
+			out.append(fQualifiers);
+		}
+
+		@Override
+		boolean hasRight() {
+			return true;
+		}
+	}
+
+	private static class LocalName extends Node {
+		final Node fEncoding;
+		final Node fEntity;
+
+		LocalName(Node encoding, Node entity) {
+			fEncoding = encoding;
+			fEntity = entity;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			fEncoding.print(out);
+			out.append("::"); //$NON-NLS-1$
+			fEntity.print(out);
+		}
+
+		@Override
+		String getBaseName() {
+			return fEntity.getBaseName();
+		}
+	}
+
+	private static class SpecialName extends Node {
+		final String fPrefix;
+		final Node fChild;
+
+		SpecialName(String prefix, Node child) {
+			fPrefix = prefix;
+			fChild = child;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			out.append(fPrefix);
+			fChild.print(out);
+		}
+	}
+
+	/**
+	 * Prints "base-in-derived", used for construction vtables.
+	 */
+	private static class ConstructionVtableName extends Node {
+		final Node fBase;
+		final Node fDerived;
+
+		ConstructionVtableName(Node base, Node derived) {
+			fBase = base;
+			fDerived = derived;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			fBase.print(out);
+			out.append("-in-"); //$NON-NLS-1$
+			fDerived.print(out);
+		}
+	}
+
+	private static class ConversionOperator extends Node {
+		final Node fType;
+
+		ConversionOperator(Node type) {
+			fType = type;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			out.append("operator "); //$NON-NLS-1$
+			fType.print(out);
+		}
+	}
+
+	private static class CtorDtorName extends Node {
+		final Node fBase;
+		final boolean fIsDestructor;
+
+		CtorDtorName(Node base, boolean isDestructor) {
+			fBase = base;
+			fIsDestructor = isDestructor;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+			if (fIsDestructor)
+				out.append('~');
+			out.append(fBase.getBaseName());
+		}
+	}
+
+	/**
+	 * Prints the nodes separated by commas, omitting empty argument packs.
+	 *
+	 * @return whether the last node was an empty pack that was omitted after a separator
+	 */
+	private static boolean printList(List<Node> nodes, StringBuilder out) {
+		boolean first = true;
+		boolean omitted = false;
+		for (Node node : nodes) {
+			int length = out.length();
+			if (!first)
+				out.append(", "); //$NON-NLS-1$
+			int start = out.length();
+			node.print(out);
+			if (out.length() > MAX_LENGTH)
+				throw new IllegalStateException();
+			omitted = out.length() == start && !first;
+			if (out.length() == start) {
+				out.setLength(length);
+			} else {
+				first = false;
+			}
+		}
+		return omitted;
+	}
+
+	private static final String[][] OPERATORS = {
+		{ "nw", "new" }, { "na", "new[]" }, { "dl", "delete" }, { "da", "delete[]" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+		{ "ps", "+" }, { "ng", "-" }, { "ad", "&" }, { "de", "*" }, { "co", "~" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+		{ "pl", "+" }, { "mi", "-" }, { "ml", "*" }, { "dv", "/" }, { "rm", "%" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+		{ "an", "&" }, { "or", "|" }, { "eo", "^" }, { "aS", "=" }, { "pL", "+=" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+		{ "mI", "-=" }, { "mL", "*=" }, { "dV", "/=" }, { "rM", "%=" }, { "aN", "&=" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+		{ "oR", "|=" }, { "eO", "^=" }, { "ls", "<<" }, { "rs", ">>" }, { "lS", "<<=" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+		{ "rS", ">>=" }, { "eq", "==" }, { "ne", "!=" }, { "lt", "<" }, { "gt", ">" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+		{ "le", "<=" }, { "ge", ">=" }, { "ss", "<=>" }, { "nt", "!" }, { "aa", "&&" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+		{ "oo", "||" }, { "pp", "++" }, { "mm", "--" }, { "cm", "," }, { "pm", "->*" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+		{ "pt", "->" }, { "cl", "()" }, { "ix", "[]" }, { "qu", "?" }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+	};
+
+	/**
+	 * A substitution candidate for a template parameter, it is resolved when it is used.
+	 */
+	private static class TemplateParamSubstitution extends Node {
+		final int fIndex;
+
+		TemplateParamSubstitution(int index) {
+			fIndex = index;
+		}
+
+		@Override
+		void printLeft(StringBuilder out) {
+		}
+	}
+
+	private static final String[] QUALIFIERS = { " const", " volatile", " restrict" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+	/**
+	 * Recursive descent parser for a single mangled name.
+	 */
+	private static class Parser {
+		private final String fInput;
+		private final int fEnd;
+		private int fPos;
+		private final List<Node> fSubstitutions = new ArrayList<>();
+		private List<Node> fTemplateParams = Collections.emptyList();
+		private boolean fTagTemplates;
+		private int fDepth;
+		/** The size of the pack being expanded, -1 while it is unknown and -2 outside of expansions */
+		private int fPackSize = -2;
+		/** The index of the element of the pack being expanded */
+		private int fPackIndex = -1;
+
+		Parser(String input) {
+			fInput = input;
+			fEnd = input.length();
+		}
+
+		String demangle() {
+			try {
+				fPos = 2;
+				Node encoding = parseEncoding();
+				StringBuilder out = new StringBuilder();
+				encoding.print(out);
+				// Suffixes of clones created by the compiler, e.g. .constprop.0
+				while (fPos < fEnd && peek() == '.') {
+					int start = fPos++;
+					while (fPos < fEnd && peek() != '.')
+						fPos++;
+					while (fPos + 1 < fEnd && peek() == '.' && Character.isDigit(fInput.charAt(fPos + 1))) {
+						fPos++;
+						while (fPos < fEnd && Character.isDigit(peek()))
+							fPos++;
+					}
+					out.append(" [clone ").append(fInput, start, fPos).append(']'); //$NON-NLS-1$
+				}
+				if (fPos != fEnd)
+					return null;
+				return out.toString();
+			} catch (DemangleException | RuntimeException e) {
+				return null;
+			}
+		}
+
+		private char peek() {
+			return fPos < fEnd ? fInput.charAt(fPos) : 0;
+		}
+
+		private char peek(int offset) {
+			return fPos + offset < fEnd ? fInput.charAt(fPos + offset) : 0;
+		}
+
+		private boolean consume(char c) {
+			if (peek() == c) {
+				fPos++;
+				return true;
+			}
+			return false;
+		}
+
+		private boolean consume(String s) {
+			if (fInput.startsWith(s, fPos)) {
+				fPos += s.length();
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(char c) throws DemangleException {
+			if (!consume(c))
+				throw new DemangleException();
+		}
+
+		private void enter() throws DemangleException {
+			if (++fDepth > 256)
+				throw new DemangleException();
+		}
+
+		private Node parseEncoding() throws DemangleException {
+			enter();
+			try {
+				char c = peek();
+				if (c == 'T' || (c == 'G' && (peek(1) == 'V' || peek(1) == 'R' || peek(1) == 'T')))
+					return parseSpecialName();
+
+				boolean saveTag = fTagTemplates;
+				fTagTemplates = true;
+				List<Node> saveParams = fTemplateParams;
+				fTemplateParams = Collections.emptyList();
+				try {
+					String[] qualifiers = new String[1];
+					Node name = parseName(qualifiers);
+					if (fPos >= fEnd || peek() == 'E' || peek() == '.')
+						return name;
+					fTagTemplates = false;
+					Node returnType = null;
+					if (hasTemplateArgs(name) && !isCtorDtorOrConversion(name)) {
+						returnType = parseType();
+					}
+					List<Node> parameters = parseBareFunctionParameters();
+					return new FunctionEncoding(returnType, name, parameters, qualifiers[0] == null ? "" : qualifiers[0]); //$NON-NLS-1$
+				} finally {
+					fTagTemplates = saveTag;
+					if (!saveTag)
+						fTemplateParams = saveParams;
+				}
+			} finally {
+				fDepth--;
+			}
+		}
+
+		private static boolean hasTemplateArgs(Node name) {
+			while (true) {
+				if (name instanceof NameWithTemplateArgs)
+					return true;
+				if (name instanceof NestedName) {
+					name = ((NestedName) name).fName;
+				} else if (name instanceof LocalName) {
+					name = ((LocalName) name).fEntity;
+				} else if (name instanceof AbiTagged) {
+					name = ((AbiTagged) name).fName;
+				} else {
+					return false;
+				}
+			}
+		}
+
+		private static boolean isCtorDtorOrConversion(Node name) {
+			while (true) {
+				if (name instanceof CtorDtorName || name instanceof ConversionOperator)
+					return true;
+				if (name instanceof NestedName) {
+					name = ((NestedName) name).fName;
+				} else if (name instanceof NameWithTemplateArgs) {
+					name = ((NameWithTemplateArgs) name).fName;
+				} else if (name instanceof LocalName) {
+					name = ((LocalName) name).fEntity;
+				} else if (name instanceof AbiTagged) {
+					name = ((AbiTagged) name).fName;
+				} else {
+					return false;
+				}
+			}
+		}
+
+		private List<Node> parseBareFunctionParameters() throws DemangleException {
+			List<Node> parameters = new ArrayList<>();
+			if (peek() == 'v' && (peek(1) == 0 || peek(1) == 'E' || peek(1) == '.')) {
+				fPos++;
+				return parameters;
+			}
+			while (fPos < fEnd && peek() != 'E' && peek() != '.') {
+				parameters.add(parseType());
+			}
+			if (parameters.isEmpty())
+				throw new DemangleException();
+			return parameters;
+		}
+
+		private Node parseSpecialName() throws DemangleException {
+			if (consume("TV")) //$NON-NLS-1$
+				return new SpecialName("vtable for ", parseType()); //$NON-NLS-1$
+			if (consume("TT")) //$NON-NLS-1$
+				return new SpecialName("VTT for ", parseType()); //$NON-NLS-1$
+			if (consume("TI")) //$NON-NLS-1$
+				return new SpecialName("typeinfo for ", parseType()); //$NON-NLS-1$
+			if (consume("TS")) //$NON-NLS-1$
+				return new SpecialName("typeinfo name for ", parseType()); //$NON-NLS-1$
+			if (consume("TW")) //$NON-NLS-1$
+				return new SpecialName("TLS wrapper function for ", parseName(null)); //$NON-NLS-1$
+			if (consume("TH")) //$NON-NLS-1$
+				return new SpecialName("TLS init function for ", parseName(null)); //$NON-NLS-1$
+			if (consume("Tc")) { //$NON-NLS-1$
+				parseCallOffset();
+				parseCallOffset();
+				return new SpecialName("covariant return thunk to ", parseEncoding()); //$NON-NLS-1$
+			}
+			if (consume("TC")) { //$NON-NLS-1$
+				Node derived = parseType();
+				parseNumber();
+				expect('_');
+				Node base = parseType();
+				return new SpecialName("construction vtable for ", //$NON-NLS-1$
+						new ConstructionVtableName(base, derived));
+			}
+			if (consume('T')) {
+				if (consume('h')) {
+					parseNumber();
+					expect('_');
+					return new SpecialName("non-virtual thunk to ", parseEncoding()); //$NON-NLS-1$
+				}
+				if (consume('v')) {
+					parseNumber();
+					expect('_');
+					parseNumber();
+					expect('_');
+					return new SpecialName("virtual thunk to ", parseEncoding()); //$NON-NLS-1$
+				}
+				throw new DemangleException();
+			}
+			if (consume("GV")) //$NON-NLS-1$
+				return new SpecialName("guard variable for ", parseName(null)); //$NON-NLS-1$
+			if (consume("GR")) { //$NON-NLS-1$
+				Node name = parseName(null);
+				if (!consume('_')) {
+					parseSeqId();
+					expect('_');
+				}
+				return new SpecialName("reference temporary for ", name); //$NON-NLS-1$
+			}
+			if (consume("GTt")) //$NON-NLS-1$
+				return new SpecialName("transaction clone for ", parseEncoding()); //$NON-NLS-1$
+			throw new DemangleException();
+		}
+
+		private void parseCallOffset() throws DemangleException {
+			if (consume('h')) {
+				parseNumber();
+				expect('_');
+			} else if (consume('v')) {
+				parseNumber();
+				expect('_');
+				parseNumber();
+				expect('_');
+			} else {
+				throw new DemangleException();
+			}
+		}
+
+		private String parseNumber() throws DemangleException {
+			int start = fPos;
+			consume('n');
+			int digits = fPos;
+			while (Character.isDigit(peek()))
+				fPos++;
+			if (fPos == digits)
+				throw new DemangleException();
+			return fInput.substring(start, fPos);
+		}
+
+		private int parseSeqId() throws DemangleException {
+			int result = 0;
+			int start = fPos;
+			while (true) {
+				char c = peek();
+				if (c >= '0' && c <= '9') {
+					result = result * 36 + (c - '0');
+				} else if (c >= 'A' && c <= 'Z') {
+					result = result * 36 + (c - 'A' + 10);
+				} else {
+					break;
+				}
+				fPos++;
+			}
+			if (fPos == start)
+				throw new DemangleException();
+			return result;
+		}
+
+		/**
+		 * Parses a name. The cv- and ref-qualifiers of a nested name of a member function
+		 * are stored in the given array if it is not <code>null</code>.
+		 */
+		private Node parseName(String[] qualifiers) throws DemangleException {
+			enter();
+			try {
+				char c = peek();
+				if (c == 'N')
+					return parseNestedName(qualifiers);
+				if (c == 'Z')
+					return parseLocalName(qualifiers);
+
+				Node name;
+				if (c == 'S' && peek(1) != 't') {
+					name = parseSubstitution();
+					if (peek() != 'I')
+						throw new DemangleException();
+				} else {
+					name = parseUnscopedName();
+					if (peek() == 'I')
+						fSubstitutions.add(name);
+				}
+				if (peek() == 'I') {
+					name = new NameWithTemplateArgs(name, parseTemplateArgs());
+				}
+				return name;
+			} finally {
+				fDepth--;
+			}
+		}
+
+		private Node parseUnscopedName() throws DemangleException {
+			if (consume("St")) //$NON-NLS-1$
+				return new NestedName(new NameNode("std"), parseUnqualifiedName(null)); //$NON-NLS-1$
+			return parseUnqualifiedName(null);
+		}
+
+		private Node parseLocalName(String[] qualifiers) throws DemangleException {
+			expect('Z');
+			Node encoding = parseEncoding();
+			expect('E');
+			if (encoding instanceof FunctionEncoding) {
+				// The return type of the enclosing function is not printed.
+				FunctionEncoding function = (FunctionEncoding) encoding;
+				encoding = new FunctionEncoding(null, function.fName, function.fParameters, function.fQualifiers);
+			}
+			if (consume('s')) {
+				parseDiscriminator();
+				return new LocalName(encoding, new NameNode("string literal")); //$NON-NLS-1$
+			}
+			if (consume('d')) {
+				String number = peek() == '_' ? "" : parseNumber(); //$NON-NLS-1$
+				expect('_');
+				Node scope = new LocalName(encoding, new NameNode("{default arg#" //$NON-NLS-1$
+						+ (number.isEmpty() ? 1 : Integer.parseInt(number) + 2) + '}'));
+				return new LocalName(scope, parseName(qualifiers));
+			}
+			Node entity = parseName(qualifiers);
+			parseDiscriminator();
+			return new LocalName(encoding, entity);
+		}
+
+		private void parseDiscriminator() throws DemangleException {
+			if (peek() == '_') {
+				if (Character.isDigit(peek(1))) {
+					fPos += 2;
+				} else if (peek(1) == '_') {
+					fPos += 2;
+					parseNumber();
+					expect('_');
+				}
+			}
+		}
+
+		private Node parseNestedName(String[] qualifiers) throws DemangleException {
+			expect('N');
+			StringBuilder quals = new StringBuilder();
+			parseCVQualifiers(quals);
+			if (consume('R')) {
+				quals.append(" &"); //$NON-NLS-1$
+			} else if (consume('O')) {
+				quals.append(" &&"); //$NON-NLS-1$
+			}
+			if (qualifiers != null)
+				qualifiers[0] = quals.toString();
+
+			Node result = null;
+			while (!consume('E')) {
+				char c = peek();
+				if (c == 'S' && peek(1) == 't') {
+					if (result != null)
+						throw new DemangleException();
+					fPos += 2;
+					result = new NestedName(new NameNode("std"), parseUnqualifiedName(null)); //$NON-NLS-1$
+				} else if (c == 'S') {
+					if (result != null)
+						throw new DemangleException();
+					result = parseSubstitution();
+					continue;
+				} else if (c == 'I') {
+					if (result == null)
+						throw new DemangleException();
+					result = new NameWithTemplateArgs(result, parseTemplateArgs());
+				} else if (c == 'T') {
+					if (result != null)
+						throw new DemangleException();
+					result = parseTemplateParam();
+				} else if (c == 'D' && (peek(1) == 't' || peek(1) == 'T')) {
+					throw new DemangleException();
+				} else if (c == 'M') {
+					// Data member initializer of a closure
+					fPos++;
+					continue;
+				} else {
+					Node component = parseUnqualifiedName(result);
+					result = result == null ? component : new NestedName(result, component);
+				}
+				if (peek() != 'E')
+					fSubstitutions.add(result);
+			}
+			if (result == null)
+				throw new DemangleException();
+			return result;
+		}
+
+		private void parseCVQualifiers(StringBuilder quals) {
+			boolean isRestrict = consume('r');
+			boolean isVolatile = consume('V');
+			if (consume('K'))
+				quals.append(" const"); //$NON-NLS-1$
+			if (isVolatile)
+				quals.append(" volatile"); //$NON-NLS-1$
+			if (isRestrict)
+				quals.append(" restrict"); //$NON-NLS-1$
+		}
+
+		/**
+		 * Parses an unqualified name, the given scope is needed for constructors and destructors.
+		 */
+		private Node parseUnqualifiedName(Node scope) throws DemangleException {
+			char c = peek();
+			Node result;
+			if (Character.isDigit(c)) {
+				result = parseSourceName();
+			} else if (c == 'C' && (peek(1) >= '1' && peek(1) <= '5' || peek(1) == 'I')) {
+				if (scope == null)
+					throw new DemangleException();
+				fPos++;
+				if (consume('I')) {
+					// An inheriting constructor is named after the base class.
+					fPos++;
+					scope = parseType();
+				} else {
+					fPos++;
+				}
+				result = new CtorDtorName(scope, false);
+			} else if (c == 'D' && peek(1) >= '0' && peek(1) <= '5') {
+				if (scope == null)
+					throw new DemangleException();
+				fPos += 2;
+				result = new CtorDtorName(scope, true);
+			} else if (c == 'U') {
+				result = parseUnnamedTypeName();
+			} else if (c == 'L') {
+				// Internal linkage
+				fPos++;
+				result = parseSourceName();
+				parseDiscriminator();
+			} else {
+				result = parseOperatorName();
+			}
+			while (consume('B')) {
+				result = new AbiTagged(result, parseSourceIdentifier());
+			}
+			return result;
+		}
+
+		private Node parseUnnamedTypeName() throws DemangleException {
+			if (consume("Ut")) { //$NON-NLS-1$
+				String number = peek() == '_' ? "" : parseNumber(); //$NON-NLS-1$
+				expect('_');
+				return new UnnamedTypeName("{unnamed type#" + (number.isEmpty() ? 1 : Integer.parseInt(number) + 2) + '}'); //$NON-NLS-1$
+			}
+			if (consume("Ul")) { //$NON-NLS-1$
+				List<Node> parameters = parseBareFunctionParameters();
+				expect('E');
+				String number = peek() == '_' ? "" : parseNumber(); //$NON-NLS-1$
+				expect('_');
+				StringBuilder buf = new StringBuilder("{lambda("); //$NON-NLS-1$
+				printList(parameters, buf);
+				buf.append(")#").append(number.isEmpty() ? 1 : Integer.parseInt(number) + 2).append('}'); //$NON-NLS-1$
+				return new UnnamedTypeName(buf.toString());
+			}
+			throw new DemangleException();
+		}
+
+		private Node parseSourceName() throws DemangleException {
+			String identifier = parseSourceIdentifier();
+			if (identifier.startsWith("_GLOBAL_") && identifier.length() > 9 //$NON-NLS-1$
+					&& (identifier.charAt(8) == '.' || identifier.charAt(8) == '_' || identifier.charAt(8) == '$')
+					&& identifier.charAt(9) == 'N') {
+				return new NameNode("(anonymous namespace)"); //$NON-NLS-1$
+			}
+			return new NameNode(identifier);
+		}
+
+		private String parseSourceIdentifier() throws DemangleException {
+			int length = 0;
+			int start = fPos;
+			while (Character.isDigit(peek())) {
+				length = length * 10 + (peek() - '0');
+				if (length > fEnd)
+					throw new DemangleException();
+				fPos++;
+			}
+			if (fPos == start || length == 0 || fPos + length > fEnd)
+				throw new DemangleException();
+			String result = fInput.substring(fPos, fPos + length);
+			fPos += length;
+			return result;
+		}
+
+		private Node parseOperatorName() throws DemangleException {
+			if (consume("cv")) { //$NON-NLS-1$
+				boolean saveTag = fTagTemplates;
+				fTagTemplates = false;
+				try {
+					return new ConversionOperator(parseType());
+				} finally {
+					fTagTemplates = saveTag;
+				}
+			}
+			if (consume("li")) //$NON-NLS-1$
+				return new NameNode("operator\"\" " + parseSourceIdentifier()); //$NON-NLS-1$
+			if (peek() == 'v' && Character.isDigit(peek(1))) {
+				fPos += 2;
+				return new NameNode("operator " + parseSourceIdentifier()); //$NON-NLS-1$
+			}
+			for (String[] op : OPERATORS) {
+				if (consume(op[0])) {
+					String name = op[1];
+					if (Character.isLetter(name.charAt(0)))
+						return new NameNode("operator " + name); //$NON-NLS-1$
+					return new NameNode("operator" + name); //$NON-NLS-1$
+				}
+			}
+			throw new DemangleException();
+		}
+
+		private Node parseSubstitution() throws DemangleException {
+			expect('S');
+			char c = peek();
+			if (Character.isLowerCase(c)) {
+				fPos++;
+				switch (c) {
+				case 'a':
+					return new NameNode("std::allocator", "allocator"); //$NON-NLS-1$ //$NON-NLS-2$
+				case 'b':
+					return new NameNode("std::basic_string", "basic_string"); //$NON-NLS-1$ //$NON-NLS-2$
+				case 's':
+					return new NameNode("std::basic_string<char, std::char_traits<char>, std::allocator<char> >", //$NON-NLS-1$
+							"basic_string"); //$NON-NLS-1$
+				case 'i':
+					return new NameNode("std::basic_istream<char, std::char_traits<char> >", "basic_istream"); //$NON-NLS-1$ //$NON-NLS-2$
+				case 'o':
+					return new NameNode("std::basic_ostream<char, std::char_traits<char> >", "basic_ostream"); //$NON-NLS-1$ //$NON-NLS-2$
+				case 'd':
+					return new NameNode("std::basic_iostream<char, std::char_traits<char> >", "basic_iostream"); //$NON-NLS-1$ //$NON-NLS-2$
+				default:
+					throw new DemangleException();
+				}
+			}
+			int index = 0;
+			if (c != '_')
+				index = parseSeqId() + 1;
+			expect('_');
+			if (index >= fSubstitutions.size())
+				throw new DemangleException();
+			Node result = fSubstitutions.get(index);
+			if (result instanceof TemplateParamSubstitution)
+				return resolveTemplateParam(((TemplateParamSubstitution) result).fIndex);
+			return result;
+		}
+
+		private Node parseTemplateParam() throws DemangleException {
+			return resolveTemplateParam(parseTemplateParamIndex());
+		}
+
+		private int parseTemplateParamIndex() throws DemangleException {
+			expect('T');
+			int index = 0;
+			if (peek() != '_')
+				index = parseSeqId() + 1;
+			expect('_');
+			return index;
+		}
+
+		/**
+		 * Returns the template argument for the given parameter in the current context.
+		 */
+		private Node resolveTemplateParam(int index) throws DemangleException {
+			if (index >= fTemplateParams.size())
+				throw new DemangleException();
+			Node param = fTemplateParams.get(index);
+			if (param instanceof NodeList && fPackSize != -2) {
+				// A parameter pack within a pack expansion
+				List<Node> pack = ((NodeList) param).fNodes;
+				if (fPackIndex < 0) {
+					fPackSize = pack.size();
+				} else if (fPackIndex < pack.size()) {
+					return pack.get(fPackIndex);
+				}
+			}
+			return param;
+		}
+
+		private TemplateArgs parseTemplateArgs() throws DemangleException {
+			enter();
+			try {
+				expect('I');
+				boolean tag = fTagTemplates;
+				fTagTemplates = false;
+				List<Node> args = new ArrayList<>();
+				try {
+					while (!consume('E')) {
+						args.add(parseTemplateArg());
+					}
+				} finally {
+					fTagTemplates = tag;
+				}
+				if (tag)
+					fTemplateParams = args;
+				return new TemplateArgs(args);
+			} finally {
+				fDepth--;
+			}
+		}
+
+		private Node parseTemplateArg() throws DemangleException {
+			char c = peek();
+			if (c == 'L')
+				return parseLiteral();
+			if (c == 'J') {
+				fPos++;
+				List<Node> pack = new ArrayList<>();
+				while (!consume('E')) {
+					pack.add(parseTemplateArg());
+				}
+				return new NodeList(pack);
+			}
+			if (c == 'X')
+				throw new DemangleException(); // Expressions are not supported.
+			return parseType();
+		}
+
+		private Node parseLiteral() throws DemangleException {
+			expect('L');
+			if (consume("_Z")) { //$NON-NLS-1$
+				Node encoding = parseEncoding();
+				expect('E');
+				return encoding;
+			}
+			if (consume("DnE")) //$NON-NLS-1$
+				return new NameNode("nullptr"); //$NON-NLS-1$
+			Node type = parseType();
+			String typeName = type.toString();
+			int start = fPos;
+			consume('n');
+			while (fPos < fEnd && peek() != 'E')
+				fPos++;
+			String value = fInput.substring(start, fPos);
+			expect('E');
+			if (value.startsWith("n")) //$NON-NLS-1$
+				value = '-' + value.substring(1);
+			switch (typeName) {
+			case "bool": //$NON-NLS-1$
+				if (value.equals("0")) //$NON-NLS-1$
+					return new NameNode("false"); //$NON-NLS-1$
+				if (value.equals("1")) //$NON-NLS-1$
+					return new NameNode("true"); //$NON-NLS-1$
+				break;
+			case "int": //$NON-NLS-1$
+				return new NameNode(value);
+			case "unsigned int": //$NON-NLS-1$
+				return new NameNode(value + 'u');
+			case "long": //$NON-NLS-1$
+				return new NameNode(value + 'l');
+			case "unsigned long": //$NON-NLS-1$
+				return new NameNode(value + "ul"); //$NON-NLS-1$
+			case "long long": //$NON-NLS-1$
+				return new NameNode(value + "ll"); //$NON-NLS-1$
+			case "unsigned long long": //$NON-NLS-1$
+				return new NameNode(value + "ull"); //$NON-NLS-1$
+			default:
+				break;
+			}
+			return new NameNode('(' + typeName + ')' + value);
+		}
+
+		private Node parseType() throws DemangleException {
+			enter();
+			try {
+				return doParseType();
+			} finally {
+				fDepth--;
+			}
+		}
+
+		private Node doParseType() throws DemangleException {
+			char c = peek();
+			Node result;
+			switch (c) {
+			case 'r':
+			case 'V':
+			case 'K': {
+				StringBuilder quals = new StringBuilder();
+				parseCVQualifiers(quals);
+				if (peek() == 'F') {
+					// The qualifiers of a member function are part of the function type.
+					result = parseFunctionType(quals.toString());
+				} else {
+					result = createQualifiedType(parseType(), quals.toString());
+				}
+				break;
+			}
+			case 'P':
+				fPos++;
+				result = new PointerType(parseType(), "*"); //$NON-NLS-1$
+				break;
+			case 'R':
+				fPos++;
+				result = createReference(parseType(), false);
+				break;
+			case 'O':
+				fPos++;
+				result = createReference(parseType(), true);
+				break;
+			case 'C':
+				fPos++;
+				result = new QualifiedType(parseType(), " _Complex"); //$NON-NLS-1$
+				break;
+			case 'G':
+				fPos++;
+				result = new QualifiedType(parseType(), " _Imaginary"); //$NON-NLS-1$
+				break;
+			case 'F':
+				result = parseFunctionType();
+				break;
+			case 'A':
+				result = parseArrayType();
+				break;
+			case 'M': {
+				fPos++;
+				Node classType = parseType();
+				Node memberType = parseType();
+				result = new PointerToMemberType(classType, memberType);
+				break;
+			}
+			case 'T': {
+				int index = parseTemplateParamIndex();
+				result = resolveTemplateParam(index);
+				// The candidate stands for the parameter, not for its current argument.
+				fSubstitutions.add(new TemplateParamSubstitution(index));
+				if (peek() != 'I')
+					return result;
+				result = new NameWithTemplateArgs(result, parseTemplateArgs());
+				break;
+			}
+			case 'S': {
+				if (peek(1) == 't') {
+					result = parseName(null);
+					break;
+				}
+				result = parseSubstitution();
+				if (peek() != 'I')
+					return result; // Not a new substitution candidate
+				result = new NameWithTemplateArgs(result, parseTemplateArgs());
+				break;
+			}
+			case 'D': {
+				Node builtin = parseBuiltinD();
+				if (builtin != null)
+					return builtin;
+				if (consume("Dp")) { //$NON-NLS-1$
+					result = parsePackExpansion();
+					break;
+				}
+				throw new DemangleException();
+			}
+			case 'u':
+				fPos++;
+				return new NameNode(parseSourceIdentifier());
+			case 'N':
+			case 'Z':
+			case '0': case '1': case '2': case '3': case '4':
+			case '5': case '6': case '7': case '8': case '9':
+				result = parseName(null);
+				break;
+			default: {
+				String builtin = getBuiltinType(c);
+				if (builtin == null)
+					throw new DemangleException();
+				fPos++;
+				return new NameNode(builtin);
+			}
+			}
+			fSubstitutions.add(result);
+			return result;
+		}
+
+		private static String getBuiltinType(char c) {
+			switch (c) {
+			case 'v': return "void"; //$NON-NLS-1$
+			case 'w': return "wchar_t"; //$NON-NLS-1$
+			case 'b': return "bool"; //$NON-NLS-1$
+			case 'c': return "char"; //$NON-NLS-1$
+			case 'a': return "signed char"; //$NON-NLS-1$
+			case 'h': return "unsigned char"; //$NON-NLS-1$
+			case 's': return "short"; //$NON-NLS-1$
+			case 't': return "unsigned short"; //$NON-NLS-1$
+			case 'i': return "int"; //$NON-NLS-1$
+			case 'j': return "unsigned int"; //$NON-NLS-1$
+			case 'l': return "long"; //$NON-NLS-1$
+			case 'm': return "unsigned long"; //$NON-NLS-1$
+			case 'x': return "long long"; //$NON-NLS-1$
+			case 'y': return "unsigned long long"; //$NON-NLS-1$
+			case 'n': return "__int128"; //$NON-NLS-1$
+			case 'o': return "unsigned __int128"; //$NON-NLS-1$
+			case 'f': return "float"; //$NON-NLS-1$
+			case 'd': return "double"; //$NON-NLS-1$
+			case 'e': return "long double"; //$NON-NLS-1$
+			case 'g': return "__float128"; //$NON-NLS-1$
+			case 'z': return "..."; //$NON-NLS-1$
+			default: return null;
+			}
+		}
+
+		private Node parseBuiltinD() {
+			String name;
+			switch (peek(1)) {
+			case 'd': name = "decimal64"; break; //$NON-NLS-1$
+			case 'e': name = "decimal128"; break; //$NON-NLS-1$
+			case 'f': name = "decimal32"; break; //$NON-NLS-1$
+			case 'h': name = "half"; break; //$NON-NLS-1$
+			case 'i': name = "char32_t"; break; //$NON-NLS-1$
+			case 's': name = "char16_t"; break; //$NON-NLS-1$
+			case 'u': name = "char8_t"; break; //$NON-NLS-1$
+			case 'a': name = "auto"; break; //$NON-NLS-1$
+			case 'c': name = "decltype(auto)"; break; //$NON-NLS-1$
+			case 'n': name = "decltype(nullptr)"; break; //$NON-NLS-1$
+			default: return null;
+			}
+			fPos += 2;
+			return new NameNode(name);
+		}
+
+		/**
+		 * Creates a cv-qualified type. Qualifiers of an array type apply to its elements and
+		 * qualifiers that are already present are not repeated.
+		 */
+		private static Node createQualifiedType(Node type, String qualifiers) {
+			if (type instanceof ArrayType) {
+				ArrayType array = (ArrayType) type;
+				return new ArrayType(createQualifiedType(array.fElementType, qualifiers), array.fDimension);
+			}
+			if (type instanceof QualifiedType) {
+				QualifiedType qualified = (QualifiedType) type;
+				StringBuilder buf = new StringBuilder(qualified.fQualifiers);
+				for (String qualifier : QUALIFIERS) {
+					if (qualifiers.contains(qualifier) && !qualified.fQualifiers.contains(qualifier))
+						buf.append(qualifier);
+				}
+				return new QualifiedType(qualified.fType, buf.toString());
+			}
+			return new QualifiedType(type, qualifiers);
+		}
+
+		/**
+		 * Creates a reference type, references to references collapse.
+		 */
+		private static Node createReference(Node type, boolean rvalue) {
+			if (type instanceof PointerType) {
+				PointerType ref = (PointerType) type;
+				if (ref.fOperator.equals("&")) //$NON-NLS-1$
+					return ref;
+				if (ref.fOperator.equals("&&")) //$NON-NLS-1$
+					return rvalue ? ref : new PointerType(ref.fPointee, "&"); //$NON-NLS-1$
+			}
+			return new PointerType(type, rvalue ? "&&" : "&"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		/**
+		 * Parses the type of a pack expansion once for every element of the expanded pack.
+		 */
+		private Node parsePackExpansion() throws DemangleException {
+			int start = fPos;
+			int subs = fSubstitutions.size();
+			int saveIndex = fPackIndex;
+			int saveSize = fPackSize;
+			try {
+				fPackIndex = -1;
+				fPackSize = -1;
+				Node pattern = parseType();
+				if (fPackSize < 0)
+					return pattern;
+				int end = fPos;
+				List<Node> candidates = new ArrayList<>(fSubstitutions.subList(subs, fSubstitutions.size()));
+				List<Node> elements = new ArrayList<>(fPackSize);
+				for (int i = 0; i < fPackSize; i++) {
+					fSubstitutions.subList(subs, fSubstitutions.size()).clear();
+					fPos = start;
+					fPackIndex = i;
+					elements.add(parseType());
+				}
+				fSubstitutions.subList(subs, fSubstitutions.size()).clear();
+				fPos = end;
+				fSubstitutions.addAll(candidates);
+				return new NodeList(elements);
+			} finally {
+				fPackIndex = saveIndex;
+				fPackSize = saveSize;
+			}
+		}
+
+		private Node parseFunctionType() throws DemangleException {
+			return parseFunctionType(""); //$NON-NLS-1$
+		}
+
+		private Node parseFunctionType(String cvQualifiers) throws DemangleException {
+			expect('F');
+			consume('Y'); // extern "C"
+			Node returnType = parseType();
+			List<Node> parameters = new ArrayList<>();
+			if (peek() == 'v' && (peek(1) == 'E' || peek(1) == 'R' || peek(1) == 'O')) {
+				fPos++;
+			}
+			while (peek() != 'E' && !((peek() == 'R' || peek() == 'O') && peek(1) == 'E')) {
+				if (fPos >= fEnd)
+					throw new DemangleException();
+				parameters.add(parseType());
+			}
+			String qualifiers = cvQualifiers;
+			if (consume('R')) {
+				qualifiers += " &"; //$NON-NLS-1$
+			} else if (consume('O')) {
+				qualifiers += " &&"; //$NON-NLS-1$
+			}
+			expect('E');
+			return new FunctionType(returnType, parameters, qualifiers);
+		}
+
+		private Node parseArrayType() throws DemangleException {
+			expect('A');
+			String dimension = ""; //$NON-NLS-1$
+			if (Character.isDigit(peek())) {
+				dimension = parseNumber();
+			} else if (peek() != '_') {
+				throw new DemangleException(); // Expressions are not supported.
+			}
+			expect('_');
+			return new ArrayType(parseType(), dimension);
+		}
+	}
+}
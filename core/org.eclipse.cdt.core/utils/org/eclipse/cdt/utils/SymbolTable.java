@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.eclipse.cdt.core.IBinaryParser.ISymbol;
+
+/**
+ * The symbols of a binary stored in parallel primitive arrays sorted by address. The names
+ * share a single UTF-8 encoded pool, <code>String</code> and {@link ISymbol} objects are only
+ * created when they are asked for. Addresses are treated as unsigned values.
+ * <p>
+ * Tables are built with a {@link Builder} and are immutable.
+ *
+ * @since 6.4
+ */
+public final class SymbolTable {
+	/** A table without symbols */
+	public static final SymbolTable EMPTY = new SymbolTable(new long[0], new long[0], new byte[0], new int[1], new byte[0]);
+
+	private final long[] fAddresses;
+	private final long[] fSizes;
+	private final byte[] fTypes;
+	/** Start of the name of each symbol in fNamePool, followed by the end of the pool */
+	private final int[] fNameOffsets;
+	private final byte[] fNamePool;
+
+	private SymbolTable(long[] addresses, long[] sizes, byte[] types, int[] nameOffsets, byte[] namePool) {
+		fAddresses = addresses;
+		fSizes = sizes;
+		fTypes = types;
+		fNameOffsets = nameOffsets;
+		fNamePool = namePool;
+	}
+
+	/**
+	 * Returns the number of symbols.
+	 */
+	public int size() {
+		return fAddresses.length;
+	}
+
+	/**
+	 * Returns the address of the symbol at the given index.
+	 */
+	public long getAddress(int index) {
+		return fAddresses[index];
+	}
+
+	/**
+	 * Returns the size of the symbol at the given index.
+	 */
+	public long getSize(int index) {
+		return fSizes[index];
+	}
+
+	/**
+	 * Returns the type of the symbol at the given index, one of the constants of {@link ISymbol}.
+	 */
+	public int getType(int index) {
+		return fTypes[index];
+	}
+
+	/**
+	 * Returns the name of the symbol at the given index.
+	 */
+	public String getName(int index) {
+		int start = fNameOffsets[index];
+		return new String(fNamePool, start, fNameOffsets[index + 1] - start, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Returns the index of the symbol for the given address. That is the first symbol starting at
+	 * the address, or else the last symbol before the address if the address is within its size.
+	 *
+	 * @return the index of the symbol or <code>-1</code> if there is none
+	 */
+	public int indexOf(long address) {
+		int low = 0;
+		int high = fAddresses.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (Long.compareUnsigned(fAddresses[mid], address) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		// low is the first symbol at or after the address, high the last one before
+		if (low < fAddresses.length && fAddresses[low] == address)
+			return low;
+		if (high >= 0 && Long.compareUnsigned(address - fAddresses[high], fSizes[high]) < 0)
+			return high;
+		return -1;
+	}
+
+	/**
+	 * Compares two indexes into parallel arrays.
+	 */
+	public interface IndexComparator {
+		int compare(int index1, int index2);
+	}
+
+	/**
+	 * Returns the indexes from <code>0</code> to <code>size - 1</code> in the order defined by
+	 * the comparator. The sort is a stable merge sort that does not box the indexes, such that
+	 * tables with millions of entries can be sorted without creating an object per entry.
+	 */
+	public static int[] sortIndexes(int size, IndexComparator comparator) {
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		int[] buffer = new int[size];
+		for (int width = 1; width < size; width *= 2) {
+			for (int low = 0; low < size; low += 2 * width) {
+				int mid = Math.min(low + width, size);
+				int high = Math.min(low + 2 * width, size);
+				int left = low;
+				int right = mid;
+				for (int i = low; i < high; i++) {
+					if (left < mid && (right >= high || comparator.compare(order[left], order[right]) <= 0)) {
+						buffer[i] = order[left++];
+					} else {
+						buffer[i] = order[right++];
+					}
+				}
+			}
+			int[] tmp = order;
+			order = buffer;
+			buffer = tmp;
+		}
+		return order;
+	}
+
+	/**
+	 * Collects symbols in any order, {@link #build()} sorts them by address.
+	 */
+	public static final class Builder {
+		private long[] fAddresses = new long[256];
+		private long[] fSizes = new long[256];
+		private byte[] fTypes = new byte[256];
+		private int[] fNameOffsets = new int[257];
+		private byte[] fNamePool = new byte[4096];
+		private int fSize;
+
+		/**
+		 * Adds a symbol.
+		 *
+		 * @param address the start address
+		 * @param size the size in bytes, may be 0 if unknown
+		 * @param name the name of the symbol
+		 * @param type one of the constants of {@link ISymbol}
+		 */
+		public void add(long address, long size, String name, int type) {
+			if (fSize == fAddresses.length) {
+				int newLength = fSize * 2;
+				fAddresses = Arrays.copyOf(fAddresses, newLength);
+				fSizes = Arrays.copyOf(fSizes, newLength);
+				fTypes = Arrays.copyOf(fTypes, newLength);
+				fNameOffsets = Arrays.copyOf(fNameOffsets, newLength + 1);
+			}
+			byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+			int offset = fNameOffsets[fSize];
+			if (offset + bytes.length > fNamePool.length) {
+				fNamePool = Arrays.copyOf(fNamePool, Math.max(fNamePool.length * 2, offset + bytes.length));
+			}
+			System.arraycopy(bytes, 0, fNamePool, offset, bytes.length);
+			fAddresses[fSize] = address;
+			fSizes[fSize] = size;
+			fTypes[fSize] = (byte) type;
+			fNameOffsets[fSize + 1] = offset + bytes.length;
+			fSize++;
+		}
+
+		/**
+		 * Returns the number of symbols added so far.
+		 */
+		public int size() {
+			return fSize;
+		}
+
+		/**
+		 * Creates the table. Symbols with the same address keep the order in which they were added.
+		 * Compilers generate several function symbols without a size for the same address, such a
+		 * function symbol is dropped if a symbol with the same address was added before it.
+		 */
+		public SymbolTable build() {
+			if (fSize == 0)
+				return EMPTY;
+
+			int[] order = sort();
+			long[] addresses = new long[fSize];
+			long[] sizes = new long[fSize];
+			byte[] types = new byte[fSize];
+			int[] nameOffsets = new int[fSize + 1];
+			byte[] namePool = new byte[fNameOffsets[fSize]];
+			int size = 0;
+			for (int i = 0; i < fSize; i++) {
+				int symbol = order[i];
+				if (size > 0 && addresses[size - 1] == fAddresses[symbol] && fSizes[symbol] == 0
+						&& fTypes[symbol] == ISymbol.FUNCTION) {
+					continue;
+				}
+				int start = fNameOffsets[symbol];
+				int length = fNameOffsets[symbol + 1] - start;
+				System.arraycopy(fNamePool, start, namePool, nameOffsets[size], length);
+				addresses[size] = fAddresses[symbol];
+				sizes[size] = fSizes[symbol];
+				types[size] = fTypes[symbol];
+				nameOffsets[size + 1] = nameOffsets[size] + length;
+				size++;
+			}
+			if (size < fSize) {
+				addresses = Arrays.copyOf(addresses, size);
+				sizes = Arrays.copyOf(sizes, size);
+				types = Arrays.copyOf(types, size);
+				nameOffsets = Arrays.copyOf(nameOffsets, size + 1);
+				namePool = Arrays.copyOf(namePool, nameOffsets[size]);
+			}
+			return new SymbolTable(addresses, sizes, types, nameOffsets, namePool);
+		}
+
+		/**
+		 * Returns the indexes of the symbols ordered by address.
+		 */
+		private int[] sort() {
+			return sortIndexes(fSize, (i1, i2) -> Long.compareUnsigned(fAddresses[i1], fAddresses[i2]));
+		}
+	}
+}
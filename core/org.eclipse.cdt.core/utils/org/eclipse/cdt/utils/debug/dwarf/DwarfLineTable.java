@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.utils.debug.dwarf;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.cdt.utils.SymbolTable;
+import org.eclipse.cdt.utils.elf.Elf;
+
+/**
+ * Maps addresses of a binary to source files and line numbers, computed from the line number
+ * programs in the .debug_line section. The rows are kept in primitive arrays sorted by address,
+ * a lookup is a binary search. Addresses are treated as unsigned values.
+ * <p>
+ * Tables of binaries are cached, see {@link #getLineTable(String)}.
+ *
+ * @since 6.4
+ */
+public class DwarfLineTable {
+	private static final Map<String, SoftReference<DwarfLineTable>> fgCache = new HashMap<>();
+
+	/** Start addresses of the rows, sorted and unique */
+	private final long[] fAddresses;
+	/** Line numbers of the rows, 0 for the end of a sequence */
+	private final int[] fLines;
+	/** Indexes into fFileNames */
+	private final int[] fFiles;
+	private final String[] fFileNames;
+	private long fFileSize;
+	private long fLastModified;
+
+	DwarfLineTable(long[] addresses, int[] lines, int[] files, String[] fileNames) {
+		fAddresses = addresses;
+		fLines = lines;
+		fFiles = files;
+		fFileNames = fileNames;
+	}
+
+	/**
+	 * Returns the line table of the given binary. The table is computed only once as long as
+	 * the binary does not change and the table is not reclaimed by the garbage collector.
+	 *
+	 * @param path the path of an Elf binary
+	 * @return the line table, or <code>null</code> if the binary has no DWARF line information or
+	 *     the table is empty
+	 * @throws IOException if the binary cannot be read
+	 */
+	public static DwarfLineTable getLineTable(String path) throws IOException {
+		File file = new File(path);
+		long size = file.length();
+		long lastModified = file.lastModified();
+		synchronized (fgCache) {
+			SoftReference<DwarfLineTable> ref = fgCache.get(path);
+			DwarfLineTable table = ref == null ? null : ref.get();
+			if (table != null && table.fFileSize == size && table.fLastModified == lastModified)
+				return table.size() == 0 ? null : table;
+		}
+
+		Elf elf = new Elf(path, 0, true);
+		DwarfLineTable table = null;
+		try {
+			table = new DwarfReader(elf).getLineTable();
+		} catch (IOException e) {
+			// No DWARF data
+		} finally {
+			elf.dispose();
+		}
+		if (table == null) {
+			// Remember binaries without line information, too. Otherwise every query would
+			// read the binary again.
+			table = new DwarfLineTable(new long[0], new int[0], new int[0], new String[0]);
+		}
+		table.fFileSize = size;
+		table.fLastModified = lastModified;
+		synchronized (fgCache) {
+			fgCache.put(path, new SoftReference<>(table));
+		}
+		return table.size() == 0 ? null : table;
+	}
+
+	/**
+	 * Returns the number of rows of the table.
+	 */
+	public int size() {
+		return fAddresses.length;
+	}
+
+	/**
+	 * Returns the line number for the given address or <code>-1</code> if it is not covered
+	 * by the table.
+	 */
+	public int getLineNumber(long address) {
+		int row = findRow(address);
+		return row < 0 ? -1 : fLines[row];
+	}
+
+	/**
+	 * Returns the full path of the source file for the given address or <code>null</code> if
+	 * it is not covered by the table.
+	 */
+	public String getFileName(long address) {
+		int row = findRow(address);
+		return row < 0 ? null : fFileNames[fFiles[row]];
+	}
+
+	/**
+	 * Returns the line numbers for the given addresses, <code>-1</code> for addresses that are
+	 * not covered by the table.
+	 */
+	public int[] getLineNumbers(long[] addresses) {
+		int[] result = new int[addresses.length];
+		for (int i = 0; i < addresses.length; i++) {
+			result[i] = getLineNumber(addresses[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the full paths of the source files for the given addresses, <code>null</code> for
+	 * addresses that are not covered by the table.
+	 */
+	public String[] getFileNames(long[] addresses) {
+		String[] result = new String[addresses.length];
+		for (int i = 0; i < addresses.length; i++) {
+			result[i] = getFileName(addresses[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the last row that starts at or before the given address, or -1 if there is none
+	 * or the address lies in a gap between two sequences.
+	 */
+	private int findRow(long address) {
+		int low = 0;
+		int high = fAddresses.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = Long.compareUnsigned(fAddresses[mid], address);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return fLines[mid] == 0 ? -1 : mid;
+			}
+		}
+		// high is the last row before the address
+		if (high < 0 || fLines[high] == 0)
+			return -1;
+		return high;
+	}
+
+	/**
+	 * Collects the rows of the line number programs.
+	 */
+	static class Builder {
+		private final List<String> fFileNames = new ArrayList<>();
+		private final Map<String, Integer> fFileIndexes = new HashMap<>();
+		private long[] fAddresses = new long[1024];
+		private int[] fLines = new int[1024];
+		private int[] fFiles = new int[1024];
+		private int fSize;
+
+		/**
+		 * Returns the index of the given file name to be passed to {@link #addRow(long, int, int)}.
+		 */
+		int addFile(String fileName) {
+			Integer index = fFileIndexes.get(fileName);
+			if (index == null) {
+				index = fFileNames.size();
+				fFileNames.add(fileName);
+				fFileIndexes.put(fileName, index);
+			}
+			return index;
+		}
+
+		/**
+		 * Adds a row, a line number of 0 marks the end of a sequence.
+		 */
+		void addRow(long address, int file, int line) {
+			if (fSize == fAddresses.length) {
+				int newLength = fSize * 2;
+				fAddresses = Arrays.copyOf(fAddresses, newLength);
+				fLines = Arrays.copyOf(fLines, newLength);
+				fFiles = Arrays.copyOf(fFiles, newLength);
+			}
+			fAddresses[fSize] = address;
+			fLines[fSize] = line;
+			fFiles[fSize] = file;
+			fSize++;
+		}
+
+		DwarfLineTable build() {
+			// Sort by address. For rows with the same address the start of a sequence takes
+			// precedence over the end of the previous one, otherwise the last row wins.
+			int[] order = SymbolTable.sortIndexes(fSize, (i1, i2) -> {
+				int cmp = Long.compareUnsigned(fAddresses[i1], fAddresses[i2]);
+				if (cmp == 0) {
+					boolean end1 = fLines[i1] == 0;
+					boolean end2 = fLines[i2] == 0;
+					if (end1 != end2)
+						return end1 ? -1 : 1;
+				}
+				return cmp;
+			});
+
+			long[] addresses = new long[fSize];
+			int[] lines = new int[fSize];
+			int[] files = new int[fSize];
+			int size = 0;
+			for (int i = 0; i < fSize; i++) {
+				int row = order[i];
+				if (size > 0 && addresses[size - 1] == fAddresses[row]) {
+					size--;
+				}
+				addresses[size] = fAddresses[row];
+				lines[size] = fLines[row];
+				files[size] = fFiles[row];
+				size++;
+			}
+			return new DwarfLineTable(Arrays.copyOf(addresses, size), Arrays.copyOf(lines, size),
+					Arrays.copyOf(files, size), fFileNames.toArray(new String[fFileNames.size()]));
+		}
+	}
+}
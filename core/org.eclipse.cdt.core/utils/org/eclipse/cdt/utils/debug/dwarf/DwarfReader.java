@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2016 Nokia and others.
+ * Copyright (c) 2007, 2017 Nokia and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -59,6 +59,8 @@ public class DwarfReader extends Dwarf implements ISymbolReader, ICompileOptions
 
 	private final Collection<String>	m_fileCollection = new HashSet<String>();
 	private final Map<Long, String>  m_stmtFileMap = new HashMap<Long, String>();
+	private final Map<Integer, String> m_stmtCompDirMap = new HashMap<Integer, String>();
+	private DwarfLineTable m_lineTable = null;
 	private final Map<String, ArrayList<String>> m_compileOptionsMap = new HashMap<String, ArrayList<String>>();
 	private String[] 	m_fileNames = null;
 	private boolean		m_parsed = false;
@@ -643,8 +645,10 @@ public class DwarfReader extends Dwarf implements ISymbolReader, ICompileOptions
 		}
 
 		addSourceFileWithStmt(cuCompDir, cuName, stmtList);
-		if (stmtList > -1)	// this CU has "stmt_list" attribute
+		if (stmtList > -1) {	// this CU has "stmt_list" attribute
+			m_stmtCompDirMap.put(Integer.valueOf(stmtList), cuCompDir);
 			parseSourceInCULineInfo(cuCompDir, stmtList);
+		}
 	}
 	
 	/**
@@ -655,6 +659,197 @@ public class DwarfReader extends Dwarf implements ISymbolReader, ICompileOptions
 		return getSourceFiles();
 	}
 
+	/**
+	 * Returns the table that maps addresses to source lines, computed by running the line
+	 * number programs of all compilation units in the .debug_line section.
+	 *
+	 * @return the line table or <code>null</code> if there is no .debug_line section
+	 * @see DwarfLineTable#getLineTable(String)
+	 * @since 6.4
+	 */
+	public DwarfLineTable getLineTable() {
+		if (m_lineTable == null) {
+			ByteBuffer data = dwarfSections.get(DWARF_DEBUG_LINE);
+			if (data == null)
+				return null;
+
+			// Collect the compilation directories of the line tables.
+			getSourceFiles();
+
+			DwarfLineTable.Builder builder = new DwarfLineTable.Builder();
+			int sectionSize = data.capacity();
+			int lineTableStart = 0;
+			try {
+				while (lineTableStart < sectionSize) {
+					data.position(lineTableStart);
+					InitialLengthValue length = readInitialLengthField(data);
+					if (length.length == 0)
+						break;
+					int programEnd = (int) (data.position() + length.length);
+					if (programEnd > sectionSize || programEnd <= lineTableStart)
+						break;
+					String compDir = m_stmtCompDirMap.get(Integer.valueOf(lineTableStart));
+					runLineNumberProgram(data, length.offsetSize == 8, programEnd,
+							compDir == null ? "" : compDir, builder); //$NON-NLS-1$
+					lineTableStart = programEnd;
+				}
+			} catch (IOException | RuntimeException e) {
+				// Use the rows collected so far.
+			}
+			m_lineTable = builder.build();
+		}
+		return m_lineTable;
+	}
+
+	/**
+	 * Runs the line number program of one compilation unit, the data is positioned after the
+	 * unit length.
+	 */
+	private void runLineNumberProgram(ByteBuffer data, boolean dwarf64Bit, int programEnd, String compDir,
+			DwarfLineTable.Builder builder) throws IOException {
+		int version = read_2_bytes(data) & 0xffff;
+		if (version < 2 || version > 4)
+			return; // Only versions 2 to 4 are supported.
+		long headerLength = dwarf64Bit ? read_8_bytes(data) : read_4_bytes(data) & 0xffffffffL;
+		int programStart = (int) (data.position() + headerLength);
+		int minInstructionLength = data.get() & 0xff;
+		if (version >= 4)
+			data.get(); // maximum_operations_per_instruction
+		data.get(); // default_is_stmt, irrelevant for mapping addresses to lines
+		int lineBase = data.get();
+		int lineRange = data.get() & 0xff;
+		int opcodeBase = data.get() & 0xff;
+		if (lineRange == 0)
+			return;
+		int[] standardOpcodeLengths = new int[opcodeBase];
+		for (int i = 1; i < opcodeBase; i++) {
+			standardOpcodeLengths[i] = data.get() & 0xff;
+		}
+
+		List<String> dirs = new ArrayList<String>();
+		dirs.add(compDir);
+		while (true) {
+			String dir = readString(data);
+			if (dir.length() == 0)
+				break;
+			dirs.add(dir);
+		}
+		// File indexes start at 1.
+		List<Integer> files = new ArrayList<Integer>();
+		files.add(Integer.valueOf(-1));
+		while (true) {
+			String fileName = readString(data);
+			if (fileName.length() == 0)
+				break;
+			files.add(Integer.valueOf(addLineTableFile(builder, dirs, compDir, fileName, read_unsigned_leb128(data))));
+			read_unsigned_leb128(data); // modification time
+			read_unsigned_leb128(data); // file size
+		}
+
+		data.position(programStart);
+		long address = 0;
+		int file = 1;
+		int line = 1;
+		while (data.position() < programEnd) {
+			int opcode = data.get() & 0xff;
+			if (opcode >= opcodeBase) {
+				int adjusted = opcode - opcodeBase;
+				address += (adjusted / lineRange) * minInstructionLength;
+				line += lineBase + adjusted % lineRange;
+				addLineTableRow(builder, files, address, file, line);
+				continue;
+			}
+			switch (opcode) {
+			case 0: {
+				int length = (int) read_unsigned_leb128(data);
+				int next = data.position() + length;
+				int extendedOpcode = data.get() & 0xff;
+				switch (extendedOpcode) {
+				case DwarfConstants.DW_LNE_end_sequence:
+					builder.addRow(address, 0, 0);
+					address = 0;
+					file = 1;
+					line = 1;
+					break;
+				case DwarfConstants.DW_LNE_set_address:
+					address = readLineTableAddress(data, length - 1);
+					break;
+				case DwarfConstants.DW_LNE_define_file: {
+					String fileName = readString(data);
+					files.add(Integer.valueOf(addLineTableFile(builder, dirs, compDir, fileName, read_unsigned_leb128(data))));
+					break;
+				}
+				default:
+					break;
+				}
+				data.position(next);
+				break;
+			}
+			case DwarfConstants.DW_LNS_copy:
+				addLineTableRow(builder, files, address, file, line);
+				break;
+			case DwarfConstants.DW_LNS_advance_pc:
+				address += read_unsigned_leb128(data) * minInstructionLength;
+				break;
+			case DwarfConstants.DW_LNS_advance_line:
+				line += (int) read_signed_leb128(data);
+				break;
+			case DwarfConstants.DW_LNS_set_file:
+				file = (int) read_unsigned_leb128(data);
+				break;
+			case DwarfConstants.DW_LNS_const_add_pc:
+				address += ((255 - opcodeBase) / lineRange) * minInstructionLength;
+				break;
+			case DwarfConstants.DW_LNS_fixed_advance_pc:
+				address += read_2_bytes(data) & 0xffff;
+				break;
+			default:
+				// Skip the operands of the remaining standard opcodes.
+				for (int i = 0; i < standardOpcodeLengths[opcode]; i++) {
+					read_unsigned_leb128(data);
+				}
+				break;
+			}
+		}
+	}
+
+	private int addLineTableFile(DwarfLineTable.Builder builder, List<String> dirs, String compDir,
+			String fileName, long dirIndex) {
+		String dir = dirIndex >= 0 && dirIndex < dirs.size() ? dirs.get((int) dirIndex) : ""; //$NON-NLS-1$
+		IPath path = new Path(fileName);
+		if (!path.isAbsolute() && dir.length() > 0) {
+			IPath dirPath = new Path(dir);
+			// Directories other than the compilation directory may be relative to it.
+			if (!dirPath.isAbsolute() && compDir.length() > 0)
+				dirPath = new Path(compDir).append(dirPath);
+			path = dirPath.append(path);
+		}
+		return builder.addFile(path.toOSString());
+	}
+
+	private void addLineTableRow(DwarfLineTable.Builder builder, List<Integer> files, long address, int file,
+			int line) {
+		if (file > 0 && file < files.size() && line > 0) {
+			builder.addRow(address, files.get(file).intValue(), line);
+		}
+	}
+
+	private long readLineTableAddress(ByteBuffer data, int size) throws IOException {
+		switch (size) {
+		case 2:
+			return read_2_bytes(data) & 0xffffL;
+		case 4:
+			return read_4_bytes(data) & 0xffffffffL;
+		case 8: {
+			long first = read_4_bytes(data) & 0xffffffffL;
+			long second = read_4_bytes(data) & 0xffffffffL;
+			return isLE ? (second << 32) | first : (first << 32) | second;
+		}
+		default:
+			throw new IOException(CCorePlugin.getResourceString("Util.exception.missingBytes")); //$NON-NLS-1$
+		}
+	}
+
 	private class OpcodeInfo {
 		private int numArgs;
 		private final boolean offset_size_8;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 QNX Software Systems and others.
+ * Copyright (c) 2000, 2017 QNX Software Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -28,7 +28,10 @@ import org.eclipse.cdt.utils.debug.dwarf.DwarfReader;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -54,6 +57,12 @@ public class Elf {
 	private Symbol[] dynsym_symbols;
 	private Section dynsym_sym;
 	private boolean sections_mapped; // Have sections been mapped? Used to clean up properly in Elf.Dispose.
+	private ByteBuffer[] mapped_file; // The whole file in chunks of MAPPED_CHUNK_SIZE, if it has been mapped.
+	private long mapped_offset; // The offset of the mapping in the file.
+	private long mapped_size; // The size of the mapping.
+
+	/** Buffers cannot exceed 2GB, larger files are mapped in chunks of this size. */
+	private static final long MAPPED_CHUNK_SIZE = 1L << 30;
 
 	protected String EMPTY_STRING = ""; //$NON-NLS-1$
 
@@ -324,12 +333,18 @@ public class Elf {
 		 * @since 5.1
 		 */
 		public ByteBuffer mapSectionData() throws IOException {
+			if (mapped_file != null)
+				return getMappedData(sh_offset, sh_size);
 			sections_mapped = true;
 			return efile.getChannel().map(MapMode.READ_ONLY, sh_offset, sh_size).load().asReadOnlyBuffer();
 		}
 
 		public byte[] loadSectionData() throws IOException {
 			byte[] data = new byte[(int)sh_size];
+			if (mapped_file != null) {
+				getMappedData(sh_offset, sh_size).get(data);
+				return data;
+			}
 			efile.seek(sh_offset);
 			efile.read(data);
 			return data;
@@ -345,9 +360,7 @@ public class Elf {
 					int size = (int)sections[shstrndx].sh_size;
 					if (size <= 0 || size > efile.length())
 						return EMPTY_STRING;
-					section_strtab = new byte[size];
-					efile.seek(sections[shstrndx].sh_offset);
-					efile.read(section_strtab);
+					section_strtab = sections[shstrndx].loadSectionData();
 				}
 				int str_size = 0;
 				if (sh_name > section_strtab.length) {
@@ -368,6 +381,17 @@ public class Elf {
 		}
 
 		StringBuilder str = new StringBuilder();
+		if (mapped_file != null) {
+			ByteBuffer data = getMappedData(section.sh_offset + index, section.sh_size - index);
+			while (data.hasRemaining()) {
+				byte b = data.get();
+				if (b == 0)
+					break;
+				str.append((char) b);
+			}
+			return str.toString();
+		}
+
 		//Most string symbols will be less than 50 bytes in size
 		byte [] tmp = new byte[50];
 
@@ -659,11 +683,28 @@ public class Elf {
 		return dynList.toArray(new Dynamic[0]);
 	}
 
-	private void commonSetup(String file, long offset) throws IOException {
+	private void commonSetup(String file, long offset, boolean mapFile) throws IOException {
 		try {
 			efile = new ERandomAccessFile(file, "r"); //$NON-NLS-1$
 			efile.setFileOffset(offset);
 			ehdr = new ELFhdr();
+			if (mapFile) {
+				FileChannel channel = efile.getChannel();
+				long size = channel.size() - offset;
+				if (size > 0) {
+					ByteBuffer[] chunks = new ByteBuffer[(int) ((size + MAPPED_CHUNK_SIZE - 1) / MAPPED_CHUNK_SIZE)];
+					for (int i = 0; i < chunks.length; i++) {
+						long chunkOffset = i * MAPPED_CHUNK_SIZE;
+						chunks[i] = channel.map(MapMode.READ_ONLY, offset + chunkOffset,
+								Math.min(MAPPED_CHUNK_SIZE, size - chunkOffset));
+					}
+					mapped_file = chunks;
+					mapped_offset = offset;
+					mapped_size = size;
+					// The mappings are released by the garbage collection forced in dispose().
+					sections_mapped = true;
+				}
+			}
 			this.file = file;
 		} finally {
 			if (ehdr == null) {
@@ -677,11 +718,31 @@ public class Elf {
 	}
 
 	public Elf(String file, long offset) throws IOException {
-		commonSetup(file, offset);
+		commonSetup(file, offset, false);
 	}
 
 	public Elf(String file) throws IOException {
-		commonSetup(file, 0);
+		commonSetup(file, 0, false);
+	}
+
+	/**
+	 * Creates an Elf that optionally maps the entire file into memory once. With a mapping
+	 * the section headers, the symbols, their names and the data of sections are read from
+	 * the mapping, {@link Section#mapSectionData()} returns views of the mapping without
+	 * copying or preloading the data. This is suitable for large files with debug
+	 * information. Files larger than 1GB are mapped in chunks of 1GB.
+	 * <p>
+	 * The mapping keeps the file open until it is released by the garbage collection that
+	 * {@link #dispose()} forces. On Windows the file cannot be replaced before that, so this
+	 * mode should only be used for short-lived objects that are disposed right after use.
+	 *
+	 * @param file the path of the file
+	 * @param offset the offset of the Elf within the file, e.g. for members of archives
+	 * @param mapFile whether to map the file into memory
+	 * @since 6.4
+	 */
+	public Elf(String file, long offset, boolean mapFile) throws IOException {
+		commonSetup(file, offset, mapFile);
 	}
 
 	public ELFhdr getELFhdr() throws IOException {
@@ -955,6 +1016,7 @@ public class Elf {
 			if (efile != null) {
 				efile.close();
 				efile = null;
+				mapped_file = null;
 
 				// ensure the mappings get cleaned up
 				if (sections_mapped)
@@ -1004,6 +1066,10 @@ public class Elf {
 				sections = new Section[0];
 				return sections;
 			}
+			if (mapped_file != null) {
+				sections = loadMappedSections();
+				return sections;
+			}
 			final int length= ehdr.e_shnum & 0xffff; // unsigned short
 			sections = new Section[length];
 			for (int i = 0; i < length; i++) {
@@ -1061,7 +1127,95 @@ public class Elf {
 		return sections;
 	}
 
+	private Section[] loadMappedSections() throws IOException {
+		final int length= ehdr.e_shnum & 0xffff; // unsigned short
+		final int entsize= ehdr.e_shentsize & 0xffff; // unsigned short
+		final boolean is64 = getElfClass() == ELFhdr.ELFCLASS64;
+		Section[] result = new Section[length];
+		ByteBuffer in = getMappedData(ehdr.e_shoff, (long) length * entsize);
+		in.order(getByteOrder());
+		try {
+			for (int i = 0; i < length; i++) {
+				in.position(i * entsize);
+				Section section = new Section();
+				section.sh_name = in.getInt() & 0xffffffffL;
+				section.sh_type = in.getInt() & 0xffffffffL;
+				if (is64) {
+					section.sh_flags = in.getLong();
+					section.sh_addr = new Addr64(in.getLong());
+					section.sh_offset = checkUnsignedLong(in.getLong());
+					section.sh_size = checkUnsignedLong(in.getLong());
+				} else {
+					section.sh_flags = in.getInt() & 0xffffffffL;
+					section.sh_addr = new Addr32(in.getInt() & 0xffffffffL);
+					section.sh_offset = in.getInt() & 0xffffffffL;
+					section.sh_size = in.getInt() & 0xffffffffL;
+				}
+				section.sh_link = in.getInt() & 0xffffffffL;
+				section.sh_info = in.getInt() & 0xffffffffL;
+				if (is64) {
+					section.sh_addralign = in.getLong();
+					section.sh_entsize = checkUnsignedLong(in.getLong());
+				} else {
+					section.sh_addralign = in.getInt() & 0xffffffffL;
+					section.sh_entsize = in.getInt() & 0xffffffffL;
+				}
+				if (section.sh_type == Section.SHT_SYMTAB)
+					syms = i;
+				if (syms == 0 && section.sh_type == Section.SHT_DYNSYM)
+					syms = i;
+				result[i] = section;
+			}
+		} catch (BufferUnderflowException e) {
+			throw new EOFException();
+		}
+		return result;
+	}
+
+	private Symbol[] loadMappedSymbols(Section section) throws IOException {
+		int numSyms = 1;
+		if (section.sh_entsize != 0) {
+			numSyms = (int)section.sh_size / (int)section.sh_entsize;
+		}
+		final boolean is64 = getElfClass() == ELFhdr.ELFCLASS64;
+		ArrayList<Symbol> symList = new ArrayList<Symbol>(numSyms);
+		ByteBuffer in = getMappedData(section.sh_offset, section.sh_size);
+		in.order(getByteOrder());
+		try {
+			for (int c = 0; c < numSyms; c++) {
+				in.position((int) (c * section.sh_entsize));
+				// The name is decoded from the string table when it is first requested.
+				Symbol symbol = new Symbol(section);
+				symbol.st_name = in.getInt() & 0xffffffffL;
+				if (is64) {
+					symbol.st_info = in.get();
+					symbol.st_other = in.get();
+					symbol.st_shndx = in.getShort();
+					symbol.st_value = new Addr64(in.getLong());
+					symbol.st_size = checkUnsignedLong(in.getLong());
+				} else {
+					symbol.st_value = new Addr32(in.getInt() & 0xffffffffL);
+					symbol.st_size = in.getInt() & 0xffffffffL;
+					symbol.st_info = in.get();
+					symbol.st_other = in.get();
+					symbol.st_shndx = in.getShort();
+				}
+				if (symbol.st_info == 0)
+					continue;
+				symList.add(symbol);
+			}
+		} catch (BufferUnderflowException e) {
+			throw new EOFException();
+		}
+		Symbol[] results = symList.toArray(new Symbol[0]);
+		Arrays.sort(results);
+		return results;
+	}
+
 	private Symbol[] loadSymbolsBySection(Section section) throws IOException {
+		if (mapped_file != null)
+			return loadMappedSymbols(section);
+
 		int numSyms = 1;
 		if (section.sh_entsize != 0) {
 			numSyms = (int)section.sh_size / (int)section.sh_entsize;
@@ -1194,6 +1348,53 @@ public class Elf {
 		return result;
 	}
 
+	private int getElfClass() throws IOException {
+		switch (ehdr.e_ident[ELFhdr.EI_CLASS]) {
+			case ELFhdr.ELFCLASS32 :
+			case ELFhdr.ELFCLASS64 :
+				return ehdr.e_ident[ELFhdr.EI_CLASS];
+			case ELFhdr.ELFCLASSNONE :
+			default :
+				throw new IOException("Unknown ELF class " + ehdr.e_ident[ELFhdr.EI_CLASS]); //$NON-NLS-1$
+		}
+	}
+
+	private ByteOrder getByteOrder() {
+		return ehdr.e_ident[ELFhdr.EI_DATA] == ELFhdr.ELFDATA2LSB ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+	}
+
+	/**
+	 * Returns a view of the given range of the mapped file. The view is in big-endian order, as
+	 * the buffers returned by {@link Section#mapSectionData()} without a mapping of the file.
+	 */
+	private ByteBuffer getMappedData(long offset, long size) throws IOException {
+		if (offset < 0 || size < 0 || offset > mapped_size || size > mapped_size - offset)
+			throw new EOFException();
+		if (size == 0)
+			return ByteBuffer.allocate(0);
+		int chunk = (int) (offset / MAPPED_CHUNK_SIZE);
+		long chunkOffset = offset - chunk * MAPPED_CHUNK_SIZE;
+		ByteBuffer data = mapped_file[chunk];
+		if (chunkOffset + size <= data.capacity()) {
+			data = data.duplicate();
+			data.limit((int) (chunkOffset + size));
+			data.position((int) chunkOffset);
+			return data.slice();
+		}
+		// The range crosses the end of a chunk, it is mapped on its own.
+		if (size > Integer.MAX_VALUE)
+			throw new IOException("Cannot map " + size + " bytes"); //$NON-NLS-1$ //$NON-NLS-2$
+		return efile.getChannel().map(MapMode.READ_ONLY, mapped_offset + offset, size);
+	}
+
+	private static long checkUnsignedLong(long result) throws IOException {
+		if (result < 0) {
+			throw new IOException("Maximal file offset is " + Long.toHexString(Long.MAX_VALUE) + //$NON-NLS-1$
+					" given offset is " + Long.toHexString(result)); //$NON-NLS-1$
+		}
+		return result;
+	}
+
 	private ISymbolReader createDwarfReader() {
 		DwarfReader reader = null;
 		// Check if Dwarf data exists
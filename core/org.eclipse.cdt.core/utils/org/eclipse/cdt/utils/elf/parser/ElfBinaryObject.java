@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 QNX Software Systems and others.
+ * Copyright (c) 2000, 2017 QNX Software Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,18 +14,22 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
+import org.eclipse.cdt.core.IAddress;
 import org.eclipse.cdt.core.IAddressFactory;
 import org.eclipse.cdt.core.IBinaryParser;
 import org.eclipse.cdt.core.ISymbolReader;
 import org.eclipse.cdt.core.IBinaryParser.IBinaryFile;
 import org.eclipse.cdt.core.IBinaryParser.ISymbol;
 import org.eclipse.cdt.utils.AR;
+import org.eclipse.cdt.utils.Addr32;
 import org.eclipse.cdt.utils.Addr32Factory;
+import org.eclipse.cdt.utils.Addr64;
+import org.eclipse.cdt.utils.Addr64Factory;
 import org.eclipse.cdt.utils.BinaryObjectAdapter;
 import org.eclipse.cdt.utils.Symbol;
+import org.eclipse.cdt.utils.SymbolTable;
 import org.eclipse.cdt.utils.elf.Elf;
 import org.eclipse.cdt.utils.elf.ElfHelper;
 import org.eclipse.core.runtime.IPath;
@@ -36,10 +40,13 @@ import org.eclipse.core.runtime.IPath;
 public class ElfBinaryObject extends BinaryObjectAdapter {
 
 	private BinaryObjectInfo info;
+	private SymbolTable symbolTable;
 	private ISymbol[] symbols;
 	private final AR.ARHeader header;
 	private IAddressFactory addressFactory;
 	private volatile Elf.Attribute fElfAttributes;
+	/** The table being built by {@link #loadSymbols(ElfHelper)} */
+	private SymbolTable.Builder loadingSymbols;
 
 	public ElfBinaryObject(IBinaryParser parser, IPath p, AR.ARHeader h){
 		super(parser, p, IBinaryFile.OBJECT);
@@ -85,15 +92,74 @@ public class ElfBinaryObject extends BinaryObjectAdapter {
 	 */
 	@Override
 	public ISymbol[] getSymbols() {
+		SymbolTable table = getSymbolTable();
+		if (symbols == null) {
+			ISymbol[] array = table.size() == 0 ? NO_SYMBOLS : new ISymbol[table.size()];
+			for (int i = 0; i < array.length; i++) {
+				array[i] = createSymbol(table, i);
+			}
+			symbols = array;
+		}
+		return symbols;
+	}
+
+	/**
+	 * Looks up the symbol in the symbol table, the symbols of the binary are not all
+	 * created for that.
+	 *
+	 * @see org.eclipse.cdt.utils.BinaryObjectAdapter#getSymbol(org.eclipse.cdt.core.IAddress)
+	 */
+	@Override
+	public ISymbol getSymbol(IAddress addr) {
+		SymbolTable table = getSymbolTable();
+		int index = table.indexOf(addr.getValue().longValue());
+		if (index < 0) {
+			return null;
+		}
+		ISymbol[] array = symbols;
+		return array != null ? array[index] : createSymbol(table, index);
+	}
+
+	/**
+	 * Returns the symbols of the binary sorted by address.
+	 *
+	 * @since 6.4
+	 */
+	protected SymbolTable getSymbolTable() {
 		// Call the hasChanged first, to initialize the timestamp
-		if (hasChanged() || symbols == null) {
+		if (hasChanged() || symbolTable == null) {
 			try {
 				loadAll();
 			} catch (IOException e) {
-				symbols = NO_SYMBOLS;
+				symbolTable = SymbolTable.EMPTY;
+				symbols = null;
 			}
 		}
-		return symbols;
+		return symbolTable;
+	}
+
+	/**
+	 * Creates the symbol object for an entry of the symbol table.
+	 *
+	 * @param table the symbol table of this binary
+	 * @param index the index of the symbol in the table
+	 * @since 6.4
+	 */
+	protected ISymbol createSymbol(SymbolTable table, int index) {
+		return new Symbol(this, table.getName(index), table.getType(index),
+				createAddress(table.getAddress(index)), table.getSize(index));
+	}
+
+	/**
+	 * Creates an address of the size used by this binary.
+	 *
+	 * @since 6.4
+	 */
+	protected IAddress createAddress(long address) {
+		if (getAddressFactory() instanceof Addr64Factory) {
+			return new Addr64(address);
+		}
+		return new Addr32(address);
 	}
 
 	/* (non-Javadoc)
@@ -167,20 +233,54 @@ public class ElfBinaryObject extends BinaryObjectAdapter {
 	}
 
 	protected void loadSymbols(ElfHelper helper) throws IOException {
-		ArrayList<Symbol> list = new ArrayList<Symbol>();
+		SymbolTable.Builder builder = new SymbolTable.Builder();
+		// The list is only filled by subclasses that override the deprecated list based
+		// addSymbols(), the default implementation forwards to the builder.
+		List<Symbol> list = new ArrayList<>();
+		loadingSymbols = builder;
+		try {
+//			addSymbols(helper.getExternalFunctions(), ISymbol.FUNCTION, list);
+			addSymbols(helper.getLocalFunctions(), ISymbol.FUNCTION, list);
+//			addSymbols(helper.getExternalObjects(), ISymbol.VARIABLE, list);
+			addSymbols(helper.getLocalObjects(), ISymbol.VARIABLE, list);
+		} finally {
+			loadingSymbols = null;
+		}
+		for (Symbol symbol : list) {
+			builder.add(symbol.getAddress().getValue().longValue(), symbol.getSize(), symbol.getName(), symbol.getType());
+		}
 
-//		addSymbols(helper.getExternalFunctions(), ISymbol.FUNCTION, list);
-		addSymbols(helper.getLocalFunctions(), ISymbol.FUNCTION, list);
-//		addSymbols(helper.getExternalObjects(), ISymbol.VARIABLE, list);
-		addSymbols(helper.getLocalObjects(), ISymbol.VARIABLE, list);
-		list.trimToSize();
+		symbolTable = builder.build();
+		symbols = null;
+	}
 
-		symbols = list.toArray(NO_SYMBOLS);
-		Arrays.sort(symbols);
-		list.clear();
+	/**
+	 * Adds the symbols to the symbol table. Duplicate function symbols without a size are
+	 * dropped when the table is built.
+	 *
+	 * @since 6.4
+	 */
+	protected void addSymbols(Elf.Symbol[] array, int type, SymbolTable.Builder builder) {
+		for (Elf.Symbol element : array) {
+			builder.add(element.st_value.getValue().longValue(), element.st_size, element.toString(), type);
+		}
 	}
 
+	/**
+	 * @deprecated symbols are stored in a {@link SymbolTable}. While the symbols are loaded
+	 *             this method forwards to {@link #addSymbols(Elf.Symbol[], int, SymbolTable.Builder)}.
+	 *             For symbols that an overriding method adds to the list, the name, type,
+	 *             address and size are copied to the table and the symbol objects themselves
+	 *             are discarded. Override {@link #addSymbols(Elf.Symbol[], int, SymbolTable.Builder)}
+	 *             and {@link #createSymbol(SymbolTable, int)} instead.
+	 */
+	@Deprecated
 	protected void addSymbols(Elf.Symbol[] array, int type, List<Symbol> list) {
+		SymbolTable.Builder builder = loadingSymbols;
+		if (builder != null) {
+			addSymbols(array, type, builder);
+			return;
+		}
 		for (org.eclipse.cdt.utils.elf.Elf.Symbol element : array) {
 			// Multiple function symbol entries for the same address are generated
 			// do not add duplicate symbols with 0 size to the list
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 QNX Software Systems and others.
+ * Copyright (c) 2000, 2017 QNX Software Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,16 +13,18 @@ package org.eclipse.cdt.utils.elf.parser;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.List;
 
 import org.eclipse.cdt.core.IAddress;
 import org.eclipse.cdt.core.IBinaryParser;
+import org.eclipse.cdt.core.IBinaryParser.ISymbol;
 import org.eclipse.cdt.utils.Addr2line;
+import org.eclipse.cdt.utils.CPPDemangler;
 import org.eclipse.cdt.utils.CPPFilt;
 import org.eclipse.cdt.utils.IGnuToolFactory;
 import org.eclipse.cdt.utils.Objdump;
-import org.eclipse.cdt.utils.Symbol;
+import org.eclipse.cdt.utils.SymbolTable;
 import org.eclipse.cdt.utils.AR.ARHeader;
+import org.eclipse.cdt.utils.debug.dwarf.DwarfLineTable;
 import org.eclipse.cdt.utils.elf.Elf;
 import org.eclipse.cdt.utils.elf.ElfHelper;
 import org.eclipse.core.runtime.IPath;
@@ -34,8 +36,17 @@ import org.eclipse.core.runtime.Path;
 public class GNUElfBinaryObject extends ElfBinaryObject {
 
 	private Addr2line autoDisposeAddr2line;
-	private Addr2line symbolLoadingAddr2line;
 	private CPPFilt symbolLoadingCPPFilt;
+	private boolean symbolLoadingCPPFiltStarted;
+	/**
+	 * Source information for the symbols while {@link #getSymbols()} creates them, the table
+	 * is otherwise left to the cache of {@link DwarfLineTable}.
+	 */
+	private DwarfLineTable symbolLineTable;
+	private boolean symbolCreation;
+	private boolean symbolLineTableFetched;
+	private boolean symbolAddr2lineFailed;
+	private final boolean isArchiveMember;
 	long starttime;
 
 	/**
@@ -45,6 +56,7 @@ public class GNUElfBinaryObject extends ElfBinaryObject {
 	 */
 	public GNUElfBinaryObject(IBinaryParser parser, IPath path, ARHeader header) {
 		super(parser, path, header);
+		isArchiveMember = header != null;
 	}
 
 	/**
@@ -54,6 +66,7 @@ public class GNUElfBinaryObject extends ElfBinaryObject {
 	 */
 	public GNUElfBinaryObject(IBinaryParser parser, IPath path, int type) {
 		super(parser, path, type);
+		isArchiveMember = false;
 	}
 
 	public Addr2line getAddr2line(boolean autodisposing) {
@@ -104,6 +117,25 @@ public class GNUElfBinaryObject extends ElfBinaryObject {
 		return null;
 	}
 
+	/**
+	 * Returns the table that maps addresses to source lines, computed from the DWARF
+	 * information of the binary without running addr2line. The table is cached per binary.
+	 *
+	 * @return the line table or <code>null</code> if the binary has no DWARF line information
+	 * @since 6.4
+	 */
+	public DwarfLineTable getLineTable() {
+		IPath path = getPath();
+		if (path == null || isArchiveMember) {
+			return null;
+		}
+		try {
+			return DwarfLineTable.getLineTable(path.toOSString());
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
 	protected CPPFilt getCPPFilt() {
 		IGnuToolFactory factory = getBinaryParser().getAdapter(IGnuToolFactory.class);
 		if (factory != null) {
@@ -149,15 +181,11 @@ public class GNUElfBinaryObject extends ElfBinaryObject {
 	 */
 	@Override
 	protected void loadSymbols(ElfHelper helper) throws IOException {
-		symbolLoadingAddr2line = getAddr2line(false);
-		symbolLoadingCPPFilt = getCPPFilt();
+		symbolAddr2lineFailed = false;
 		try {
 			super.loadSymbols(helper);
 		} finally {
-			if (symbolLoadingAddr2line != null) {
-				symbolLoadingAddr2line.dispose();
-				symbolLoadingAddr2line = null;
-			}
+			symbolLoadingCPPFiltStarted = false;
 			if (symbolLoadingCPPFilt != null) {
 				symbolLoadingCPPFilt.dispose();
 				symbolLoadingCPPFilt = null;
@@ -169,41 +197,101 @@ public class GNUElfBinaryObject extends ElfBinaryObject {
 	 * (non-Javadoc)
 	 *
 	 * @see org.eclipse.cdt.utils.elf.parser.ElfBinaryObject#addSymbols(org.eclipse.cdt.utils.elf.Elf.Symbol[],
-	 *      int, java.util.List)
+	 *      int, org.eclipse.cdt.utils.SymbolTable.Builder)
 	 */
 	@Override
-	protected void addSymbols(Elf.Symbol[] array, int type, List<Symbol> list) {
-		for (org.eclipse.cdt.utils.elf.Elf.Symbol element : array) {
-			String name = element.toString();
-			if (symbolLoadingCPPFilt != null) {
-				try {
-					name = symbolLoadingCPPFilt.getFunction(name);
-				} catch (IOException e1) {
-					symbolLoadingCPPFilt.dispose();
-					symbolLoadingCPPFilt = null;
-				}
+	protected void addSymbols(Elf.Symbol[] array, int type, SymbolTable.Builder builder) {
+		for (Elf.Symbol element : array) {
+			String name = demangle(element.toString());
+			builder.add(element.st_value.getValue().longValue(), element.st_size, name, type);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.cdt.utils.elf.parser.ElfBinaryObject#getSymbols()
+	 */
+	@Override
+	public ISymbol[] getSymbols() {
+		symbolCreation = true;
+		try {
+			return super.getSymbols();
+		} finally {
+			symbolCreation = false;
+			symbolLineTableFetched = false;
+			symbolLineTable = null;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.cdt.utils.elf.parser.ElfBinaryObject#createSymbol(org.eclipse.cdt.utils.SymbolTable, int)
+	 */
+	@Override
+	protected ISymbol createSymbol(SymbolTable table, int index) {
+		String name = table.getName(index);
+		int type = table.getType(index);
+		long address = table.getAddress(index);
+		long size = table.getSize(index);
+		IAddress addr = createAddress(address);
+		DwarfLineTable lineTable = symbolLineTable;
+		if (!symbolLineTableFetched) {
+			lineTable = getLineTable();
+			if (symbolCreation) {
+				symbolLineTable = lineTable;
+				symbolLineTableFetched = true;
 			}
-			IAddress addr = element.st_value;
-			long size = element.st_size;
-			if (symbolLoadingAddr2line != null) {
-				try {
-					String filename = symbolLoadingAddr2line.getFileName(addr);
-					// Addr2line returns the funny "??" when it can not find
-					// the file.
-					IPath file = (filename != null && !filename.equals("??")) ? new Path(filename) : Path.EMPTY; //$NON-NLS-1$
-					int startLine = symbolLoadingAddr2line.getLineNumber(addr);
-					int endLine = symbolLoadingAddr2line.getLineNumber(addr.add(size - 1));
-					list.add(new GNUSymbol(this, name, type, addr, size, file, startLine, endLine));
-				} catch (IOException e) {
-					symbolLoadingAddr2line.dispose();
-					symbolLoadingAddr2line = null;
-					// the symbol still needs to be added
-					list.add(new GNUSymbol(this, name, type, addr, size));
-				}
-			} else {
-				list.add(new GNUSymbol(this, name, type, addr, size));
+		}
+		if (lineTable != null) {
+			String filename = lineTable.getFileName(address);
+			IPath file = filename != null ? new Path(filename) : Path.EMPTY;
+			int startLine = lineTable.getLineNumber(address);
+			int endLine = lineTable.getLineNumber(address + size - 1);
+			return new GNUSymbol(this, name, type, addr, size, file, startLine, endLine);
+		}
+		Addr2line addr2line = symbolAddr2lineFailed ? null : getAddr2line(true);
+		if (addr2line != null) {
+			try {
+				String filename = addr2line.getFileName(addr);
+				// Addr2line returns the funny "??" when it can not find
+				// the file.
+				IPath file = (filename != null && !filename.equals("??")) ? new Path(filename) : Path.EMPTY; //$NON-NLS-1$
+				int startLine = addr2line.getLineNumber(addr);
+				int endLine = addr2line.getLineNumber(addr.add(size - 1));
+				return new GNUSymbol(this, name, type, addr, size, file, startLine, endLine);
+			} catch (IOException e) {
+				symbolAddr2lineFailed = true;
+				stopAddr2Line();
+			}
+		}
+		return new GNUSymbol(this, name, type, addr, size);
+	}
+
+	/**
+	 * Demangles the name of a symbol. c++filt is started only for names that
+	 * {@link CPPDemangler} cannot handle.
+	 */
+	private String demangle(String name) {
+		if (!CPPDemangler.isMangled(name)) {
+			return name;
+		}
+		String demangled = CPPDemangler.demangle(name);
+		if (demangled != null) {
+			return demangled;
+		}
+		if (!symbolLoadingCPPFiltStarted) {
+			symbolLoadingCPPFiltStarted = true;
+			symbolLoadingCPPFilt = getCPPFilt();
+		}
+		if (symbolLoadingCPPFilt != null) {
+			try {
+				return symbolLoadingCPPFilt.getFunction(name);
+			} catch (IOException e) {
+				symbolLoadingCPPFilt.dispose();
+				symbolLoadingCPPFilt = null;
 			}
 		}
+		return name;
 	}
 
 	@Override
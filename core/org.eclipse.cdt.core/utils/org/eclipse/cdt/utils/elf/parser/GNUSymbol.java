@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2008 QNX Software Systems and others.
+ * Copyright (c) 2004, 2017 QNX Software Systems and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ import java.io.IOException;
 import org.eclipse.cdt.core.IAddress;
 import org.eclipse.cdt.utils.Addr2line;
 import org.eclipse.cdt.utils.Symbol;
+import org.eclipse.cdt.utils.debug.dwarf.DwarfLineTable;
 import org.eclipse.core.runtime.IPath;
 
 public class GNUSymbol extends Symbol {
@@ -33,6 +34,10 @@ public class GNUSymbol extends Symbol {
 	@Override
 	public int getLineNumber(long offset) {
 		int line = -1;
+		DwarfLineTable lineTable = ((GNUElfBinaryObject)binary).getLineTable();
+		if (lineTable != null) {
+			return lineTable.getLineNumber(getAddress().add(offset).getValue().longValue());
+		}
 		Addr2line addr2line = ((GNUElfBinaryObject)binary).getAddr2line(true);
 		if (addr2line != null) {
 			try {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2017 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -31,10 +31,15 @@ import org.eclipse.ui.texteditor.ITextEditor;
 
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
 import org.eclipse.cdt.core.index.IIndex;
+import org.eclipse.cdt.core.model.CoreModel;
+import org.eclipse.cdt.core.model.ElementChangedEvent;
 import org.eclipse.cdt.core.model.ICElement;
+import org.eclipse.cdt.core.model.ICElementDelta;
+import org.eclipse.cdt.core.model.IElementChangedListener;
 import org.eclipse.cdt.core.model.ILanguage;
 import org.eclipse.cdt.core.model.ITranslationUnit;
 import org.eclipse.cdt.core.model.ITranslationUnitHolder;
+import org.eclipse.cdt.core.model.IWorkingCopy;
 import org.eclipse.cdt.ui.CUIPlugin;
 
 import org.eclipse.cdt.internal.core.model.ASTCache;
@@ -195,8 +200,33 @@ public final class ASTProvider {
 		}
 	}
 
+	/**
+	 * Discards the snapshots of the ASTs of working copies that have been destroyed.
+	 */
+	private class WorkingCopyListener implements IElementChangedListener {
+		@Override
+		public void elementChanged(ElementChangedEvent event) {
+			processDelta(event.getDelta());
+		}
+
+		private void processDelta(ICElementDelta delta) {
+			ICElement element= delta.getElement();
+			if (element instanceof IWorkingCopy) {
+				if (delta.getKind() == ICElementDelta.REMOVED)
+					fCache.discardSnapshot((IWorkingCopy) element);
+				return;
+			}
+			if (element instanceof ITranslationUnit)
+				return;
+			for (ICElementDelta child : delta.getAffectedChildren()) {
+				processDelta(child);
+			}
+		}
+	}
+
 	private final ASTCache fCache= new ASTCache();
 	private ActivationListener fActivationListener;
+	private final WorkingCopyListener fWorkingCopyListener= new WorkingCopyListener();
 	private IWorkbenchPart fActiveEditor;
 	private long fTimeStamp;
 	private final IndexUpdateRequestor fIndexUpdateRequestor = new IndexUpdateRequestor();
@@ -221,6 +251,7 @@ public final class ASTProvider {
 	 * Installs this AST provider.
 	 */
 	void install() {
+		CoreModel.getDefault().addElementChangedListener(fWorkingCopyListener);
 		if (PlatformUI.isWorkbenchRunning()) {
 			// Create and register activation listener
 			fActivationListener= new ActivationListener();
@@ -303,6 +334,7 @@ public final class ASTProvider {
 			PlatformUI.getWorkbench().removeWindowListener(fActivationListener);
 			fActivationListener= null;
 		}
+		CoreModel.getDefault().removeElementChangedListener(fWorkingCopyListener);
 		fCache.setActiveElement(null);
 	}
 
@@ -371,6 +403,20 @@ public final class ASTProvider {
 		fCache.releaseSharedAST(ast);
 	}
 
+	/**
+	 * Returns the number of times the AST of an editor that became active was reused.
+	 */
+	public int getCacheHitCount() {
+		return fCache.getHitCount();
+	}
+
+	/**
+	 * Returns the number of times the AST of an editor that became active had to be recreated.
+	 */
+	public int getCacheMissCount() {
+		return fCache.getMissCount();
+	}
+
 	/**
 	 * Prepares the AST cache to be used for the given translation unit.
 	 *
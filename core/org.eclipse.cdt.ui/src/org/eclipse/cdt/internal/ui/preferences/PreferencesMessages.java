@@ -576,6 +576,11 @@ public final class PreferencesMessages extends NLS {
 	public static String ScalabilityPreferencePage_skipTrivialExpressions_label;
 	public static String ScalabilityPreferencePage_maximumTrivialExpressions_label;
 	public static String ScalabilityPreferencePage_maximumTokensPerTU_label;
+	public static String ScalabilityPreferencePage_buildModelFromIndex_label;
+	public static String ScalabilityPreferencePage_astCache_group_label;
+	public static String ScalabilityPreferencePage_astCacheMaximumEntries_label;
+	public static String ScalabilityPreferencePage_astCacheMaximumSize_label;
+	public static String ScalabilityPreferencePage_astCacheStatistics;
 
 	public static String IndexerStrategyBlock_activeBuildConfig;
 	public static String IndexerStrategyBlock_autoUpdate;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2017 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -19,6 +19,7 @@ import java.util.Map;
 
 import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.jface.dialogs.IDialogConstants;
+import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.FieldEditor;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.preference.IntegerFieldEditor;
@@ -36,6 +37,7 @@ import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Label;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchPreferencePage;
 import org.eclipse.ui.PlatformUI;
@@ -46,6 +48,7 @@ import org.eclipse.cdt.ui.PreferenceConstants;
 import org.eclipse.cdt.utils.ui.controls.ControlFactory;
 
 import org.eclipse.cdt.internal.ui.ICHelpContextIds;
+import org.eclipse.cdt.internal.ui.editor.ASTProvider;
 import org.eclipse.cdt.internal.ui.wizards.dialogfields.Separator;
 
 public class ScalabilityPreferencePage extends PreferencePage implements IWorkbenchPreferencePage {
@@ -69,6 +72,12 @@ public class ScalabilityPreferencePage extends PreferencePage implements IWorkbe
 
 	private ScalabilityIntegerFieldEditor fMaximumTokens;
 
+	private BooleanFieldEditor fBuildModelFromIndex;
+
+	private IntegerFieldEditor fASTCacheMaximumEntries;
+
+	private IntegerFieldEditor fASTCacheMaximumSize;
+
 	private final Map<Object, String> fCheckBoxes= new HashMap<Object, String>();
 
 	/**
@@ -115,6 +124,9 @@ public class ScalabilityPreferencePage extends PreferencePage implements IWorkbe
         fLinesToTrigger.setStringValue(Integer.toString(prefs.getInt(PreferenceConstants.SCALABILITY_NUMBER_OF_LINES)));
         fMaximumTrivialExpressions.load();
         fMaximumTokens.load();
+        fBuildModelFromIndex.load();
+        fASTCacheMaximumEntries.load();
+        fASTCacheMaximumSize.load();
 	}
 
 	/*
@@ -158,6 +170,10 @@ public class ScalabilityPreferencePage extends PreferencePage implements IWorkbe
 
 		new Separator().doFillIntoGrid(composite, nColumns);
 
+		createASTCacheSettings(composite);
+
+		new Separator().doFillIntoGrid(composite, nColumns);
+
 		String noteTitle= PreferencesMessages.ScalabilityPreferencePage_note;
 		String noteMessage= PreferencesMessages.ScalabilityPreferencePage_preferenceOnlyForNewEditors;
 		Composite noteControl= createNoteComposite(JFaceResources.getDialogFont(), composite, noteTitle, noteMessage);
@@ -242,6 +258,29 @@ public class ScalabilityPreferencePage extends PreferencePage implements IWorkbe
 					PreferencesMessages.ScalabilityPreferencePage_maximumTokensPerTU_label,
 					1, 1000000000);
 		fMaximumTokens.setPreferenceStore(CUIPlugin.getDefault().getCorePreferenceStore());
+
+		Composite comp= new Composite(group, SWT.NONE);
+		fBuildModelFromIndex= new BooleanFieldEditor(CCorePreferenceConstants.MODEL_BUILD_FROM_INDEX,
+				PreferencesMessages.ScalabilityPreferencePage_buildModelFromIndex_label, comp);
+		fBuildModelFromIndex.setPage(this);
+		fBuildModelFromIndex.setPreferenceStore(CUIPlugin.getDefault().getCorePreferenceStore());
+	}
+
+	private void createASTCacheSettings(Composite parent) {
+		Composite group = createGroupComposite( parent, 1, PreferencesMessages.ScalabilityPreferencePage_astCache_group_label );
+
+		Composite comp= new Composite(group, SWT.NONE);
+		fASTCacheMaximumEntries = createIntegerField(comp, CCorePreferenceConstants.AST_CACHE_MAXIMUM_ENTRIES,
+				PreferencesMessages.ScalabilityPreferencePage_astCacheMaximumEntries_label, 0, 1000);
+		fASTCacheMaximumEntries.setPreferenceStore(CUIPlugin.getDefault().getCorePreferenceStore());
+		fASTCacheMaximumSize = createIntegerField(comp, CCorePreferenceConstants.AST_CACHE_MAXIMUM_SIZE_MB,
+				PreferencesMessages.ScalabilityPreferencePage_astCacheMaximumSize_label, 0, 100000);
+		fASTCacheMaximumSize.setPreferenceStore(CUIPlugin.getDefault().getCorePreferenceStore());
+
+		ASTProvider astProvider= CUIPlugin.getDefault().getASTProvider();
+		Label statistics= new Label(group, SWT.NONE);
+		statistics.setText(NLS.bind(PreferencesMessages.ScalabilityPreferencePage_astCacheStatistics,
+				astProvider.getCacheHitCount(), astProvider.getCacheMissCount()));
 	}
 
 	private IntegerFieldEditor createIntegerField(Composite parent, String name, String labelText, int rangeMinimum, int rangeMaximum) {
@@ -343,6 +382,9 @@ public class ScalabilityPreferencePage extends PreferencePage implements IWorkbe
 		prefs.setValue(PreferenceConstants.SCALABILITY_NUMBER_OF_LINES, fLinesToTrigger.getIntValue());
 		fMaximumTrivialExpressions.store();
 		fMaximumTokens.store();
+		fBuildModelFromIndex.store();
+		fASTCacheMaximumEntries.store();
+		fASTCacheMaximumSize.store();
 		return super.performOk();
 	}
 	
@@ -369,5 +411,8 @@ public class ScalabilityPreferencePage extends PreferencePage implements IWorkbe
         fLinesToTrigger.setStringValue(Integer.toString(prefs.getDefaultInt(PreferenceConstants.SCALABILITY_NUMBER_OF_LINES)));
         fMaximumTrivialExpressions.loadDefault();
         fMaximumTokens.loadDefault();
+        fBuildModelFromIndex.loadDefault();
+        fASTCacheMaximumEntries.loadDefault();
+        fASTCacheMaximumSize.loadDefault();
 	}
 }
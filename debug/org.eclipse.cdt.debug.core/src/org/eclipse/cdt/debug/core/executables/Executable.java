@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2016 Nokia and others.
+ * Copyright (c) 2008, 2017 Nokia and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -310,6 +310,10 @@ public class Executable extends PlatformObject {
 		if (Trace.DEBUG_EXECUTABLES) Trace.getTrace().traceEntry(null, refreshSourceFiles);		
 				
 		this.refreshSourceFiles = refreshSourceFiles;
+		if (refreshSourceFiles) {
+			// Bypass the cache that is kept across sessions as well
+			ExecutablesManager.getExecutablesManager().refreshSourceFiles(this);
+		}
 	}
 
 	public synchronized String getOriginalLocation(ITranslationUnit tu) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2012 Nokia and others.
+ * Copyright (c) 2008, 2017 Nokia and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,7 +20,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.eclipse.cdt.core.model.CoreModel;
 import org.eclipse.cdt.core.model.ElementChangedEvent;
@@ -34,6 +36,7 @@ import org.eclipse.cdt.core.settings.model.ICProjectDescription;
 import org.eclipse.cdt.core.settings.model.ICProjectDescriptionListener;
 import org.eclipse.cdt.debug.core.CDebugCorePlugin;
 import org.eclipse.cdt.debug.internal.core.Trace;
+import org.eclipse.cdt.debug.internal.core.executables.SourceFilesCache;
 import org.eclipse.cdt.debug.internal.core.executables.StandardExecutableImporter;
 import org.eclipse.cdt.debug.internal.core.executables.StandardSourceFileRemappingFactory;
 import org.eclipse.cdt.debug.internal.core.executables.StandardSourceFilesProvider;
@@ -80,6 +83,15 @@ public class ExecutablesManager extends PlatformObject implements ICProjectDescr
 	private List<ISourceFilesProvider> sourceFileProviders;
 	private List<ISourceFileRemappingFactory> sourceFileRemappingFactories;
 	private List<IExecutableImporter> executableImporters;
+
+	/** The source files read from executables, persisted across sessions */
+	private final SourceFilesCache sourceFilesCache = new SourceFilesCache();
+
+	/** Executables waiting for their source files to be read into the cache */
+	private final Queue<Executable> sourceFilesQueue = new ConcurrentLinkedQueue<Executable>();
+
+	/** The jobs reading the source files of the queued executables in parallel */
+	private final SourceFilesJob[] sourceFilesJobs;
 	
 	
 	/**
@@ -230,6 +242,11 @@ public class ExecutablesManager extends PlatformObject implements ICProjectDescr
 				}
 			}
 
+			// Fill the source files cache for the new executables in the
+			// background, views then find the lists there
+			sourceFilesQueue.removeAll(removed);
+			readSourceFiles(added);
+
 			if (Trace.DEBUG_EXECUTABLES) Trace.getTrace().trace(null, "Search for executables finished"); //$NON-NLS-1$			
 
 			return status;
@@ -251,6 +268,33 @@ public class ExecutablesManager extends PlatformObject implements ICProjectDescr
 		}
 	};
 	
+	/**
+	 * Job which reads the source files of the executables in
+	 * {@link ExecutablesManager#sourceFilesQueue} into the source files cache.
+	 * Several of these run in parallel, each one takes executables from the
+	 * queue until it is empty.
+	 */
+	class SourceFilesJob extends Job {
+		SourceFilesJob() {
+			super("Reading source files of executables"); //$NON-NLS-1$
+			setSystem(true);
+			setPriority(Job.DECORATE);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			SubMonitor subMonitor = SubMonitor.convert(monitor);
+			Executable executable;
+			while ((executable = sourceFilesQueue.poll()) != null) {
+				if (subMonitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				getSourceFiles(executable, subMonitor.newChild(0));
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
 	/** The search job. We only let one of these run at any one time */
 	private SearchJob searchJob = new SearchJob();
 
@@ -271,6 +315,14 @@ public class ExecutablesManager extends PlatformObject implements ICProjectDescr
 
 	public ExecutablesManager() {
 		searchJob.setPriority(Job.SHORT);
+
+		// Reading debug information is mostly I/O and parsing, a few
+		// workers keep the cache filling without taking over the machine
+		int workers = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+		sourceFilesJobs = new SourceFilesJob[workers];
+		for (int i = 0; i < workers; i++) {
+			sourceFilesJobs[i] = new SourceFilesJob();
+		}
 		
 		// load the extension points
 		loadExecutableProviderExtensions();
@@ -529,46 +581,89 @@ public class ExecutablesManager extends PlatformObject implements ICProjectDescr
 	}
 
 	/**
-	 * Get the list of source files for the given executable
+	 * Get the list of source files for the given executable. The lists are
+	 * cached across sessions until the executable changes on disk.
 	 * @param executable the executable
 	 * @param monitor progress monitor
 	 * @return an array of source files which may be empty
 	 */
 	public String[] getSourceFiles(final Executable executable, IProgressMonitor monitor) {
 		if (Trace.DEBUG_EXECUTABLES) Trace.getTrace().traceEntry(null, executable);
-		
+
+		String[] result = sourceFilesCache.get(executable.getPath(), new SourceFilesCache.Reader() {
+			@Override
+			public String[] read(IProgressMonitor readMonitor) {
+				return findSourceFiles(executable, readMonitor);
+			}
+		}, monitor);
+
+		if (Trace.DEBUG_EXECUTABLES) Trace.getTrace().traceExit(null, result);
+		return result;
+	}
+
+	/**
+	 * Drops the cached source files of the given executable, such that the
+	 * next request reads them again.
+	 */
+	void refreshSourceFiles(Executable executable) {
+		sourceFilesCache.remove(executable.getPath());
+	}
+
+	/**
+	 * Asks the source files providers for the source files of the given
+	 * executable.
+	 */
+	private String[] findSourceFiles(final Executable executable, IProgressMonitor monitor) {
 		String[] result = new String[0];
 
+		// Sort a copy, the providers are asked outside of the lock so that
+		// several executables can be read at the same time
+		ISourceFilesProvider[] providers;
 		synchronized (sourceFileProviders) {
-			Collections.sort(sourceFileProviders, new Comparator<ISourceFilesProvider>() {
+			providers = sourceFileProviders.toArray(new ISourceFilesProvider[sourceFileProviders.size()]);
+		}
+		Arrays.sort(providers, new Comparator<ISourceFilesProvider>() {
 
-				@Override
-				public int compare(ISourceFilesProvider arg0, ISourceFilesProvider arg1) {
-					int p0 = arg0.getPriority(executable);
-					int p1 = arg1.getPriority(executable);
-					if (p0 < p1)
-						return 1;
-					if (p0 > p1)
-						return -1;
-					return 0;
-				}});
-			
-			monitor.beginTask("Finding source files in " + executable.getName(), sourceFileProviders.size() * 1000); //$NON-NLS-1$
-			for (ISourceFilesProvider provider : sourceFileProviders) {
-				String[] sourceFiles = provider.getSourceFiles(executable, new SubProgressMonitor(monitor, 1000));
-				if (sourceFiles.length > 0) {
-					result = sourceFiles;
-					if (Trace.DEBUG_EXECUTABLES) Trace.getTrace().trace(null, "Got " + sourceFiles.length + " files from " + provider.toString()); //$NON-NLS-1$ //$NON-NLS-2$
-					break;
-				}
+			@Override
+			public int compare(ISourceFilesProvider arg0, ISourceFilesProvider arg1) {
+				int p0 = arg0.getPriority(executable);
+				int p1 = arg1.getPriority(executable);
+				if (p0 < p1)
+					return 1;
+				if (p0 > p1)
+					return -1;
+				return 0;
+			}});
+
+		monitor.beginTask("Finding source files in " + executable.getName(), providers.length * 1000); //$NON-NLS-1$
+		for (ISourceFilesProvider provider : providers) {
+			String[] sourceFiles = provider.getSourceFiles(executable, new SubProgressMonitor(monitor, 1000));
+			if (sourceFiles.length > 0) {
+				result = sourceFiles;
+				if (Trace.DEBUG_EXECUTABLES) Trace.getTrace().trace(null, "Got " + sourceFiles.length + " files from " + provider.toString()); //$NON-NLS-1$ //$NON-NLS-2$
+				break;
 			}
-			monitor.done();
 		}
-
-		if (Trace.DEBUG_EXECUTABLES) Trace.getTrace().traceExit(null, result);
+		monitor.done();
 		return result;
 	}
 
+	/**
+	 * Queues the given executables to have their source files read into the
+	 * cache by the background jobs.
+	 */
+	private void readSourceFiles(Collection<Executable> executables) {
+		if (executables.isEmpty()) {
+			return;
+		}
+		sourceFilesQueue.addAll(executables);
+		for (SourceFilesJob job : sourceFilesJobs) {
+			// A running job is run again when it is done, so no executable
+			// is left in the queue
+			job.schedule();
+		}
+	}
+
 	/**
 	 * Removes the given executables
 	 * @param executables the array of executables to be removed
@@ -900,6 +995,7 @@ public class ExecutablesManager extends PlatformObject implements ICProjectDescr
 			for (Executable exec : executablesChanged) {
 				exec.setRefreshSourceFiles(true);
 			}
+			readSourceFiles(executablesChanged);
 			List<Executable> list = Arrays.asList(executablesChanged.toArray(new Executable[executablesChanged.size()]));
 			synchronized (changeListeners) {
 				for (IExecutablesChangeListener listener : changeListeners) {
@@ -0,0 +1,347 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.debug.internal.core.executables;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.cdt.debug.core.CDebugCorePlugin;
+import org.eclipse.cdt.debug.internal.core.Trace;
+import org.eclipse.cdt.utils.elf.Elf;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+/**
+ * Persistent cache of the source files listed in the debug information of
+ * binaries. Entries are keyed by the path of the binary and are valid as long
+ * as the size, the modification time and, for ELF binaries, the GNU build-id
+ * of the file are unchanged. Empty lists are not stored, they may be the
+ * result of a provider failing temporarily.
+ *
+ * <p>
+ * The cache is read from the plugin state location on first use and written
+ * back by a background job shortly after it changes.
+ */
+public class SourceFilesCache {
+
+	private static final int VERSION = 1;
+	private static final String FILE_NAME = "sourceFilesCache.dat"; //$NON-NLS-1$
+	/** Delay in milliseconds before changes are written to disk */
+	private static final long SAVE_DELAY = 5000;
+	private static final String[] NO_FILES = new String[0];
+
+	/**
+	 * Reads the source files of a binary that is not in the cache.
+	 */
+	public interface Reader {
+		String[] read(IProgressMonitor monitor);
+	}
+
+	private static class Entry {
+		final long size;
+		final long lastModified;
+		final String buildId;
+		final String[] files;
+		/** Whether the build-id has been compared to the file in this session */
+		boolean verified;
+
+		Entry(long size, long lastModified, String buildId, String[] files) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.buildId = buildId;
+			this.files = files;
+		}
+	}
+
+	private final File cacheFile;
+	/** Guarded by itself */
+	private final Map<String, Entry> entries = new HashMap<String, Entry>();
+	private boolean loaded;
+	/**
+	 * Locks of the binaries whose source files are being read, so that a
+	 * binary is not read twice at the same time
+	 */
+	private final ConcurrentHashMap<String, Object> readLocks = new ConcurrentHashMap<String, Object>();
+
+	private final Job saveJob = new Job("Saving source files cache") { //$NON-NLS-1$
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			save();
+			return Status.OK_STATUS;
+		}
+	};
+
+	public SourceFilesCache() {
+		this(CDebugCorePlugin.getDefault().getStateLocation().append(FILE_NAME).toFile());
+	}
+
+	public SourceFilesCache(File cacheFile) {
+		this.cacheFile = cacheFile;
+		saveJob.setSystem(true);
+		saveJob.setPriority(Job.DECORATE);
+	}
+
+	/**
+	 * Returns the cached source files of the given binary.
+	 *
+	 * @return the source files or <code>null</code> if the binary is not in
+	 *         the cache or has changed since it was added
+	 */
+	public String[] get(IPath path) {
+		String key = path.toOSString();
+		Entry entry;
+		synchronized (entries) {
+			load();
+			entry = entries.get(key);
+		}
+		if (entry == null) {
+			return null;
+		}
+		File file = new File(key);
+		if (entry.size != file.length() || entry.lastModified != file.lastModified()) {
+			return null;
+		}
+		if (!entry.verified) {
+			// The file may have been replaced by a copy that preserved the
+			// time stamp, check the build-id once per session
+			if (!entry.buildId.equals(readBuildId(key))) {
+				return null;
+			}
+			entry.verified = true;
+		}
+		return entry.files;
+	}
+
+	/**
+	 * Returns the source files of the given binary from the cache, or reads
+	 * them with the given reader and stores them. A thread asking for a binary
+	 * that is being read by another thread waits for that read.
+	 *
+	 * @return the source files, which are not stored when the monitor was
+	 *         canceled
+	 */
+	public String[] get(IPath path, Reader reader, IProgressMonitor monitor) {
+		String[] result = get(path);
+		if (result != null) {
+			if (Trace.DEBUG_EXECUTABLES) Trace.getTrace().trace(null, "Got " + result.length + " files from the cache"); //$NON-NLS-1$ //$NON-NLS-2$
+			return result;
+		}
+		String key = path.toOSString();
+		Object lock = new Object();
+		Object existingLock = readLocks.putIfAbsent(key, lock);
+		if (existingLock != null) {
+			lock = existingLock;
+		}
+		synchronized (lock) {
+			try {
+				result = get(path);
+				if (result == null) {
+					result = reader.read(monitor);
+					if (!monitor.isCanceled() && result.length > 0) {
+						put(path, result);
+					}
+				}
+			} finally {
+				readLocks.remove(key, lock);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Stores the source files of the given binary. An empty list removes the
+	 * binary from the cache.
+	 */
+	public void put(IPath path, String[] files) {
+		if (files.length == 0) {
+			remove(path);
+			return;
+		}
+		String key = path.toOSString();
+		File file = new File(key);
+		Entry entry = new Entry(file.length(), file.lastModified(), readBuildId(key), files);
+		entry.verified = true;
+		synchronized (entries) {
+			load();
+			entries.put(key, entry);
+		}
+		saveJob.schedule(SAVE_DELAY);
+	}
+
+	/**
+	 * Removes the given binary from the cache, such that its source files are
+	 * read again.
+	 */
+	public void remove(IPath path) {
+		Entry entry;
+		synchronized (entries) {
+			load();
+			entry = entries.remove(path.toOSString());
+		}
+		if (entry != null) {
+			saveJob.schedule(SAVE_DELAY);
+		}
+	}
+
+	private void load() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		if (!cacheFile.isFile()) {
+			return;
+		}
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+			if (in.readInt() != VERSION) {
+				return;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String key = in.readUTF();
+				long size = in.readLong();
+				long lastModified = in.readLong();
+				String buildId = in.readUTF();
+				int fileCount = in.readInt();
+				String[] files = fileCount == 0 ? NO_FILES : new String[fileCount];
+				for (int j = 0; j < fileCount; j++) {
+					files[j] = in.readUTF();
+				}
+				if (fileCount > 0) {
+					entries.put(key, new Entry(size, lastModified, buildId, files));
+				}
+			}
+		} catch (IOException e) {
+			// A corrupt cache is simply rebuilt
+			if (Trace.DEBUG_EXECUTABLES) Trace.getTrace().trace(null, "Unable to read source files cache: " + e); //$NON-NLS-1$
+			entries.clear();
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the cache to disk. Entries of binaries that no longer exist are
+	 * dropped.
+	 */
+	public void save() {
+		Map<String, Entry> copy;
+		synchronized (entries) {
+			for (Iterator<String> it = entries.keySet().iterator(); it.hasNext();) {
+				if (!new File(it.next()).isFile()) {
+					it.remove();
+				}
+			}
+			copy = new HashMap<String, Entry>(entries);
+		}
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(cacheFile)));
+			out.writeInt(VERSION);
+			out.writeInt(copy.size());
+			for (Map.Entry<String, Entry> mapEntry : copy.entrySet()) {
+				Entry entry = mapEntry.getValue();
+				out.writeUTF(mapEntry.getKey());
+				out.writeLong(entry.size);
+				out.writeLong(entry.lastModified);
+				out.writeUTF(entry.buildId);
+				out.writeInt(entry.files.length);
+				for (String file : entry.files) {
+					out.writeUTF(file);
+				}
+			}
+		} catch (IOException e) {
+			CDebugCorePlugin.log(e);
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the GNU build-id of an ELF binary as a hex string, or the empty
+	 * string if the file is no ELF binary or has no build-id.
+	 */
+	static String readBuildId(String path) {
+		Elf elf = null;
+		try {
+			elf = new Elf(path);
+			ByteOrder order = elf.getELFhdr().e_ident[Elf.ELFhdr.EI_DATA] == Elf.ELFhdr.ELFDATA2LSB
+					? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+			for (Elf.Section section : elf.getSections()) {
+				if (section.sh_type == Elf.Section.SHT_NOTE) {
+					// Read the small note sections, mapping them would make
+					// Elf.dispose() force a garbage collection
+					String buildId = readBuildId(ByteBuffer.wrap(section.loadSectionData()).order(order));
+					if (buildId != null) {
+						return buildId;
+					}
+				}
+			}
+		} catch (IOException e) {
+			// Not an ELF binary
+		} finally {
+			if (elf != null) {
+				elf.dispose();
+			}
+		}
+		return ""; //$NON-NLS-1$
+	}
+
+	private static String readBuildId(ByteBuffer notes) {
+		while (notes.remaining() >= 12) {
+			int nameSize = notes.getInt();
+			int descSize = notes.getInt();
+			int type = notes.getInt();
+			int nameStart = notes.position();
+			int descStart = nameStart + ((nameSize + 3) & ~3);
+			int next = descStart + ((descSize + 3) & ~3);
+			if (nameSize < 0 || descSize < 0 || next > notes.limit() || next < descStart) {
+				return null;
+			}
+			if (type == Elf.Section.NT_GNU_BUILD_ID && nameSize == 4 && notes.get(nameStart) == 'G'
+					&& notes.get(nameStart + 1) == 'N' && notes.get(nameStart + 2) == 'U') {
+				StringBuilder buildId = new StringBuilder(descSize * 2);
+				for (int i = 0; i < descSize; i++) {
+					int b = notes.get(descStart + i) & 0xff;
+					buildId.append(Character.forDigit(b >> 4, 16)).append(Character.forDigit(b & 0xf, 16));
+				}
+				return buildId.toString();
+			}
+			notes.position(next);
+		}
+		return null;
+	}
+}
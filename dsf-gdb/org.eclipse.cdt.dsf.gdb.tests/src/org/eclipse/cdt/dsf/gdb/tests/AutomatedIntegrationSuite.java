@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2014, 2016 Ericsson AB and others.
+ * Copyright (c) 2014, 2017 Ericsson AB and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -34,6 +34,7 @@ import org.junit.runners.Suite.SuiteClasses;
     MIStringHandlerTests.class,
     ProcStatParserTest.class,
     FilePartsTest.class,
+    SourceFilesCacheTest.class,
     GDBRegisterTest.class,
     GDBRegisterTest_NoContainerTest.class,
     GDBRegisterTest_WithAlternativeProcessIdTest.class,
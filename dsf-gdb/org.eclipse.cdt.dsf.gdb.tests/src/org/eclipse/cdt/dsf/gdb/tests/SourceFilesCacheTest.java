@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT Project and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.dsf.gdb.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.cdt.debug.internal.core.executables.SourceFilesCache;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SourceFilesCache}.
+ *
+ * There is no test suite for org.eclipse.cdt.debug.core, see {@link FilePartsTest}.
+ */
+public class SourceFilesCacheTest {
+	private static final String[] FILES = { "/src/a.c", "/src/b.c" };
+	private static final byte[] BUILD_ID = { 0x01, 0x23, 0x45, 0x67, (byte) 0x89, (byte) 0xab, (byte) 0xcd, (byte) 0xef };
+	private static final byte[] OTHER_BUILD_ID = { 0x01, 0x23, 0x45, 0x67, (byte) 0x89, (byte) 0xab, (byte) 0xcd, 0x00 };
+
+	private File cacheFile;
+	private File binary;
+	private IPath binaryPath;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheFile = File.createTempFile("sourceFilesCache", ".dat");
+		cacheFile.delete();
+		binary = File.createTempFile("binary", null);
+		binaryPath = new Path(binary.getAbsolutePath());
+	}
+
+	@After
+	public void tearDown() {
+		cacheFile.delete();
+		binary.delete();
+	}
+
+	/**
+	 * Writes a minimal 64-bit little-endian ELF file whose only section is a
+	 * note with the given GNU build-id.
+	 */
+	private static void writeElf(File file, byte[] buildId) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(224).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.put(new byte[] { 0x7f, 'E', 'L', 'F', 2, 1, 1 });
+		buffer.putShort(16, (short) 2); // e_type
+		buffer.putShort(18, (short) 62); // e_machine
+		buffer.putInt(20, 1); // e_version
+		buffer.putLong(40, 96); // e_shoff
+		buffer.putShort(52, (short) 64); // e_ehsize
+		buffer.putShort(58, (short) 64); // e_shentsize
+		buffer.putShort(60, (short) 2); // e_shnum
+		// The note, name "GNU" and type NT_GNU_BUILD_ID
+		buffer.putInt(64, 4).putInt(68, buildId.length).putInt(72, 3);
+		buffer.position(76);
+		buffer.put(new byte[] { 'G', 'N', 'U', 0 }).put(buildId);
+		// The header of section 1, section 0 stays empty
+		buffer.putInt(160 + 4, 7); // sh_type
+		buffer.putLong(160 + 24, 64); // sh_offset
+		buffer.putLong(160 + 32, 16 + buildId.length); // sh_size
+		write(file, buffer.array());
+	}
+
+	private static void write(File file, byte[] contents) throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(contents);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Stores the files of the binary in a new cache and writes it to disk.
+	 */
+	private void putAndSave() {
+		SourceFilesCache cache = new SourceFilesCache(cacheFile);
+		cache.put(binaryPath, FILES);
+		assertArrayEquals(FILES, cache.get(binaryPath));
+		cache.save();
+		assertTrue(cacheFile.isFile());
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		writeElf(binary, BUILD_ID);
+		putAndSave();
+		assertArrayEquals(FILES, new SourceFilesCache(cacheFile).get(binaryPath));
+	}
+
+	@Test
+	public void testRoundTripWithoutBuildId() throws IOException {
+		write(binary, new byte[] { 'n', 'o', ' ', 'E', 'L', 'F' });
+		putAndSave();
+		assertArrayEquals(FILES, new SourceFilesCache(cacheFile).get(binaryPath));
+	}
+
+	@Test
+	public void testUnknownBinary() throws IOException {
+		writeElf(binary, BUILD_ID);
+		putAndSave();
+		File other = File.createTempFile("binary", null);
+		try {
+			assertNull(new SourceFilesCache(cacheFile).get(new Path(other.getAbsolutePath())));
+		} finally {
+			other.delete();
+		}
+	}
+
+	@Test
+	public void testInvalidatedBySize() throws IOException {
+		write(binary, new byte[] { 1, 2, 3 });
+		putAndSave();
+		long lastModified = binary.lastModified();
+		write(binary, new byte[] { 1, 2, 3, 4 });
+		binary.setLastModified(lastModified);
+		assertNull(new SourceFilesCache(cacheFile).get(binaryPath));
+	}
+
+	@Test
+	public void testInvalidatedByModificationTime() throws IOException {
+		writeElf(binary, BUILD_ID);
+		putAndSave();
+		assertTrue(binary.setLastModified(binary.lastModified() + 10000));
+		assertNull(new SourceFilesCache(cacheFile).get(binaryPath));
+	}
+
+	/**
+	 * A copy that preserves the time stamp and size is detected by the build-id.
+	 */
+	@Test
+	public void testInvalidatedByBuildId() throws IOException {
+		writeElf(binary, BUILD_ID);
+		putAndSave();
+		long lastModified = binary.lastModified();
+		writeElf(binary, OTHER_BUILD_ID);
+		assertTrue(binary.setLastModified(lastModified));
+		assertNull(new SourceFilesCache(cacheFile).get(binaryPath));
+	}
+
+	@Test
+	public void testCorruptCacheFile() throws IOException {
+		writeElf(binary, BUILD_ID);
+		write(cacheFile, new byte[] { 0, 0, 0, 1, 0, 0 });
+		SourceFilesCache cache = new SourceFilesCache(cacheFile);
+		assertNull(cache.get(binaryPath));
+		cache.put(binaryPath, FILES);
+		assertArrayEquals(FILES, cache.get(binaryPath));
+	}
+
+	/**
+	 * Threads asking for the same binary at the same time read it once.
+	 */
+	@Test
+	public void testConcurrentReads() throws Exception {
+		writeElf(binary, BUILD_ID);
+		final SourceFilesCache cache = new SourceFilesCache(cacheFile);
+		final AtomicInteger reads = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final SourceFilesCache.Reader reader = new SourceFilesCache.Reader() {
+			@Override
+			public String[] read(IProgressMonitor monitor) {
+				reads.incrementAndGet();
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return FILES;
+			}
+		};
+		final String[][] results = new String[2][];
+		Thread[] threads = new Thread[2];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					results[index] = cache.get(binaryPath, reader, new NullProgressMonitor());
+				}
+			};
+		}
+		threads[0].start();
+		started.await();
+		threads[1].start();
+		// Give the second thread the chance to wait for the first one
+		Thread.sleep(200);
+		release.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(1, reads.get());
+		assertArrayEquals(FILES, results[0]);
+		assertArrayEquals(FILES, results[1]);
+	}
+
+	@Test
+	public void testCanceledReadIsNotStored() throws IOException {
+		writeElf(binary, BUILD_ID);
+		SourceFilesCache cache = new SourceFilesCache(cacheFile);
+		IProgressMonitor monitor = new NullProgressMonitor();
+		monitor.setCanceled(true);
+		SourceFilesCache.Reader reader = new SourceFilesCache.Reader() {
+			@Override
+			public String[] read(IProgressMonitor readMonitor) {
+				return FILES;
+			}
+		};
+		assertArrayEquals(FILES, cache.get(binaryPath, reader, monitor));
+		assertNull(cache.get(binaryPath));
+	}
+
+	/**
+	 * An empty list may be the result of a temporary failure, it is read again.
+	 */
+	@Test
+	public void testEmptyResultIsNotStored() throws IOException {
+		writeElf(binary, BUILD_ID);
+		SourceFilesCache cache = new SourceFilesCache(cacheFile);
+		final AtomicInteger reads = new AtomicInteger();
+		SourceFilesCache.Reader reader = new SourceFilesCache.Reader() {
+			@Override
+			public String[] read(IProgressMonitor readMonitor) {
+				return reads.incrementAndGet() == 1 ? new String[0] : FILES;
+			}
+		};
+		assertEquals(0, cache.get(binaryPath, reader, new NullProgressMonitor()).length);
+		assertNull(cache.get(binaryPath));
+		assertArrayEquals(FILES, cache.get(binaryPath, reader, new NullProgressMonitor()));
+		assertEquals(2, reads.get());
+	}
+
+	@Test
+	public void testRemove() throws IOException {
+		writeElf(binary, BUILD_ID);
+		putAndSave();
+		SourceFilesCache cache = new SourceFilesCache(cacheFile);
+		cache.remove(binaryPath);
+		assertNull(cache.get(binaryPath));
+		cache.save();
+		assertNull(new SourceFilesCache(cacheFile).get(binaryPath));
+	}
+}